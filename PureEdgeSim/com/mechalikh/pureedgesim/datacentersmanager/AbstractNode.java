@@ -19,16 +19,26 @@ package com.mechalikh.pureedgesim.datacentersmanager;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationengine.OnSimulationStartListener;
+import com.mechalikh.pureedgesim.simulationengine.OnTickListener;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 /**
  * This abstract class represents a computing node in the simulation.
  */
-public abstract class AbstractNode extends SimEntity implements ComputingNode, OnSimulationStartListener {
-    
+public abstract class AbstractNode extends SimEntity implements ComputingNode, OnSimulationStartListener, OnTickListener {
+	private static final long serialVersionUID = 1L;
+
     /**
      * The update status event ID.
-     */
+     *
+     * @deprecated the status of the nodes is no longer updated using events, but
+     *             by the tick service of their partition, which calls
+     *             {@link #onTick()} every update interval. Override
+     *             {@link #updateStatus()} or {@link #onTick()} instead of
+     *             intercepting this event. Scheduling it only triggers one more
+     *             status update.
+     */
+    @Deprecated
     protected static final int UPDATE_STATUS = 1;
 
     /**
@@ -81,11 +91,15 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode, O
     }
     /**
      * Defines the logic to be performed by the computing node when the simulation
-     * starts.
+     * starts: its status is updated every update interval, by the tick service of
+     * its partition.
+     * 
+     * @see com.mechalikh.pureedgesim.simulationengine.TickService
      */
     @Override
     public void onSimulationStart() {
-        scheduleNow(this, UPDATE_STATUS);
+        getSimulation().addTickListener(this, simulationManager.getConfiguration().updateInterval,
+                isStatusUpdatePartitionLocal() ? getPartition() : -1);
     }
 
     /**
@@ -93,11 +107,38 @@ public abstract class AbstractNode extends SimEntity implements ComputingNode, O
      * 
      * @param e the event to be processed
      */
+    @SuppressWarnings("deprecation")
     public void processEvent(Event e) {
-        if (e.getTag() == UPDATE_STATUS) {
+        // The periodic status updates are not events, see onTick()
+        if (e.getTag() == UPDATE_STATUS)
             updateStatus();
-            schedule(this, SimulationParameters.updateInterval, UPDATE_STATUS);
-        }
+        else
+            // The events that have a handler come here when a subclass overrides this method
+            invokeHandler(e);
+    }
+
+    /**
+     * Updates the status of this computing node, called every update interval.
+     */
+    @Override
+    public void onTick() {
+        updateStatus();
+    }
+
+    /**
+     * The status updates only concern this node (its energy consumption, its
+     * location, and its own links), so they can be processed in parallel with
+     * the other partitions, and with the other nodes when the "parallel_ticks"
+     * parameter is enabled. Subclasses that override {@link #updateStatus()} to
+     * access other nodes must override this method too.
+     * 
+     * @return true if the status updates are partition-local.
+     * 
+     * @see com.mechalikh.pureedgesim.simulationengine.ParallelPureEdgeSim
+     * @see com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim
+     */
+    protected boolean isStatusUpdatePartitionLocal() {
+        return true;
     }
 
     /**
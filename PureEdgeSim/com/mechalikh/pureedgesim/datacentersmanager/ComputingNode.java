@@ -20,6 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
@@ -39,7 +40,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public interface ComputingNode {
+public interface ComputingNode extends Serializable {
 	
 	/**
 	 * An enum representing the orientation of a network link.
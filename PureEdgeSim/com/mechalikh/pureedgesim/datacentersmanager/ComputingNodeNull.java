@@ -15,6 +15,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * variables.
  */
 public class ComputingNodeNull implements ComputingNode {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -46,6 +47,16 @@ public class ComputingNodeNull implements ComputingNode {
 		return instance;
 	}
 
+	/**
+	 * Returns the singleton instance when a simulation checkpoint is restored, so
+	 * that the comparisons with the NULL object still work.
+	 * 
+	 * @return the singleton instance.
+	 */
+	protected Object readResolve() {
+		return instance;
+	}
+
 	/**
 	 * Does nothing since this Computing Node is supposed to be null.
 	 */
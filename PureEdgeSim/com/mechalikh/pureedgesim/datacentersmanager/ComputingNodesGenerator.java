@@ -20,11 +20,13 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import org.w3c.dom.Element;
 
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
@@ -38,7 +40,8 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 1.0
  */
-public abstract class ComputingNodesGenerator {
+public abstract class ComputingNodesGenerator implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The list that contains all orchestrators. It is used by the computing node.
@@ -93,7 +96,7 @@ public abstract class ComputingNodesGenerator {
 	 * @see com.mechalikh.pureedgesim.taskorchestrator.Orchestrator#edgeOnly(Task
 	 *      task)
 	 */
-	protected List<ComputingNode> edgeOnlyList = new ArrayList<>(SimulationParameters.numberOfEdgeDataCenters);
+	protected List<ComputingNode> edgeOnlyList;
 
 	/**
 	 * A list that contains only cloud data centers.
@@ -101,7 +104,7 @@ public abstract class ComputingNodesGenerator {
 	 * @see com.mechalikh.pureedgesim.taskorchestrator.Orchestrator#cloudOnly(Task
 	 *      task)
 	 */
-	protected List<ComputingNode> cloudOnlyList = new ArrayList<>(SimulationParameters.numberOfCloudDataCenters);
+	protected List<ComputingNode> cloudOnlyList;
 
 	/**
 	 * A list that contains cloud data centers and edge devices (except sensors).
@@ -117,8 +120,7 @@ public abstract class ComputingNodesGenerator {
 	 * @see com.mechalikh.pureedgesim.taskorchestrator.Orchestrator#edgeAndCloud(Task
 	 *      task)
 	 */
-	protected List<ComputingNode> edgeAndCloudList = new ArrayList<>(
-			SimulationParameters.numberOfCloudDataCenters + SimulationParameters.numberOfEdgeDataCenters);
+	protected List<ComputingNode> edgeAndCloudList;
 
 	/**
 	 * A list that contains edge data centers and edge devices (except sensors).
@@ -154,17 +156,21 @@ public abstract class ComputingNodesGenerator {
 		this.simulationManager = simulationManager;
 		this.mobilityModelClass = mobilityModelClass;
 		this.computingNodeClass = computingNodeClass;
-		this.orchestratorsList = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
-		this.mistOnlyList = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
-		this.mistOnlyListSensorsExcluded = new ArrayList<>(simulationManager.getScenario().getDevicesCount());
-		this.mistAndCloudListSensorsExcluded = new ArrayList<>(
-				simulationManager.getScenario().getDevicesCount() + SimulationParameters.numberOfCloudDataCenters);
-		this.mistAndEdgeListSensorsExcluded = new ArrayList<>(
-				simulationManager.getScenario().getDevicesCount() + SimulationParameters.numberOfEdgeDataCenters);
-		this.allNodesList = new ArrayList<>(simulationManager.getScenario().getDevicesCount()
-				+ SimulationParameters.numberOfEdgeDataCenters + SimulationParameters.numberOfCloudDataCenters);
-		this.allNodesListSensorsExcluded = new ArrayList<>(simulationManager.getScenario().getDevicesCount()
-				+ SimulationParameters.numberOfEdgeDataCenters + SimulationParameters.numberOfCloudDataCenters);
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		int devicesCount = simulationManager.getScenario().getDevicesCount();
+		this.orchestratorsList = new ArrayList<>(devicesCount);
+		this.mistOnlyList = new ArrayList<>(devicesCount);
+		this.mistOnlyListSensorsExcluded = new ArrayList<>(devicesCount);
+		this.edgeOnlyList = new ArrayList<>(configuration.numberOfEdgeDataCenters);
+		this.cloudOnlyList = new ArrayList<>(configuration.numberOfCloudDataCenters);
+		this.edgeAndCloudList = new ArrayList<>(
+				configuration.numberOfCloudDataCenters + configuration.numberOfEdgeDataCenters);
+		this.mistAndCloudListSensorsExcluded = new ArrayList<>(devicesCount + configuration.numberOfCloudDataCenters);
+		this.mistAndEdgeListSensorsExcluded = new ArrayList<>(devicesCount + configuration.numberOfEdgeDataCenters);
+		this.allNodesList = new ArrayList<>(
+				devicesCount + configuration.numberOfEdgeDataCenters + configuration.numberOfCloudDataCenters);
+		this.allNodesListSensorsExcluded = new ArrayList<>(
+				devicesCount + configuration.numberOfEdgeDataCenters + configuration.numberOfCloudDataCenters);
 	}
 
 	/**
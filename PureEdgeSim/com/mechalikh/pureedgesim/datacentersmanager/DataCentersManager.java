@@ -20,10 +20,16 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
+import java.util.List;
 
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode.LinkOrientation;
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
 import com.mechalikh.pureedgesim.network.InfrastructureGraph;
+import com.mechalikh.pureedgesim.network.NetworkLink;
+import com.mechalikh.pureedgesim.simulationengine.ParallelPureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.SimEntity;
 import com.mechalikh.pureedgesim.simulationmanager.SimLog;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager; 
 
@@ -35,7 +41,9 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 
-public class DataCentersManager {
+public class DataCentersManager implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The simulation manager.
 	 * 
@@ -87,6 +95,9 @@ public class DataCentersManager {
 
 		// Generate topology
 		createTopology(topologyCreatorClass);
+
+		// Divide the infrastructure into partitions for the parallel engine
+		assignPartitions();
 	}
 
 	/**
@@ -133,6 +144,61 @@ public class DataCentersManager {
 		topologyCreator.generateTopologyGraph();
 	}
 
+	/**
+	 * Divides the computing nodes and network links into partitions, one per edge
+	 * data center coverage area, to be processed in parallel by the
+	 * {@link ParallelPureEdgeSim} engine. Each edge device belongs to the
+	 * partition of its closest edge data center when the simulation starts. The
+	 * cloud data centers, the devices that are not covered by any edge data
+	 * center, and the links between two partitions are shared by all partitions.
+	 * The lookahead of the parallel engine is the minimum latency of the links
+	 * between two partitions.
+	 */
+	public void assignPartitions() {
+		List<ComputingNode> edgeDataCenters = computingNodesGenerator.getEdgeOnlyList();
+		for (int i = 0; i < edgeDataCenters.size(); i++)
+			setPartition(edgeDataCenters.get(i), i);
+
+		for (ComputingNode device : computingNodesGenerator.getMistOnlyList())
+			setPartition(device, edgeDataCenters.indexOf(device.getMobilityModel().getClosestEdgeDataCenter()));
+
+		double lookahead = Double.MAX_VALUE;
+		for (NetworkLink link : getTopology().getGraph().edgeSet())
+			lookahead = Math.min(lookahead, assignPartition(link));
+		for (ComputingNode device : computingNodesGenerator.getMistOnlyList())
+			lookahead = Math.min(lookahead, assignPartition(device.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE)));
+
+		if (simulationManager.getSimulation() instanceof ParallelPureEdgeSim)
+			((ParallelPureEdgeSim) simulationManager.getSimulation()).setLookahead(lookahead);
+	}
+
+	/**
+	 * Puts a network link in the partition of its nodes.
+	 * 
+	 * @param link the network link.
+	 * @return the latency of the link if it connects two different partitions,
+	 *         Double.MAX_VALUE otherwise.
+	 */
+	protected double assignPartition(NetworkLink link) {
+		int srcPartition = getPartition(link.getSrc());
+		int dstPartition = getPartition(link.getDst());
+		if (srcPartition == dstPartition) {
+			link.setPartition(srcPartition);
+			return Double.MAX_VALUE;
+		}
+		link.setPartition(-1);
+		return srcPartition >= 0 && dstPartition >= 0 ? link.getLatency() : Double.MAX_VALUE;
+	}
+
+	protected void setPartition(ComputingNode node, int partition) {
+		if (node instanceof SimEntity)
+			((SimEntity) node).setPartition(partition);
+	}
+
+	protected int getPartition(ComputingNode node) {
+		return node instanceof SimEntity ? ((SimEntity) node).getPartition() : -1;
+	}
+
 	/**
 	 * Gets the topology creator.
 	 * 
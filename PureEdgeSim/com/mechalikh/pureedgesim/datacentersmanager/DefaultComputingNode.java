@@ -23,8 +23,13 @@ package com.mechalikh.pureedgesim.datacentersmanager;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
+import com.mechalikh.pureedgesim.locationmanager.Location;
+import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
+import com.mechalikh.pureedgesim.network.NetworkLink;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
+import com.mechalikh.pureedgesim.simulationengine.StateSavingEntity;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
@@ -37,7 +42,9 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class DefaultComputingNode extends LocationAwareNode {
+public class DefaultComputingNode extends LocationAwareNode implements StateSavingEntity {
+	private static final long serialVersionUID = 1L;
+
 	protected int applicationType;
 	protected boolean isSensor = false;
 	protected double availableStorage = 0; // in Megabytes
@@ -65,17 +72,11 @@ public class DefaultComputingNode extends LocationAwareNode {
 		setAvailableRam(ram);
 		setNumberOfCPUCores(numberOfCPUCores);
 		this.availableCores = numberOfCPUCores;
+		setHandler(EXECUTION_FINISHED, (Task task) -> executionFinished(task), DefaultComputingNode.class);
 		if (mipsPerCore <= 0 || numberOfCPUCores <= 0 || storage <= 0)
 			this.setAsSensor(true);
 	}
 
-	@Override
-	public void processEvent(Event e) {
-		super.processEvent(e);
-		if (e.getTag() == EXECUTION_FINISHED)
-			executionFinished(e);
-	}
-
 	public double getNumberOfCPUCores() {
 		return numberOfCPUCores;
 	}
@@ -272,23 +273,27 @@ public class DefaultComputingNode extends LocationAwareNode {
 		return mipsPerCore;
 	}
 
-	protected void executionFinished(Event e) {
+	/**
+	 * Processes the end of the execution of a task.
+	 * 
+	 * @param e the event whose data is the task.
+	 * @deprecated the finished tasks are now passed to
+	 *             {@link #executionFinished(Task)}, which is the method to
+	 *             override. This one is final so that the subclasses that still
+	 *             override it fail to compile instead of being ignored.
+	 */
+	@Deprecated
+	protected final void executionFinished(Event e) {
+		executionFinished((Task) e.getData());
+	}
 
-		// The execution of one task has been finished, free one more CPU core.
-		availableCores++;
-		// Free the RAM that has been used by the finished task.
-		setAvailableRam(this.getAvailableRam() + ((Task) e.getData()).getContainerSizeInMBytes());
-		// Free the storage that has been used by the finished task.
-		setAvailableStorage(this.getAvailableStorage() + ((Task) e.getData()).getContainerSizeInMBytes());
-		// Update CPU utilization.
-		removeCpuUtilization((Task) e.getData());
+	protected void executionFinished(Task finishedTask) {
 
-		// Save the execution end time for later use.
-		((Task) e.getData()).setExecutionFinishTime(this.getSimulation().clock());
+		releaseResources(finishedTask);
 
 		// Notify the simulation manager that a task has been finished, and it's time to
 		// return the execution results.
-		scheduleNow(simulationManager, SimulationManager.TRANSFER_RESULTS_TO_ORCH, e.getData());
+		scheduleNow(simulationManager, SimulationManager.TRANSFER_RESULTS_TO_ORCH, finishedTask);
 
 		// If there are tasks waiting for execution
 		if (!getTasksQueue().isEmpty()) {
@@ -304,6 +309,58 @@ public class DefaultComputingNode extends LocationAwareNode {
 		}
 	}
 
+	/**
+	 * Frees the resources that have been used by a finished task.
+	 * 
+	 * @param finishedTask the task whose execution has finished.
+	 */
+	protected void releaseResources(Task finishedTask) {
+		// The execution of one task has been finished, free one more CPU core.
+		availableCores++;
+		// Free the RAM that has been used by the finished task.
+		setAvailableRam(this.getAvailableRam() + finishedTask.getContainerSizeInMBytes());
+		// Free the storage that has been used by the finished task.
+		setAvailableStorage(this.getAvailableStorage() + finishedTask.getContainerSizeInMBytes());
+		// Update CPU utilization.
+		removeCpuUtilization(finishedTask);
+
+		// Save the execution end time for later use.
+		finishedTask.setExecutionFinishTime(this.getSimulation().clock());
+	}
+
+	/**
+	 * Receives the tasks whose execution finishes at the same instant together,
+	 * when the "bulk_delivery" parameter is enabled.
+	 * 
+	 * @see #processEvents(List)
+	 */
+	@Override
+	protected boolean isBulkDelivered(Event e) {
+		return simulationManager.getConfiguration().bulkDelivery && e.getTag() == EXECUTION_FINISHED
+				&& !isIntercepted(EXECUTION_FINISHED);
+	}
+
+	/**
+	 * Processes the tasks whose execution has finished at the same instant in one
+	 * pass: the resources of all of them are freed, then one queued task is
+	 * started for each finished one, and the queue is shortened once.
+	 */
+	@Override
+	protected void processEvents(List<Event> events) {
+		for (int i = 0; i < events.size(); i++)
+			releaseResources((Task) events.get(i).getData());
+
+		// The zero-delay events are processed the most recent one first, so the
+		// results are sent in the order the tasks have finished
+		for (int i = events.size() - 1; i >= 0; i--)
+			scheduleNow(simulationManager, SimulationManager.TRANSFER_RESULTS_TO_ORCH, events.get(i).getData());
+
+		List<Task> startedTasks = getTasksQueue().subList(0, Math.min(events.size(), getTasksQueue().size()));
+		for (int i = 0; i < startedTasks.size(); i++)
+			startExecution(startedTasks.get(i));
+		startedTasks.clear();
+	}
+
 	@Override
 	public void setApplicationPlacementLocation(ComputingNode node) {
 		this.applicationPlacementLocation = node;
@@ -316,6 +373,89 @@ public class DefaultComputingNode extends LocationAwareNode {
 
 	}
 
-	
+	/**
+	 * Saves the state of this computing node, so it can be rolled back by the
+	 * optimistic simulation engine: its resources, its execution queue, its
+	 * energy consumption, its location, and the nodes its current links connect.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim
+	 */
+	@Override
+	public Object saveState() {
+		State state = new State();
+		state.availableStorage = availableStorage;
+		state.availableRam = availableRam;
+		state.availableCores = availableCores;
+		state.isIdle = isIdle;
+		state.tasks = tasks;
+		state.totalTasks = totalTasks;
+		state.tasksQueue = new ArrayList<>(tasksQueue);
+		state.isApplicationPlaced = isApplicationPlaced;
+		state.applicationPlacementLocation = applicationPlacementLocation;
+		state.isDead = isDead;
+		state.deathTime = deathTime;
+		state.cpuEnergyConsumption = energyModel.getCpuEnergyConsumption();
+		state.networkEnergyConsumption = energyModel.getNetworkEnergyConsumption();
+		state.location = mobilityModel.getCurrentLocation();
+		state.upLinkDst = currentUpLink.getDst();
+		state.upLinkSrc = currentUpLink.getSrc();
+		state.downLinkSrc = currentDownLink.getSrc();
+		return state;
+	}
+
+	@Override
+	public void restoreState(Object savedState) {
+		State state = (State) savedState;
+		availableStorage = state.availableStorage;
+		availableRam = state.availableRam;
+		availableCores = state.availableCores;
+		isIdle = state.isIdle;
+		tasks = state.tasks;
+		totalTasks = state.totalTasks;
+		tasksQueue = state.tasksQueue;
+		isApplicationPlaced = state.isApplicationPlaced;
+		applicationPlacementLocation = state.applicationPlacementLocation;
+		isDead = state.isDead;
+		deathTime = state.deathTime;
+
+		// The NULL objects are shared by all nodes, so they are not modified
+		if (energyModel != EnergyModelComputingNode.NULL) {
+			energyModel.setCpuEnergyConsumption(state.cpuEnergyConsumption);
+			energyModel.setNetworkEnergyConsumption(state.networkEnergyConsumption);
+		}
+		if (mobilityModel != MobilityModel.NULL)
+			mobilityModel.setCurrentLocation(state.location);
+		if (currentUpLink != NetworkLink.NULL) {
+			currentUpLink.setDst(state.upLinkDst);
+			currentUpLink.setSrc(state.upLinkSrc);
+		}
+		if (currentDownLink != NetworkLink.NULL)
+			currentDownLink.setSrc(state.downLinkSrc);
+	}
+
+	/**
+	 * A saved state of a computing node.
+	 * 
+	 * @see #saveState()
+	 */
+	protected static class State {
+		protected double availableStorage;
+		protected double availableRam;
+		protected int availableCores;
+		protected boolean isIdle;
+		protected int tasks;
+		protected int totalTasks;
+		protected List<Task> tasksQueue;
+		protected boolean isApplicationPlaced;
+		protected ComputingNode applicationPlacementLocation;
+		protected boolean isDead;
+		protected double deathTime;
+		protected double cpuEnergyConsumption;
+		protected double networkEnergyConsumption;
+		protected Location location;
+		protected ComputingNode upLinkDst;
+		protected ComputingNode upLinkSrc;
+		protected ComputingNode downLinkSrc;
+	}
 
 }
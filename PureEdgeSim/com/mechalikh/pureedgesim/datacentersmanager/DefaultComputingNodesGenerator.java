@@ -24,8 +24,6 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom; 
 import java.util.Random;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -44,19 +42,28 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Used to generate the locations of the edge devices.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.RandomStreams
+	 */
+	protected Random random;
 
 	public DefaultComputingNodesGenerator(SimulationManager simulationManager,
 			Class<? extends MobilityModel> mobilityModelClass, Class<? extends ComputingNode> computingNodeClass) {
 		super(simulationManager, mobilityModelClass, computingNodeClass);
+		random = simulationManager.getSimulation().getRandomStreams().getStream("locations");
 	}
 	
 	@Override
 	public void generateDatacentersAndDevices() {
 
 		// Generate Edge and Cloud data centers.
-		generateDataCenters(SimulationParameters.cloudDataCentersFile, SimulationParameters.TYPES.CLOUD); 
+		generateDataCenters(simulationManager.getConfiguration().cloudDataCentersFile, SimulationParameters.TYPES.CLOUD); 
 
-		generateDataCenters(SimulationParameters.edgeDataCentersFile, SimulationParameters.TYPES.EDGE_DATACENTER); 
+		generateDataCenters(simulationManager.getConfiguration().edgeDataCentersFile, SimulationParameters.TYPES.EDGE_DATACENTER); 
 
 		// Generate edge devices.
 		generateEdgeDevices();
@@ -71,7 +78,7 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 	 */
 	public void generateEdgeDevices() {
 		// Generate edge devices instances from edge devices types in xml file.
-		try (InputStream devicesFile = new FileInputStream(SimulationParameters.edgeDevicesFile)) {
+		try (InputStream devicesFile = new FileInputStream(simulationManager.getConfiguration().edgeDevicesFile)) {
 
 			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
 
@@ -141,7 +148,7 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 
 			try {
 				insertEdgeDevice(createComputingNode(type, SimulationParameters.TYPES.EDGE_DEVICE));
-			} catch (NoSuchAlgorithmException | NoSuchMethodException | SecurityException | InstantiationException
+			} catch (NoSuchMethodException | SecurityException | InstantiationException
 					| IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 				e.printStackTrace();
 			}
@@ -172,15 +179,15 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 				if (computingNode.getType() == TYPES.CLOUD) {
 					cloudOnlyList.add(computingNode);
 					mistAndCloudListSensorsExcluded.add(computingNode);
-					if (SimulationParameters.enableOrchestrators
-							&& "CLOUD".equals(SimulationParameters.deployOrchestrators)) {
+					if (simulationManager.getConfiguration().enableOrchestrators
+							&& "CLOUD".equals(simulationManager.getConfiguration().deployOrchestrators)) {
 						orchestratorsList.add(computingNode);
 					}
 				} else {
 					edgeOnlyList.add(computingNode);
 					mistAndEdgeListSensorsExcluded.add(computingNode);
-					if (SimulationParameters.enableOrchestrators
-							&& "EDGE".equals(SimulationParameters.deployOrchestrators)) {
+					if (simulationManager.getConfiguration().enableOrchestrators
+							&& "EDGE".equals(simulationManager.getConfiguration().deployOrchestrators)) {
 						orchestratorsList.add(computingNode);
 					}
 				}
@@ -203,7 +210,6 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 	 * @param datacenterElement The configuration file.
 	 * @param type              The type, whether an MIST (edge) device, an EDGE
 	 *                          data center, or a CLOUD one.
-	 * @throws NoSuchAlgorithmException
 	 * @throws SecurityException
 	 * @throws NoSuchMethodException
 	 * @throws InvocationTargetException
@@ -212,10 +218,8 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 	 * @throws InstantiationException
 	 */
 	protected ComputingNode createComputingNode(Element datacenterElement, SimulationParameters.TYPES type)
-			throws NoSuchAlgorithmException, NoSuchMethodException, SecurityException, InstantiationException,
+			throws NoSuchMethodException, SecurityException, InstantiationException,
 			IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		// SecureRandom is preferred to generate random values.
-		Random random = SecureRandom.getInstanceStrong();
 		Boolean mobile = false;
 		double speed = 0;
 		double minPauseDuration = 0;
@@ -245,7 +249,8 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 		if (computingNode.isOrchestrator())
 			orchestratorsList.add(computingNode);
 
-		computingNode.setEnergyModel(new EnergyModelComputingNode(maxConsumption, idleConsumption));
+		computingNode.setEnergyModel(
+				new EnergyModelComputingNode(maxConsumption, idleConsumption, simulationManager.getConfiguration()));
 
 		if (type == SimulationParameters.TYPES.EDGE_DATACENTER) {
 			String name = datacenterElement.getAttribute("name");
@@ -285,8 +290,8 @@ public class DefaultComputingNodesGenerator extends ComputingNodesGenerator {
 			computingNode.enableTaskGeneration(Boolean
 					.parseBoolean(datacenterElement.getElementsByTagName("generateTasks").item(0).getTextContent()));
 			// Generate random location for edge devices
-			datacenterLocation = new Location(random.nextInt(SimulationParameters.simulationMapWidth),
-					random.nextInt(SimulationParameters.simulationMapLength));
+			datacenterLocation = new Location(random.nextInt(simulationManager.getConfiguration().simulationMapWidth),
+					random.nextInt(simulationManager.getConfiguration().simulationMapLength));
 			getSimulationManager().getSimulationLogger()
 					.deepLog("DefaultComputingNodesGenerator- Edge device:" + mistOnlyList.size() + "    location: ( "
 							+ datacenterLocation.getXPos() + "," + datacenterLocation.getYPos() + " )");
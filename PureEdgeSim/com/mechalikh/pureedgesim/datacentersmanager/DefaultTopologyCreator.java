@@ -46,7 +46,6 @@ import com.mechalikh.pureedgesim.network.NetworkLinkWanUp;
 import com.mechalikh.pureedgesim.network.NetworkLinkWifiDeviceToDevice;
 import com.mechalikh.pureedgesim.network.NetworkLinkWifiDown;
 import com.mechalikh.pureedgesim.network.NetworkLinkWifiUp;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 
@@ -59,6 +58,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 public class DefaultTopologyCreator extends TopologyCreator {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Creates a new DefaultTopologyCreator object with the specified simulation
@@ -95,7 +95,7 @@ public class DefaultTopologyCreator extends TopologyCreator {
 		infrastructureTopology.addLink(new NetworkLinkWanDown(wanNode, dc1, simulationManager, NetworkLinkTypes.WAN));
 
 		// Connect each edge device with the closest edge data center using LAN link
-		double range = SimulationParameters.edgeDataCentersRange;
+		double range = simulationManager.getConfiguration().edgeDataCentersRange;
 		for (ComputingNode edgeDevice : computingNodesGenerator.getMistOnlyList()) {
 			ComputingNode closestDC = ComputingNode.NULL;
 			double shortestDistance = Double.MAX_VALUE;
@@ -133,7 +133,7 @@ public class DefaultTopologyCreator extends TopologyCreator {
 		ComputingNode cloud = computingNodesGenerator.getCloudOnlyList().get(0);
 
 		// If we want all data to be sent over the same wan network.
-		if (SimulationParameters.useOneSharedWanLink) {
+		if (simulationManager.getConfiguration().useOneSharedWanLink) {
 			// We need to create another node to link with the cloud.
 			ComputingNode metroRouter = new Router(simulationManager);
 
@@ -159,7 +159,7 @@ public class DefaultTopologyCreator extends TopologyCreator {
 	 * Generates the network topology from the edge data centers file.
 	 */
 	protected void generateTopologyFromXmlFile() {
-		try (InputStream serversFile = new FileInputStream(SimulationParameters.edgeDataCentersFile)) {
+		try (InputStream serversFile = new FileInputStream(simulationManager.getConfiguration().edgeDataCentersFile)) {
 			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
 
 			// Disable access to external entities in XML parsing, by disallowing DocType
@@ -24,6 +24,8 @@ import com.mechalikh.pureedgesim.energy.EnergyModelComputingNode;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public abstract class EnergyAwareNode extends NetworkingNode {
+	private static final long serialVersionUID = 1L;
+
 	protected EnergyModelComputingNode energyModel = EnergyModelComputingNode.NULL;
 	protected boolean isDead = false;
 	protected double deathTime;
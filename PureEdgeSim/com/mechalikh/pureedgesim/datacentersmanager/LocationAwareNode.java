@@ -21,10 +21,11 @@
 package com.mechalikh.pureedgesim.datacentersmanager;
 
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public abstract class LocationAwareNode extends EnergyAwareNode {
+	private static final long serialVersionUID = 1L;
+
 	protected MobilityModel mobilityModel = MobilityModel.NULL;
 	protected boolean peripheral = false;
 	protected ComputingNode applicationPlacementLocation = ComputingNode.NULL;
@@ -55,21 +56,21 @@ public abstract class LocationAwareNode extends EnergyAwareNode {
 		getCurrentLink(LinkOrientation.DOWN_LINK).setSrc(closestEdgeDataCenter);
 
 		if (getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).getDst() != ComputingNode.NULL && getMobilityModel()
-				.distanceTo(getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).getDst()) >= SimulationParameters.edgeDataCentersRange) {
+				.distanceTo(getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).getDst()) >= simulationManager.getConfiguration().edgeDataCentersRange) {
 			setApplicationPlaced(false);
 		}
 	}
 
 	@Override
 	public ComputingNode getOrchestrator() {
-		if (orchestrator == ComputingNode.NULL && SimulationParameters.enableOrchestrators) {
-			if ("".equals(SimulationParameters.deployOrchestrators)
-					|| ("CLOUD".equals(SimulationParameters.deployOrchestrators))) {
+		if (orchestrator == ComputingNode.NULL && simulationManager.getConfiguration().enableOrchestrators) {
+			String deployOrchestrators = simulationManager.getConfiguration().deployOrchestrators;
+			if ("".equals(deployOrchestrators) || ("CLOUD".equals(deployOrchestrators))) {
 				orchestrator = simulationManager.getDataCentersManager().getComputingNodesGenerator().getCloudOnlyList()
 						.get(0);
-			} else if ("EDGE".equals(SimulationParameters.deployOrchestrators)) {
+			} else if ("EDGE".equals(deployOrchestrators)) {
 				orchestrator = getMobilityModel().getClosestEdgeDataCenter();
-			} else if ("MIST".equals(SimulationParameters.deployOrchestrators)) {
+			} else if ("MIST".equals(deployOrchestrators)) {
 				orchestrator = this;
 			} else {
 				double min = Double.POSITIVE_INFINITY;
@@ -82,7 +83,7 @@ public abstract class LocationAwareNode extends EnergyAwareNode {
 					}
 				}
 			}
-		} else if (!SimulationParameters.enableOrchestrators)
+		} else if (!simulationManager.getConfiguration().enableOrchestrators)
 			orchestrator = this;
 		return orchestrator;
 	}
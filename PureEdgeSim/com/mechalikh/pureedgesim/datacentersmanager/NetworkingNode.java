@@ -29,6 +29,8 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public abstract class NetworkingNode extends AbstractNode  {
+	private static final long serialVersionUID = 1L;
+
 	protected NetworkLink currentUpLink = NetworkLink.NULL;
 	protected NetworkLink currentDownLink = NetworkLink.NULL;
 	protected NetworkLink currentDeviceToDeviceWifiLink = NetworkLink.NULL;
@@ -20,10 +20,14 @@
  **/
 package com.mechalikh.pureedgesim.datacentersmanager;
 
+import java.io.Serializable;
+
 import com.mechalikh.pureedgesim.network.InfrastructureGraph;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
-public abstract class TopologyCreator {
+public abstract class TopologyCreator implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected ComputingNodesGenerator computingNodesGenerator;
 	protected SimulationManager simulationManager;
 	protected InfrastructureGraph infrastructureTopology;
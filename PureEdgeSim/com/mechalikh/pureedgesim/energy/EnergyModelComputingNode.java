@@ -20,7 +20,9 @@
  **/
 package com.mechalikh.pureedgesim.energy;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import java.io.Serializable;
+
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 
 /**
  * The linear power model for computing nodes. It implements the Null Object
@@ -31,7 +33,9 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class EnergyModelComputingNode {
+public class EnergyModelComputingNode implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	protected double maxActiveConsumption; // Consumed energy when the cpu is operating at 100% in Watt
 	protected double idleConsumption; // Consumed energy when idle (in Watt)
 	protected double cpuEnergyConsumption = 0;
@@ -52,19 +56,39 @@ public class EnergyModelComputingNode {
 	protected double transmissionEnergyPerBits;
 	protected double receptionEnergyPerBits;
 
+	protected SimulationConfiguration configuration;
+
 	public EnergyModelComputingNode(double maxActiveConsumption, double idleConsumption) {
+		this(maxActiveConsumption, idleConsumption, SimulationConfiguration.fromParameters());
+	}
+
+	public EnergyModelComputingNode(double maxActiveConsumption, double idleConsumption,
+			SimulationConfiguration configuration) {
+		this.configuration = configuration;
 		this.setMaxActiveConsumption(maxActiveConsumption);
 		this.setIdleConsumption(idleConsumption);
 	}
 
 	public void updateStaticEnergyConsumption() {
-		cpuEnergyConsumption += getIdleConsumption() / 3600 * SimulationParameters.updateInterval;
+		cpuEnergyConsumption += getIdleConsumption() / 3600 * configuration.updateInterval;
 	}
 
 	public double getCpuEnergyConsumption() {
 		return cpuEnergyConsumption;
 	}
 
+	public void setCpuEnergyConsumption(double cpuEnergyConsumption) {
+		this.cpuEnergyConsumption = cpuEnergyConsumption;
+	}
+
+	public double getNetworkEnergyConsumption() {
+		return networkEnergyConsumption;
+	}
+
+	public void setNetworkEnergyConsumption(double networkEnergyConsumption) {
+		this.networkEnergyConsumption = networkEnergyConsumption;
+	}
+
 	public double getTotalEnergyConsumption() {
 		return cpuEnergyConsumption + networkEnergyConsumption;
 	}
@@ -125,14 +149,14 @@ public class EnergyModelComputingNode {
 		this.connectivity = connectivity;
 
 		if ("cellular".equals(connectivity)) {
-			transmissionEnergyPerBits = SimulationParameters.cellularDeviceTransmissionWattHourPerBit;
-			receptionEnergyPerBits = SimulationParameters.cellularDeviceReceptionWattHourPerBit;
+			transmissionEnergyPerBits = configuration.cellularDeviceTransmissionWattHourPerBit;
+			receptionEnergyPerBits = configuration.cellularDeviceReceptionWattHourPerBit;
 		} else if ("wifi".equals(connectivity)) {
-			transmissionEnergyPerBits = SimulationParameters.wifiDeviceTransmissionWattHourPerBit;
-			receptionEnergyPerBits = SimulationParameters.wifiDeviceReceptionWattHourPerBit;
+			transmissionEnergyPerBits = configuration.wifiDeviceTransmissionWattHourPerBit;
+			receptionEnergyPerBits = configuration.wifiDeviceReceptionWattHourPerBit;
 		} else {
-			transmissionEnergyPerBits = SimulationParameters.ethernetWattHourPerBit / 2;
-			receptionEnergyPerBits = SimulationParameters.ethernetWattHourPerBit / 2;
+			transmissionEnergyPerBits = configuration.ethernetWattHourPerBit / 2;
+			receptionEnergyPerBits = configuration.ethernetWattHourPerBit / 2;
 		}
 	}
 
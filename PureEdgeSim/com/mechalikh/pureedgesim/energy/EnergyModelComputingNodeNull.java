@@ -28,6 +28,7 @@ package com.mechalikh.pureedgesim.energy;
  * attributing null to EnergyModelComputingNode variables.
  */
 public class EnergyModelComputingNodeNull extends EnergyModelComputingNode {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -45,6 +46,16 @@ public class EnergyModelComputingNodeNull extends EnergyModelComputingNode {
 	public static EnergyModelComputingNodeNull getInstance() {
 		return instance;
 	}
+
+	/**
+	 * Returns the singleton instance when a simulation checkpoint is restored, so
+	 * that the comparisons with the NULL object still work.
+	 * 
+	 * @return the singleton instance.
+	 */
+	protected Object readResolve() {
+		return instance;
+	}
 	
 	/**
 	 * 
@@ -20,6 +20,8 @@
  **/
 package com.mechalikh.pureedgesim.energy;
 
+import java.io.Serializable;
+
 import com.mechalikh.pureedgesim.network.NetworkLink;
 
 /**
@@ -30,7 +32,8 @@ import com.mechalikh.pureedgesim.network.NetworkLink;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class EnergyModelNetworkLink {
+public class EnergyModelNetworkLink implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The network link to monitor.
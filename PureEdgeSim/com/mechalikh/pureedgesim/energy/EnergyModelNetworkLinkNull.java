@@ -9,6 +9,7 @@ import com.mechalikh.pureedgesim.network.NetworkLink;
  * attributing null to EnergyModelNetworkLink variables.
  */
 public class EnergyModelNetworkLinkNull extends EnergyModelNetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * 
@@ -26,6 +27,16 @@ public class EnergyModelNetworkLinkNull extends EnergyModelNetworkLink {
 	public static EnergyModelNetworkLinkNull getInstance() {
 		return instance;
 	}
+
+	/**
+	 * Returns the singleton instance when a simulation checkpoint is restored, so
+	 * that the comparisons with the NULL object still work.
+	 * 
+	 * @return the singleton instance.
+	 */
+	protected Object readResolve() {
+		return instance;
+	}
 	
 	/**
 	 * 
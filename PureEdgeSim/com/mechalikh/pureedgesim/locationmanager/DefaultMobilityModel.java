@@ -20,17 +20,17 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.util.Random;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager; 
 
 public class DefaultMobilityModel extends MobilityModel {
+	private static final long serialVersionUID = 1L;
+
 	/**
-	 * Used to generate random values.
+	 * Used to generate random values. Each mobility model has its own stream.
 	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.RandomStreams
 	 * @see #pause
 	 * @see #reoriontate(double, double)
 	 */
@@ -42,11 +42,7 @@ public class DefaultMobilityModel extends MobilityModel {
 
 	public DefaultMobilityModel(SimulationManager simulationManager, Location currentLocation) {
 		super(simulationManager, currentLocation);
-		try {
-			random = SecureRandom.getInstanceStrong();
-		} catch (NoSuchAlgorithmException e) {
-			e.printStackTrace();
-		}
+		random = simulationManager.getSimulation().getRandomStreams().nextStream("mobility");
 		orientationAngle = random.nextInt(359);
 	}
 
@@ -57,7 +53,7 @@ public class DefaultMobilityModel extends MobilityModel {
 
 		if (pause && pauseDuration > 0) {
 			// The device mobility is paused until that random delay finishes
-			pauseDuration -= SimulationParameters.updateInterval;
+			pauseDuration -= simulationManager.getConfiguration().updateInterval;
 			return newLocation;
 		}
 
@@ -78,7 +74,7 @@ public class DefaultMobilityModel extends MobilityModel {
 	}
 
 	protected Location updateLocation(double xPosition, double yPosition) {
-		double distance = getSpeed() * SimulationParameters.updateInterval;
+		double distance = getSpeed() * simulationManager.getConfiguration().updateInterval;
 		double X_distance = Math.cos(Math.toRadians(orientationAngle)) * distance;
 		double Y_distance = Math.sin(Math.toRadians(orientationAngle)) * distance;
 		// Update the xPosition
@@ -92,7 +88,7 @@ public class DefaultMobilityModel extends MobilityModel {
 		pause = false;
 		// Increment time and then calculate the next coordinates in the next iteration
 		// (the device is moving)
-		mobilityDuration -= SimulationParameters.updateInterval;
+		mobilityDuration -= simulationManager.getConfiguration().updateInterval;
 	}
 
 	protected void pause() {
@@ -110,11 +106,11 @@ public class DefaultMobilityModel extends MobilityModel {
 	}
 
 	protected void reoriontate(double xPosition, double yPosition) {
-		if (xPosition >= SimulationParameters.simulationMapLength)
+		if (xPosition >= simulationManager.getConfiguration().simulationMapLength)
 			orientationAngle = -90 - random.nextInt(180);
 		else if (xPosition <= 0)
 			orientationAngle = -90 + random.nextInt(180);
-		if (yPosition >= SimulationParameters.simulationMapWidth)
+		if (yPosition >= simulationManager.getConfiguration().simulationMapWidth)
 			orientationAngle = -random.nextInt(180);
 		else if (yPosition <= 0)
 			orientationAngle = random.nextInt(180);
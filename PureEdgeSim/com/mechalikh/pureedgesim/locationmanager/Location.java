@@ -20,7 +20,17 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
-public class Location {
+import java.io.Serializable;
+
+import com.mechalikh.pureedgesim.simulationengine.ImmutableState;
+
+/**
+ * A position on the simulation map. Locations never change, so they are
+ * shared by the forks of a simulation.
+ */
+public class Location implements Serializable, ImmutableState {
+	private static final long serialVersionUID = 1L;
+
 	protected double xPos;
 	protected double yPos;
 
@@ -20,12 +20,12 @@
  **/
 package com.mechalikh.pureedgesim.locationmanager;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
@@ -38,7 +38,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 1.0
  */
 
-public abstract class MobilityModel {
+public abstract class MobilityModel implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	protected Location currentLocation;
 	protected boolean isMobile = false;
@@ -49,10 +50,8 @@ public abstract class MobilityModel {
 	protected double speed;
 	protected SimulationManager simulationManager;
 	protected ComputingNode closestEdgeDataCenter = ComputingNode.NULL;
-	Map<Integer, Location> path = new LinkedHashMap<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
-	Map<Integer, ComputingNode> datacentersMap = new LinkedHashMap<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
+	Map<Integer, Location> path;
+	Map<Integer, ComputingNode> datacentersMap;
 
 	/**
 	 * An attribute that implements the Null Object Design Pattern to avoid
@@ -64,15 +63,21 @@ public abstract class MobilityModel {
 	protected MobilityModel(SimulationManager simulationManager, Location location) {
 		currentLocation = location;
 		setSimulationManager(simulationManager);
+		int steps = (int) (simulationManager.getConfiguration().simulationDuration
+				/ simulationManager.getConfiguration().updateInterval);
+		path = new LinkedHashMap<>(steps);
+		datacentersMap = new LinkedHashMap<>(steps);
 	}
 
 	protected MobilityModel() {
+		path = new LinkedHashMap<>();
+		datacentersMap = new LinkedHashMap<>();
 	}
 
 	protected abstract Location getNextLocation(Location location);
 
 	public Location updateLocation(double time) {
-		if (time <= SimulationParameters.simulationDuration)
+		if (time <= simulationManager.getConfiguration().simulationDuration)
 			currentLocation = path.get((int) time * 1000);
 		return currentLocation;
 	}
@@ -81,6 +86,10 @@ public abstract class MobilityModel {
 		return currentLocation;
 	}
 
+	public void setCurrentLocation(Location location) {
+		currentLocation = location;
+	}
+
 	public boolean isMobile() {
 		return isMobile;
 	}
@@ -159,8 +168,8 @@ public abstract class MobilityModel {
 		Location newLocation = getCurrentLocation();
 
 		// Working around the double imprecision
-		int interval = (int) (SimulationParameters.updateInterval * 1000);
-		int simulationTime = (int) (SimulationParameters.simulationDuration * 1000);
+		int interval = (int) (simulationManager.getConfiguration().updateInterval * 1000);
+		int simulationTime = (int) (simulationManager.getConfiguration().simulationDuration * 1000);
 
 		for (int i = 0; i <= simulationTime; i = i + interval) {
 			path.put(i, newLocation);
@@ -173,7 +182,7 @@ public abstract class MobilityModel {
 	protected ComputingNode getDataCenter() {
 		List<ComputingNode> list = getSimulationManager().getDataCentersManager().getComputingNodesGenerator()
 				.getEdgeOnlyList();
-		double range = SimulationParameters.edgeDataCentersRange;
+		double range = simulationManager.getConfiguration().edgeDataCentersRange;
 		ComputingNode closestDC = ComputingNode.NULL;
 		for (int i = 0; i < list.size(); i++) {
 			if (list.get(i).isPeripheral() && distanceTo(list.get(i)) <= range) {
@@ -185,7 +194,7 @@ public abstract class MobilityModel {
 	}
 
 	public ComputingNode getClosestEdgeDataCenter() {
-		return (isMobile && getSimulationManager().getSimulation().clock() <= SimulationParameters.simulationDuration)
+		return (isMobile && getSimulationManager().getSimulation().clock() <= simulationManager.getConfiguration().simulationDuration)
 				? datacentersMap.get((int) (getSimulationManager().getSimulation().clock() * 1000))
 				: closestEdgeDataCenter;
 	}
@@ -29,6 +29,17 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
  * variables.
  */
 public class MobilityModelNull extends MobilityModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Returns the {@link MobilityModel#NULL} object when a simulation checkpoint is
+	 * restored, so that the comparisons with it still work.
+	 * 
+	 * @return the NULL object.
+	 */
+	protected Object readResolve() {
+		return MobilityModel.NULL;
+	}
 
 	public Location getCurrentLocation() {
 		return new Location(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
@@ -20,10 +20,9 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import org.jgrapht.GraphPath;
+import java.util.Map;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode.LinkOrientation;
@@ -36,93 +35,119 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
 public class DefaultNetworkModel extends NetworkModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The routes used so far, by pair of nodes.
+	 * 
+	 * @see #getRoute(ComputingNode, ComputingNode)
+	 */
+	protected final Map<Long, Route> routes = new HashMap<>();
 
 	public DefaultNetworkModel(SimulationManager simulationManager) {
 		super(simulationManager);
+
+		// Send the offloading request to the orchestrator
+		setHandler(SEND_REQUEST_FROM_DEVICE_TO_ORCH, this::sendRequestFromDeviceToOrch, DefaultNetworkModel.class);
+		// Forward the offloading request from orchestrator to offloading destination
+		setHandler(SEND_REQUEST_FROM_ORCH_TO_DESTINATION, this::sendRequestFromOrchToDest, DefaultNetworkModel.class);
+		// Pull the container from the registry
+		setHandler(DOWNLOAD_CONTAINER, this::addContainer, DefaultNetworkModel.class);
+		// Send the execution results to the orchestrator
+		setHandler(SEND_RESULT_TO_ORCH, this::sendResultFromDevToOrch, DefaultNetworkModel.class);
+		// Transfer the execution results from the orchestrators to the device
+		setHandler(SEND_RESULT_FROM_ORCH_TO_DEV, this::sendResultFromOrchToDev, DefaultNetworkModel.class);
+		// A transfer has finished
+		setHandler(TRANSFER_FINISHED, this::transferFinished, DefaultNetworkModel.class);
 	}
 
 	@Override
 	public void processEvent(Event ev) {
-		switch (ev.getTag()) {
-		case SEND_REQUEST_FROM_DEVICE_TO_ORCH:
-			// Send the offloading request to the orchestrator
-			sendRequestFromDeviceToOrch((Task) ev.getData());
-			break;
-		case SEND_REQUEST_FROM_ORCH_TO_DESTINATION:
-			// Forward the offloading request from orchestrator to offloading destination
-			sendRequestFromOrchToDest((Task) ev.getData());
-			break;
-		case DOWNLOAD_CONTAINER:
-			// Pull the container from the registry
-			addContainer((Task) ev.getData());
-			break;
-		case SEND_RESULT_TO_ORCH:
-			// Send the execution results to the orchestrator
-			sendResultFromDevToOrch((Task) ev.getData());
-			break;
-		case SEND_RESULT_FROM_ORCH_TO_DEV:
-			// Transfer the execution results from the orchestrators to the device
-			sendResultFromOrchToDev((Task) ev.getData());
-			break;
-		case TRANSFER_FINISHED:
-			// Transfer the execution results from the orchestrators to the device
-			transferFinished((TransferProgress) ev.getData());
-			break;
-		default:
-			break;
-		}
+		// All the events of the network model are passed to the handlers registered
+		// in the constructor, through this method if a subclass overrides it
+		invokeHandler(ev);
 	}
 
 	public void send(ComputingNode from, ComputingNode to, Task task, double fileSize, TransferProgress.Type type) {
-		List<ComputingNode> vertexList = new ArrayList<>(5);
-		List<NetworkLink> edgeList = new ArrayList<>(5);
+		startTransfer(new TransferProgress(task, fileSize, type).setRoute(getRoute(from, to)));
+	}
+
+	/**
+	 * Gets the route of the transfers from a node to another. It is shared by all
+	 * these transfers, and kept as long as the current links of the edge devices
+	 * it goes through do not change.
+	 * 
+	 * @param from the source.
+	 * @param to   the destination.
+	 * @return the route.
+	 */
+	protected Route getRoute(ComputingNode from, ComputingNode to) {
+		long id = simulationManager.getDataCentersManager().getTopology().getUniqueId(from.getId(), to.getId());
+		Route route = routes.get(id);
+		if (route == null || !isCurrent(route, from, to)) {
+			route = newRoute(from, to);
+			routes.put(id, route);
+		}
+		return route;
+	}
+
+	protected Route newRoute(ComputingNode from, ComputingNode to) {
+		InfrastructureGraph topology = simulationManager.getDataCentersManager().getTopology();
 
 		// If both are edge devices (one hop far from each other), send directly.
 		if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DEVICE) {
-			from.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE).setDst(to);
-			vertexList.addAll(List.of(from, to));
-			edgeList.add(from.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE));
+			NetworkLink link = from.getCurrentLink(LinkOrientation.DEVICE_TO_DEVICE);
+			link.setDst(to);
+			return new Route(List.of(from, to), List.of(link));
 
 		} // Otherwise, if the first is a mobile edge device
-		else if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DATACENTER) { 
-			long id = simulationManager.getDataCentersManager().getTopology()
-					.getUniqueId(from.getCurrentLink(LinkOrientation.UP_LINK).getDst().getId(), to.getId());
-			GraphPath<ComputingNode, NetworkLink> path = simulationManager.getDataCentersManager().getTopology()
-					.getPathsMap().get(id);
-			vertexList.add(from);
-			vertexList.addAll(path.getVertexList());
-			edgeList.add(from.getCurrentLink(LinkOrientation.UP_LINK));
-			edgeList.addAll(path.getEdgeList());
+		else if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DATACENTER) {
+			NetworkLink upLink = from.getCurrentLink(LinkOrientation.UP_LINK);
+			return topology.getRoute(upLink.getDst(), to).prepend(from, upLink);
 
 		} // Else, if the second is a mobile edge device
 		else if (from.getType() == TYPES.EDGE_DATACENTER && to.getType() == TYPES.EDGE_DEVICE) {
-			long id = simulationManager.getDataCentersManager().getTopology().getUniqueId(from.getId(),
-					to.getCurrentLink(LinkOrientation.DOWN_LINK).getSrc().getId());
-			GraphPath<ComputingNode, NetworkLink> path = simulationManager.getDataCentersManager().getTopology()
-					.getPathsMap().get(id);
-			vertexList.addAll(path.getVertexList());
-			vertexList.add(from);
-			edgeList.addAll(path.getEdgeList());
-			edgeList.add(to.getCurrentLink(LinkOrientation.DOWN_LINK)); 
-			
-		} 
-		else { // Otherwise, if one of them is and edge device but not mobile, or the other is a cloud, or any other cases.
-			GraphPath<ComputingNode, NetworkLink> path;
-			long id = simulationManager.getDataCentersManager().getTopology().getUniqueId(from.getId(), to.getId());
-
-			if (simulationManager.getDataCentersManager().getTopology().getPathsMap().containsKey(id)) {
-				path = simulationManager.getDataCentersManager().getTopology().getPathsMap().get(id);
-			} else {
-				path = simulationManager.getDataCentersManager().getTopology().getPath(from, to);
-				simulationManager.getDataCentersManager().getTopology().getPathsMap().put(id, path);
-			}
-			vertexList.addAll(path.getVertexList());
-			edgeList.addAll(path.getEdgeList());
-			
+			NetworkLink downLink = to.getCurrentLink(LinkOrientation.DOWN_LINK);
+			return topology.getRoute(from, downLink.getSrc()).append(downLink, to);
+
+		} // Otherwise, if one of them is and edge device but not mobile, or the other is a cloud, or any other cases.
+		else
+			return topology.getRoute(from, to);
+	}
+
+	/**
+	 * Tells whether a route that has been used between two nodes still uses the
+	 * current links of the edge devices.
+	 * 
+	 * @param route the route.
+	 * @param from  the source.
+	 * @param to    the destination.
+	 * @return false if the route needs to be found again.
+	 */
+	protected boolean isCurrent(Route route, ComputingNode from, ComputingNode to) {
+		if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DEVICE)
+			return route.getLink(0).getDst() == to;
+		else if (from.getType() == TYPES.EDGE_DEVICE && to.getType() == TYPES.EDGE_DATACENTER) {
+			NetworkLink upLink = from.getCurrentLink(LinkOrientation.UP_LINK);
+			return route.getLink(0) == upLink && route.getVertex(1) == upLink.getDst();
+		} else if (from.getType() == TYPES.EDGE_DATACENTER && to.getType() == TYPES.EDGE_DEVICE) {
+			NetworkLink downLink = to.getCurrentLink(LinkOrientation.DOWN_LINK);
+			int last = route.getLength() - 1;
+			return route.getLink(last) == downLink && route.getVertex(last) == downLink.getSrc();
 		}
-		edgeList.get(0).addTransfer(
-				new TransferProgress(task, fileSize, type).setVertexList(vertexList).setEdgeList(edgeList));
+		return true;
+	}
 
+	/**
+	 * Starts a transfer whose route has been set, by handing it to the first link
+	 * of its route. The links then forward it hop by hop until it reaches its
+	 * destination.
+	 * 
+	 * @param transfer the transfer.
+	 * @see MaxMinFairNetworkModel
+	 */
+	protected void startTransfer(TransferProgress transfer) {
+		transfer.getCurrentLink().addTransfer(transfer);
 	}
 
 	public void sendRequestFromOrchToDest(Task task) {
@@ -163,7 +188,7 @@ public class DefaultNetworkModel extends NetworkModel {
 	}
 
 	public void sendRequestFromDeviceToOrch(Task task) {
-		if (SimulationParameters.enableOrchestrators && task.getEdgeDevice() != task.getOrchestrator()) {
+		if (simulationManager.getConfiguration().enableOrchestrators && task.getEdgeDevice() != task.getOrchestrator()) {
 			send(task.getEdgeDevice(), task.getOrchestrator(), task, task.getFileSizeInBits(),
 					TransferProgress.Type.REQUEST);
 
@@ -180,7 +205,7 @@ public class DefaultNetworkModel extends NetworkModel {
 		if (transfer.getTransferType() == TransferProgress.Type.REQUEST) {
 			// in case this node is the orchestrator
 
-			if (transfer.getVertexList().get(0) == transfer.getTask().getOrchestrator()) {
+			if (transfer.getCurrentNode() == transfer.getTask().getOrchestrator()) {
 				updateEdgeDevicesRemainingEnergy(transfer, transfer.getTask().getEdgeDevice(),
 						transfer.getTask().getOrchestrator());
 			}
@@ -189,7 +214,7 @@ public class DefaultNetworkModel extends NetworkModel {
 		// If it is a task (or offloading request) that is sent to the destination
 		else if (transfer.getTransferType() == TransferProgress.Type.TASK) {
 			// in case this node is the destination
-			if (transfer.getVertexList().get(0) == transfer.getTask().getOffloadingDestination()) {
+			if (transfer.getCurrentNode() == transfer.getTask().getOffloadingDestination()) {
 				updateEdgeDevicesRemainingEnergy(transfer, transfer.getTask().getEdgeDevice(),
 						transfer.getTask().getOffloadingDestination());
 			}
@@ -241,7 +266,7 @@ public class DefaultNetworkModel extends NetworkModel {
 	}
 
 	protected void executeTaskOrDownloadContainer(TransferProgress transfer) {
-		if (SimulationParameters.enableRegistry && "CLOUD".equals(SimulationParameters.registryMode)
+		if (simulationManager.getConfiguration().enableRegistry && "CLOUD".equals(simulationManager.getConfiguration().registryMode)
 				&& !(transfer.getTask().getOffloadingDestination()).getType().equals(TYPES.CLOUD)) {
 			// If the registry is enabled and the task is offloaded to the edge data centers
 			// or the mist nodes (edge devices),
@@ -20,27 +20,36 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.jgrapht.GraphPath;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
-import org.jgrapht.alg.shortestpath.FloydWarshallShortestPaths;
 import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.jgrapht.graph.GraphWalk;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.network.NetworkLink.NetworkLinkTypes;
+import com.mechalikh.pureedgesim.simulationengine.ImmutableState;
 
 /**
  * Infrastructure topology connecting compute nodes with network links in a
  * weighted graph.
+ * <p>
+ * The graph is built using JGraphT, but the shortest paths are found using a
+ * compact snapshot of it, the {@link RoutingGraph}, which is taken again after
+ * links are added or removed.
  *
  * The implementation is a bit messy because it complies with the outdated
  * CloudSim NetworkTopology interface.
  */
-public class InfrastructureGraph {
+public class InfrastructureGraph implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	public static final InfrastructureGraph NULL = new InfrastructureGraph() {
 	};
@@ -49,6 +58,41 @@ public class InfrastructureGraph {
 
 	protected Map<Long, GraphPath<ComputingNode, NetworkLink>> pathsMap = new LinkedHashMap<>();
 
+	/**
+	 * The routes of the paths of the paths map, shared by all the transfers
+	 * between the same nodes.
+	 * 
+	 * @see #getRoute(ComputingNode, ComputingNode)
+	 */
+	protected Map<Long, Route> routes = new HashMap<>();
+
+	/**
+	 * The vertices, in the order they have been added, and the index of each one
+	 * in this list, which is also its index in the rows of the latency index and
+	 * in the {@link RoutingGraph}.
+	 */
+	protected List<ComputingNode> vertices = new ArrayList<>();
+	protected Map<ComputingNode, Integer> vertexIndexes = new HashMap<>();
+
+	/**
+	 * The snapshot of the graph used to find the shortest paths, null if links have
+	 * been added or removed since it was taken.
+	 * 
+	 * @see #getRoutingGraph()
+	 */
+	protected RoutingGraph routingGraph;
+
+	/**
+	 * The latency index: the delays from a source to all vertices (indexed by
+	 * their index), for each source whose delays have been requested. A row is
+	 * dropped when a link that changes it is added or removed, and computed again
+	 * on the next request. The rows never change, so they are shared by the forks
+	 * of the simulation.
+	 * 
+	 * @see #getDelay(ComputingNode, ComputingNode)
+	 */
+	protected Map<ComputingNode, Delays> delays = new HashMap<>();
+
 	public InfrastructureGraph() {
 		graph = new DirectedWeightedMultigraph<>(NetworkLink.class);
 	}
@@ -56,47 +100,149 @@ public class InfrastructureGraph {
 	public void addLink(NetworkLink networkLink) {
 		graph.addVertex(networkLink.getSrc());
 		graph.addVertex(networkLink.getDst());
+		addVertexIndex(networkLink.getSrc());
+		addVertexIndex(networkLink.getDst());
 		graph.addEdge(networkLink.getSrc(), networkLink.getDst(), networkLink);
 		graph.setEdgeWeight(networkLink, networkLink.getLatency()); // in jgrapht all access to the weight of an edge
 																	// must go through the graph interface
+		routingGraph = null;
+
+		// Drop the delays that are shortened by this link
+		invalidateDelays(networkLink.getSrc(), networkLink.getDst(),
+				(sourceDelay, destinationDelay) -> sourceDelay + networkLink.getLatency() < destinationDelay);
 	}
 
+	protected void addVertexIndex(ComputingNode node) {
+		if (!vertexIndexes.containsKey(node)) {
+			vertexIndexes.put(node, vertices.size());
+			vertices.add(node);
+		}
+	}
+
+	/**
+	 * Gets the snapshot of the graph used to find the shortest paths, which is
+	 * taken again if links have been added or removed since the previous one.
+	 * 
+	 * @return the snapshot.
+	 */
+	public RoutingGraph getRoutingGraph() {
+		if (routingGraph == null)
+			routingGraph = new RoutingGraph(graph, vertices);
+		return routingGraph;
+	}
+
+	/**
+	 * Gets the delay (i.e. the sum of the latencies) of the shortest path between
+	 * two nodes. The delays from a node to all the others are computed once, using
+	 * Dijkstra's algorithm, the first time one of them is requested, and kept
+	 * until a link that changes them is added or removed. The following requests
+	 * take a constant time.
+	 * <p>
+	 * The links must be added and removed using {@link #addLink(NetworkLink)} and
+	 * {@link #removeLink(NetworkLink)}, as the delays are not updated when the
+	 * graph is modified directly.
+	 * 
+	 * @param computingNode  the source node.
+	 * @param computingNode2 the destination node.
+	 * @return the delay in seconds, or Double.POSITIVE_INFINITY if there is no
+	 *         path between them.
+	 */
 	public double getDelay(final ComputingNode computingNode, final ComputingNode computingNode2) {
-		// The Network interfaces in CloudSimPlus are not very good, the try catch
-		// should not be necessary
-		FloydWarshallShortestPaths<ComputingNode, NetworkLink> algorithm = new FloydWarshallShortestPaths<>(graph);
-		try {
-			return algorithm.getPathWeight(computingNode, computingNode2); // Returns Double.POSITIVE_INFINITY if no
-																			// path exists
-		} catch (IllegalArgumentException e) {
+		Integer destination = vertexIndexes.get(computingNode2);
+		if (destination == null || !vertexIndexes.containsKey(computingNode))
 			return Double.POSITIVE_INFINITY;
-		}
+
+		return delays.computeIfAbsent(computingNode, this::computeDelays).to(destination);
+	}
+
+	/**
+	 * Computes the delays from a node to all the others.
+	 * 
+	 * @param source the node.
+	 * @return the delays, indexed by the index of the vertices.
+	 */
+	protected Delays computeDelays(ComputingNode source) {
+		// Double.POSITIVE_INFINITY if no path exists
+		return new Delays(getRoutingGraph().newSearch().run(vertexIndexes.get(source)).getDistances());
+	}
+
+	/**
+	 * Drops the rows of the latency index that are changed by adding or removing a
+	 * link, given the current delays to its source and destination.
+	 * 
+	 * @param src     the source of the link.
+	 * @param dst     the destination of the link.
+	 * @param changed tells from these delays whether the row is changed.
+	 */
+	protected void invalidateDelays(ComputingNode src, ComputingNode dst, DelaysChange changed) {
+		if (delays.isEmpty())
+			return;
+		int srcIndex = vertexIndexes.get(src);
+		int dstIndex = vertexIndexes.get(dst);
+		delays.values().removeIf(row -> changed.test(row.to(srcIndex), row.to(dstIndex)));
 	}
 
 	public void removeLink(ComputingNode src, ComputingNode dest) {
-		graph.removeEdge(src, dest);
+		NetworkLink link = graph.getEdge(src, dest);
+		if (link != null)
+			removeLink(link);
 	}
 
 	public void removeLink(NetworkLink link) {
+		if (!graph.containsEdge(link))
+			return;
+		ComputingNode src = graph.getEdgeSource(link);
+		ComputingNode dst = graph.getEdgeTarget(link);
+		double weight = graph.getEdgeWeight(link);
 		graph.removeEdge(link);
+		routingGraph = null;
+
+		// Drop the delays of the shortest paths that go through this link
+		invalidateDelays(src, dst, (sourceDelay, destinationDelay) -> sourceDelay != Double.POSITIVE_INFINITY
+				&& sourceDelay + weight == destinationDelay);
 	}
 
 	public GraphPath<ComputingNode, NetworkLink> getPath(final ComputingNode computingNode, final ComputingNode node) {
-		DijkstraShortestPath<ComputingNode, NetworkLink> algorithm = new DijkstraShortestPath<>(graph);
-		try {
-			return assertNotNull(algorithm.getPath(computingNode, node));
-		} catch (IllegalArgumentException e) {
-			throw new IllegalArgumentException("Cannot get a path from node " + computingNode.getId() + " (Class: "
-					+ computingNode.getClass().getSimpleName() + " type: " + computingNode.getType() + ") to "
-					+ node.getId() + " (Class: " + node.getClass().getSimpleName() + " type: " + node.getType()
-					+ "). Possible solutions : add links in edge_datacenter.xml file (see examples), Or check your topology creator class.");
+		Integer source = vertexIndexes.get(computingNode);
+		if (source == null || !vertexIndexes.containsKey(node))
+			throw pathNotFound(computingNode, node);
+		return getPath(getRoutingGraph().newSearch().run(source), node);
+	}
+
+	/**
+	 * Gets the shortest path to a node from the source of a search.
+	 * 
+	 * @param search the search.
+	 * @param node   the destination.
+	 * @return the path.
+	 * @throws IllegalArgumentException if there is no path to this node.
+	 */
+	protected GraphPath<ComputingNode, NetworkLink> getPath(RoutingGraph.Search search, ComputingNode node) {
+		RoutingGraph routing = getRoutingGraph();
+		ComputingNode start = routing.getVertex(search.getSource());
+		Integer target = vertexIndexes.get(node);
+		if (target == null || search.getDistance(target) == Double.POSITIVE_INFINITY)
+			throw pathNotFound(start, node);
+
+		// Go back from the destination to the source
+		List<ComputingNode> vertexList = new ArrayList<>();
+		List<NetworkLink> edgeList = new ArrayList<>();
+		vertexList.add(node);
+		for (int edge = search.getParentEdge(target); edge != -1; edge = search
+				.getParentEdge(routing.getEdgeSource(edge))) {
+			edgeList.add(routing.getLink(edge));
+			vertexList.add(routing.getVertex(routing.getEdgeSource(edge)));
 		}
+		Collections.reverse(vertexList);
+		Collections.reverse(edgeList);
+		return new GraphWalk<>(graph, start, node, vertexList, edgeList, search.getDistance(target));
 	}
 
-	protected GraphPath<ComputingNode, NetworkLink> assertNotNull(GraphPath<ComputingNode, NetworkLink> path) {
-		if (null == path)
-			throw new IllegalArgumentException();
-		return path;
+	protected IllegalArgumentException pathNotFound(ComputingNode computingNode, ComputingNode node) {
+		return new IllegalArgumentException("Cannot get a path from node " + computingNode.getId() + " (Class: "
+				+ computingNode.getClass().getSimpleName() + " type: " + computingNode.getType() + ") to "
+				+ node.getId() + " (Class: " + node.getClass().getSimpleName() + " type: " + node.getType()
+				+ "). Possible solutions : add links in edge_datacenter.xml file (see examples), Or check your topology creator class.");
 	}
 
 	public DirectedWeightedMultigraph<ComputingNode, NetworkLink> getGraph() {
@@ -147,17 +293,81 @@ public class InfrastructureGraph {
 		return pathsMap;
 	}
 
+	/**
+	 * Gets the route of the shortest path between two nodes. Like the paths of the
+	 * paths map, it is found once and then shared by all the transfers between
+	 * these nodes.
+	 * 
+	 * @param from the source.
+	 * @param to   the destination.
+	 * @return the route.
+	 * @throws IllegalArgumentException if there is no path between them.
+	 */
+	public Route getRoute(ComputingNode from, ComputingNode to) {
+		long id = getUniqueId(from.getId(), to.getId());
+		Route route = routes.get(id);
+		if (route == null) {
+			GraphPath<ComputingNode, NetworkLink> path = pathsMap.get(id);
+			if (path == null) {
+				path = getPath(from, to);
+				pathsMap.put(id, path);
+			}
+			route = new Route(path.getVertexList(), path.getEdgeList());
+			routes.put(id, route);
+		}
+		return route;
+	}
+
 	public void savePathsToMap(List<ComputingNode> list) {
-		// Save shortest paths in map to use them later
+		// Save shortest paths in map to use them later, using a single search for
+		// all the paths from the same node
+		RoutingGraph.Search search = getRoutingGraph().newSearch();
 		for (int i = 0; i < list.size(); i++) {
 			ComputingNode from = list.get(i);
+			Integer source = vertexIndexes.get(from);
+			if (source == null)
+				throw pathNotFound(from, list.get(0));
+			search.run(source);
 			for (int j = 0; j < list.size(); j++) { 
 				ComputingNode to = list.get(j);
-				pathsMap.put(getUniqueId(from.getId(), to.getId()), this.getPath(from, to));
+				pathsMap.put(getUniqueId(from.getId(), to.getId()), getPath(search, to));
 			}
 		}
 	}
 
+	/**
+	 * A row of the latency index: the delays from a source to all the vertices.
+	 */
+	protected static class Delays implements Serializable, ImmutableState {
+		private static final long serialVersionUID = 1L;
+
+		protected final double[] values;
+
+		protected Delays(double[] values) {
+			this.values = values;
+		}
+
+		/**
+		 * Gets the delay to a vertex.
+		 * 
+		 * @param index the index of the vertex.
+		 * @return the delay, or Double.POSITIVE_INFINITY if there is no path to this
+		 *         vertex, or if it has been added after this row was computed.
+		 */
+		protected double to(int index) {
+			return index < values.length ? values[index] : Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Tells whether a row of the latency index is changed by a link, given the
+	 * delays to its source and to its destination.
+	 */
+	@FunctionalInterface
+	protected interface DelaysChange extends Serializable {
+		boolean test(double sourceDelay, double destinationDelay);
+	}
+
 	// Get a unique id using Cantor pairing function
 	public long getUniqueId(int a, int b) {
 		return (long) ((1 / 2.0) * (a + b) * (a + b + 1)) + b;
@@ -0,0 +1,516 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.mechalikh.pureedgesim.simulationengine.Event;
+import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
+
+/**
+ * A network model that shares the bandwidth between end-to-end flows using
+ * max-min fairness, instead of letting each link share its bandwidth equally
+ * between the transfers it currently forwards.
+ * <p>
+ * With the default model, a transfer goes through its path hop by hop, and gets
+ * an equal share of each link, even if it is slowed down by another link of its
+ * path and cannot use it, in which case this share is wasted. Here, a transfer
+ * is a flow that uses all the links of its path at the same rate, from the
+ * start to the end. The rates are given by progressive filling: the rates of
+ * all flows grow together until a link is saturated, the flows that use it are
+ * then frozen at their rate, and the others keep growing, until every flow is
+ * frozen. Each flow then gets the largest rate it can get without lowering the
+ * rate of a flow that has a lower one, and the bandwidth left over by a flow
+ * that is slowed down elsewhere goes to the others.
+ * <p>
+ * The rates only change when a flow starts or finishes, and only for the flows
+ * that share a link with it, directly or through other flows (i.e. its connected
+ * component in the graph of flows and links). Only this component is updated:
+ * the progress of its flows is brought up to date, their rates are computed
+ * again, and the time at which each flow finishes is computed from its
+ * remaining data and its new rate. A single event is scheduled, when the next
+ * flow finishes. No periodic update is needed, so the cost of the network
+ * depends on the number of transfers and on how much they share the links, not
+ * on the simulation duration or on the number of flows elsewhere in the
+ * network.
+ * <p>
+ * When the realistic network model is disabled, transfers are instantaneous and
+ * are handed to the links as with the {@link DefaultNetworkModel}. To use this
+ * model, pass it to
+ * {@link com.mechalikh.pureedgesim.simulationmanager.Simulation#setCustomNetworkModel(Class)}.
+ *
+ * @see #startTransfer(TransferProgress)
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration#realisticNetworkModel
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class MaxMinFairNetworkModel extends DefaultNetworkModel {
+	private static final long serialVersionUID = 1L;
+
+	protected static final int FLOWS_COMPLETED = 8;
+
+	/**
+	 * The amount of time, in seconds, below which a flow is considered finished, to
+	 * absorb the rounding errors.
+	 */
+	protected static final double COMPLETION_TOLERANCE = 1e-9;
+
+	/**
+	 * The flows of each link that has been used by at least one flow.
+	 */
+	protected final Map<NetworkLink, LinkFlows> links = new IdentityHashMap<>();
+
+	/**
+	 * The time at which each flow finishes given its current rate. An entry is
+	 * outdated once the rate of its flow changes, in which case it is left in the
+	 * queue and ignored.
+	 */
+	protected final PriorityQueue<Completion> completions = new PriorityQueue<>();
+
+	/**
+	 * The number of current flows.
+	 */
+	protected int flowsCount;
+
+	/**
+	 * Used to finish the flows of the same instant in the order they started.
+	 */
+	protected long serial;
+
+	/**
+	 * Marks the flows and the links of the component that is being updated.
+	 */
+	protected int stamp;
+
+	/**
+	 * The flows and links of the component that is being updated.
+	 */
+	protected final List<Flow> componentFlows = new ArrayList<>();
+	protected final List<LinkFlows> componentLinks = new ArrayList<>();
+
+	/**
+	 * The event of the next flow completion, null if there is none.
+	 */
+	protected Event completionEvent;
+
+	public MaxMinFairNetworkModel(SimulationManager simulationManager) {
+		super(simulationManager);
+
+		// The next flows have finished
+		setHandler(FLOWS_COMPLETED, data -> finishFlows());
+	}
+
+	/**
+	 * Starts a flow over all the links of the transfer path, then updates the rates
+	 * of the flows that share a link with it.
+	 */
+	@Override
+	protected void startTransfer(TransferProgress transfer) {
+		if (!simulationManager.getConfiguration().realisticNetworkModel) {
+			super.startTransfer(transfer);
+			return;
+		}
+
+		Route route = transfer.getRoute();
+		Flow flow = new Flow(transfer, route.getLength(), getSimulation().clock(), serial++);
+		for (int i = 0; i < route.getLength(); i++) {
+			NetworkLink link = route.getLink(i);
+			// Used by the energy model to get the total energy consumed by this network
+			// link
+			link.totalTrasferredData += transfer.getFileSize();
+			LinkFlows linkFlows = links.computeIfAbsent(link, LinkFlows::new);
+			flow.links[i] = linkFlows;
+			flow.positions[i] = linkFlows.add(flow, i);
+		}
+		flowsCount++;
+
+		stamp++;
+		for (LinkFlows link : flow.links)
+			addComponent(link);
+		allocate();
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Finishes the flows that are done, then updates the rates of the flows that
+	 * shared a link with them.
+	 */
+	protected void finishFlows() {
+		completionEvent = null;
+		double now = getSimulation().clock();
+
+		List<Flow> finished = new ArrayList<>();
+		while (!completions.isEmpty()) {
+			Completion next = completions.peek();
+			if (next.isOutdated()) {
+				completions.poll();
+				continue;
+			}
+			if (next.time - now > COMPLETION_TOLERANCE)
+				break;
+			completions.poll();
+			Flow flow = next.flow;
+			// Outdate the other entries of this flow, if any
+			flow.version++;
+			for (int i = 0; i < flow.links.length; i++)
+				flow.links[i].remove(flow.positions[i]);
+			flowsCount--;
+			finished.add(flow);
+		}
+
+		for (Flow flow : finished)
+			flowFinished(flow, now);
+
+		stamp++;
+		for (Flow flow : finished)
+			for (LinkFlows link : flow.links)
+				addComponent(link);
+		allocate();
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Updates the transfer of a finished flow, then notifies this model once its
+	 * data has reached the destination.
+	 *
+	 * @param flow the flow.
+	 * @param now  the current time.
+	 */
+	protected void flowFinished(Flow flow, double now) {
+		TransferProgress transfer = flow.transfer;
+
+		// The flow used all the links of its path during the whole transfer
+		double transferDelay = now - flow.startTime;
+		if (transferDelay > 0)
+			transfer.setCurrentBandwidth(transfer.getFileSize() / transferDelay);
+		transfer.setRemainingFileSize(0);
+		transfer.getTask().addActualNetworkTime(transferDelay);
+		for (LinkFlows link : flow.links) {
+			link.link.addNetworkUsage(transfer, transferDelay);
+			// Add the network link latency to the task network delay
+			transfer.getTask().addActualNetworkTime(link.link.getLatency());
+		}
+
+		// Data has reached the destination
+		transfer.setHop(transfer.getRoute().getLength());
+
+		// Update logger parameters
+		simulationManager.getSimulationLogger().updateNetworkUsage(transfer);
+
+		NetworkLink lastLink = flow.links[flow.links.length - 1].link;
+		schedule(this, lastLink.getLatency(), TRANSFER_FINISHED, transfer);
+	}
+
+	/**
+	 * Adds to the component that is being updated the given link, and all the flows
+	 * and links that are connected to it.
+	 *
+	 * @param seed the link.
+	 */
+	protected void addComponent(LinkFlows seed) {
+		if (seed.stamp == stamp)
+			return;
+		seed.stamp = stamp;
+		int next = componentLinks.size();
+		componentLinks.add(seed);
+		while (next < componentLinks.size()) {
+			LinkFlows link = componentLinks.get(next++);
+			for (int i = 0; i < link.size; i++) {
+				Flow flow = link.flows[i];
+				if (flow.stamp == stamp)
+					continue;
+				flow.stamp = stamp;
+				componentFlows.add(flow);
+				for (LinkFlows other : flow.links) {
+					if (other.stamp != stamp) {
+						other.stamp = stamp;
+						componentLinks.add(other);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Brings the progress of the flows of the component up to date, computes their
+	 * max-min fair rates using progressive filling, and the time at which the ones
+	 * whose rate has changed finish.
+	 */
+	protected void allocate() {
+		double now = getSimulation().clock();
+		for (Flow flow : componentFlows) {
+			flow.remaining = Math.max(0, flow.remaining - flow.rate * (now - flow.lastUpdate));
+			flow.lastUpdate = now;
+			flow.frozen = false;
+		}
+
+		// The links ordered by the rate that their remaining flows would get if they
+		// were saturated now, the lowest first
+		PriorityQueue<FairShare> shares = new PriorityQueue<>();
+		for (LinkFlows link : componentLinks) {
+			link.residual = link.capacity;
+			link.unfrozen = link.size;
+			if (link.size > 0)
+				shares.add(new FairShare(link));
+		}
+
+		while (!shares.isEmpty()) {
+			FairShare bottleneck = shares.poll();
+			LinkFlows link = bottleneck.link;
+			if (bottleneck.unfrozen != link.unfrozen || link.unfrozen == 0)
+				continue;
+			// This link is saturated first, freeze its flows
+			double share = Math.max(0, link.residual / link.unfrozen);
+			for (int i = 0; i < link.size; i++) {
+				Flow flow = link.flows[i];
+				if (flow.frozen)
+					continue;
+				flow.frozen = true;
+				flow.newRate = share;
+				for (LinkFlows other : flow.links) {
+					other.residual -= share;
+					other.unfrozen--;
+					if (other != link && other.unfrozen > 0)
+						shares.add(new FairShare(other));
+				}
+			}
+		}
+
+		for (Flow flow : componentFlows) {
+			if (flow.newRate == flow.rate && flow.version > 0)
+				continue; // Its completion is still valid
+			flow.rate = flow.newRate;
+			flow.version++;
+			if (flow.rate > 0)
+				completions.add(new Completion(now + flow.remaining / flow.rate, flow));
+		}
+
+		for (LinkFlows link : componentLinks)
+			link.link.usedBandwidth = Math.max(0, link.capacity - link.residual);
+
+		componentFlows.clear();
+		componentLinks.clear();
+
+		// Drop the outdated entries once they outnumber the current flows
+		if (completions.size() > 2 * flowsCount + 64)
+			completions.removeIf(Completion::isOutdated);
+	}
+
+	/**
+	 * Replaces the completion event by one at the time when the next flow
+	 * finishes.
+	 */
+	protected void scheduleNextCompletion() {
+		while (!completions.isEmpty() && completions.peek().isOutdated())
+			completions.poll();
+
+		// Round the completion up to the next tick of the time base, otherwise it
+		// could happen before the flow is done, and finish nothing. The event
+		// time is rounded the same way, so an unchanged completion keeps its event
+		double now = getSimulation().clock();
+		double time = completions.isEmpty() ? -1
+				: getSimulation().getTimeBase().ceil(Math.max(now, completions.peek().time));
+		if (completionEvent != null) {
+			if (completionEvent.getTime() == time)
+				return;
+			cancel(completionEvent);
+			completionEvent = null;
+		}
+		if (!completions.isEmpty())
+			completionEvent = schedule(this, Math.max(0, time - now), FLOWS_COMPLETED);
+	}
+
+	/**
+	 * Gets the number of current flows.
+	 *
+	 * @return the number of transfers in progress in this model.
+	 */
+	public int getFlowsCount() {
+		return flowsCount;
+	}
+
+	/**
+	 * An end-to-end transfer, that uses all the links of its path at the same
+	 * rate.
+	 */
+	protected static class Flow implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final TransferProgress transfer;
+		protected final LinkFlows[] links;
+
+		/**
+		 * The position of this flow in the flows of each link of its path.
+		 */
+		protected final int[] positions;
+		protected final double startTime;
+		protected final long serial;
+
+		/**
+		 * The remaining data, in bits, at the time of the last update.
+		 */
+		protected double remaining;
+		protected double lastUpdate;
+
+		/**
+		 * The current rate, in bits per second, and the one being computed.
+		 */
+		protected double rate;
+		protected double newRate;
+
+		/**
+		 * Incremented each time the rate changes, to outdate the previous
+		 * completion.
+		 */
+		protected int version;
+
+		protected int stamp;
+		protected boolean frozen;
+
+		protected Flow(TransferProgress transfer, int hops, double startTime, long serial) {
+			this.transfer = transfer;
+			this.links = new LinkFlows[hops];
+			this.positions = new int[hops];
+			this.startTime = startTime;
+			this.serial = serial;
+			this.remaining = transfer.getRemainingFileSize();
+			this.lastUpdate = startTime;
+		}
+	}
+
+	/**
+	 * The flows of a link, in no particular order.
+	 */
+	protected static class LinkFlows implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final NetworkLink link;
+		protected final double capacity;
+		protected Flow[] flows = new Flow[4];
+
+		/**
+		 * The index of this link in the path of each flow.
+		 */
+		protected int[] hops = new int[4];
+		protected int size;
+
+		/**
+		 * The bandwidth that is not allocated yet and the number of flows whose rate
+		 * is not set yet, during the progressive filling.
+		 */
+		protected double residual;
+		protected int unfrozen;
+		protected int stamp;
+
+		protected LinkFlows(NetworkLink link) {
+			this.link = link;
+			this.capacity = link.getBandwidth();
+		}
+
+		/**
+		 * Adds a flow to this link.
+		 *
+		 * @param flow the flow.
+		 * @param hop  the index of this link in its path.
+		 * @return its position in the flows of this link.
+		 */
+		protected int add(Flow flow, int hop) {
+			if (size == flows.length) {
+				flows = Arrays.copyOf(flows, size * 2);
+				hops = Arrays.copyOf(hops, size * 2);
+			}
+			flows[size] = flow;
+			hops[size] = hop;
+			return size++;
+		}
+
+		/**
+		 * Removes a flow from this link, by moving the last one to its position.
+		 *
+		 * @param position the position of the flow.
+		 */
+		protected void remove(int position) {
+			size--;
+			if (position != size) {
+				flows[position] = flows[size];
+				hops[position] = hops[size];
+				flows[position].positions[hops[position]] = position;
+			}
+			flows[size] = null;
+		}
+	}
+
+	/**
+	 * The rate that the remaining flows of a link would get if it was saturated,
+	 * which is outdated once the number of these flows changes.
+	 */
+	protected static class FairShare implements Comparable<FairShare> {
+		protected final LinkFlows link;
+		protected final double share;
+		protected final int unfrozen;
+
+		protected FairShare(LinkFlows link) {
+			this.link = link;
+			this.unfrozen = link.unfrozen;
+			this.share = link.residual / link.unfrozen;
+		}
+
+		@Override
+		public int compareTo(FairShare other) {
+			return Double.compare(share, other.share);
+		}
+	}
+
+	/**
+	 * The time at which a flow finishes, given its rate.
+	 */
+	protected static class Completion implements Comparable<Completion>, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final double time;
+		protected final Flow flow;
+		protected final int version;
+
+		protected Completion(double time, Flow flow) {
+			this.time = time;
+			this.flow = flow;
+			this.version = flow.version;
+		}
+
+		protected boolean isOutdated() {
+			return version != flow.version;
+		}
+
+		@Override
+		public int compareTo(Completion other) {
+			int result = Double.compare(time, other.time);
+			return result != 0 ? result : Long.compare(flow.serial, other.flow.serial);
+		}
+	}
+
+}
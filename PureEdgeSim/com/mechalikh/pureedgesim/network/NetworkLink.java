@@ -20,20 +20,24 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
+import com.mechalikh.pureedgesim.simulationengine.StateSavingEntity;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * Link between two compute nodes in the infrastructure graph
  */
-public class NetworkLink extends SimEntity {
+public class NetworkLink extends SimEntity implements StateSavingEntity {
+	private static final long serialVersionUID = 1L;
+
 	public static final int UPDATE_PROGRESS = 1;
 	protected double latency = 0;
 	protected double bandwidth = 0;
@@ -46,6 +50,37 @@ public class NetworkLink extends SimEntity {
 	protected EnergyModelNetworkLink energyModel = EnergyModelNetworkLink.NULL;
 	protected boolean scheduled = false;
 
+	/**
+	 * The transfers of a fluid link, ordered by the time at which they finish.
+	 * 
+	 * @see #isFluid()
+	 */
+	protected PriorityQueue<FluidTransfer> fluidTransfers;
+
+	/**
+	 * The amount of data received by each transfer of a fluid link since it became
+	 * busy (all of them get the same share of the bandwidth), the sum of the finish
+	 * tags of its transfers, and the time at which it was last updated.
+	 * 
+	 * @see FluidTransfer#finishTag
+	 */
+	protected double virtualTime;
+	protected double finishTagsSum;
+	protected double lastUpdateTime;
+	protected long fluidSerial;
+
+	/**
+	 * The event of the next transfer completion on a fluid link, null if there is
+	 * none.
+	 */
+	protected Event completionEvent;
+
+	/**
+	 * The amount of time, in seconds, below which a transfer of a fluid link is
+	 * considered finished, to absorb the rounding errors.
+	 */
+	protected static final double COMPLETION_TOLERANCE = 1e-9;
+
 	public enum NetworkLinkTypes {
 		WAN, MAN, LAN, IGNORE
 	}
@@ -61,6 +96,7 @@ public class NetworkLink extends SimEntity {
 		this.src = src;
 		this.dst = dst;
 		this.setType(type);
+		setHandler(UPDATE_PROGRESS, data -> updateProgress(), NetworkLink.class);
 	}
 
 	public NetworkLink() {
@@ -75,6 +111,15 @@ public class NetworkLink extends SimEntity {
 		return this;
 	}
 
+	/**
+	 * Gets the bandwidth of this link, i.e. the one that a single transfer gets.
+	 * 
+	 * @return the bandwidth, in bits per second.
+	 */
+	public double getBandwidth() {
+		return getBandwidth(1);
+	}
+
 	public NetworkLink setBandwidth(double bandwidth) {
 		this.bandwidth = bandwidth;
 		return this;
@@ -98,15 +143,25 @@ public class NetworkLink extends SimEntity {
 
 	@Override
 	public void processEvent(Event evt) {
-		if (evt.getTag() == UPDATE_PROGRESS) {
-			// Update the progress of the current transfers and their allocated bandwidth
-			updateTransfersProgress();
-			if (this.transferProgressList.size() != 0)
-				schedule(this, SimulationParameters.networkUpdateInterval, UPDATE_PROGRESS);
-			else
-				scheduled = false;
-		}
+		// The progress updates are passed to the handler registered in the
+		// constructor, through this method if a subclass overrides it
+		invokeHandler(evt);
+	}
 
+	/**
+	 * Updates the progress of the current transfers and their allocated
+	 * bandwidth, and schedules the next update as long as there are transfers.
+	 */
+	protected void updateProgress() {
+		if (isFluid()) {
+			finishFluidTransfers();
+			return;
+		}
+		updateTransfersProgress();
+		if (this.transferProgressList.size() != 0)
+			schedule(this, simulationManager.getConfiguration().networkUpdateInterval, UPDATE_PROGRESS);
+		else
+			scheduled = false;
 	}
 
 	protected void updateTransfersProgress() {
@@ -130,18 +185,43 @@ public class NetworkLink extends SimEntity {
 		double oldRemainingSize = transfer.getRemainingFileSize();
 
 		// Update progress (remaining file size)
-		if (SimulationParameters.realisticNetworkModel)
+		if (simulationManager.getConfiguration().realisticNetworkModel)
 			transfer.setRemainingFileSize(transfer.getRemainingFileSize()
-					- (SimulationParameters.networkUpdateInterval * transfer.getCurrentBandwidth()));
+					- (simulationManager.getConfiguration().networkUpdateInterval * transfer.getCurrentBandwidth()));
 		else
 			transfer.setRemainingFileSize(0);
 
 		double transferDelay = (oldRemainingSize - transfer.getRemainingFileSize()) / transfer.getCurrentBandwidth();
+		addNetworkTime(transfer, transferDelay);
 
+		if (transfer.getRemainingFileSize() <= 0) { // Transfer finished
+			transfer.setRemainingFileSize(0); // if < 0 set it to 0
+			transferFinished(transfer);
+		}
+	}
+
+	/**
+	 * Adds the time spent by a transfer on this link to the network time of its
+	 * task and to the network usage.
+	 * 
+	 * @param transfer      the transfer.
+	 * @param transferDelay the time spent on this link, in seconds.
+	 */
+	protected void addNetworkTime(TransferProgress transfer, double transferDelay) {
 		// Set the task network delay to decide whether it has failed due to latency or
 		// not.
 		transfer.getTask().addActualNetworkTime(transferDelay);
+		addNetworkUsage(transfer, transferDelay);
+	}
 
+	/**
+	 * Adds the time spent by a transfer on this link to the network usage of the
+	 * type of this link (LAN, MAN, or WAN).
+	 * 
+	 * @param transfer      the transfer.
+	 * @param transferDelay the time spent on this link, in seconds.
+	 */
+	protected void addNetworkUsage(TransferProgress transfer, double transferDelay) {
 		// Update network usage delay
 		if (type == NetworkLinkTypes.LAN)
 			transfer.setLanNetworkUsage(transfer.getLanNetworkUsage() + transferDelay);
@@ -153,11 +233,117 @@ public class NetworkLink extends SimEntity {
 		// Update WAN network usage delay
 		else if (type == NetworkLinkTypes.WAN)
 			transfer.setWanNetworkUsage(transfer.getWanNetworkUsage() + transferDelay);
+	}
 
-		if (transfer.getRemainingFileSize() <= 0) { // Transfer finished
-			transfer.setRemainingFileSize(0); // if < 0 set it to 0
+	/**
+	 * Tells whether this link uses the fluid model, which is the case when the
+	 * realistic network model and the "fluid_network_links" parameter are
+	 * enabled. Instead of updating its transfers every network update interval,
+	 * a fluid link computes the exact time at which the next one finishes,
+	 * schedules a single event at that time, and only updates its transfers when
+	 * one of them starts or finishes. The number of events is then proportional to
+	 * the number of transfers instead of the simulation duration, and the transfers
+	 * finish at their exact time.
+	 * <p>
+	 * As the bandwidth is shared equally, all the transfers progress at the same
+	 * rate, so the progress of the link is given by the amount of data received by
+	 * each transfer since it became busy (its virtual time), and each transfer
+	 * finishes once the virtual time reaches the value it had when the transfer
+	 * started plus the size of the transfer. Starting or finishing a transfer then
+	 * only takes a logarithmic time. This requires the bandwidth allocated to each
+	 * transfer (see {@link #getBandwidth(double)}) to only depend on the number of
+	 * transfers.
+	 * 
+	 * @return true if this link uses the fluid model.
+	 * @see com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration#fluidNetworkLinks
+	 */
+	protected boolean isFluid() {
+		return simulationManager.getConfiguration().realisticNetworkModel
+				&& simulationManager.getConfiguration().fluidNetworkLinks;
+	}
+
+	/**
+	 * Starts a transfer on a fluid link.
+	 * 
+	 * @param transfer the transfer.
+	 * @see #isFluid()
+	 */
+	protected void addFluidTransfer(TransferProgress transfer) {
+		if (fluidTransfers == null)
+			fluidTransfers = new PriorityQueue<>();
+		updateVirtualTime();
+		FluidTransfer fluidTransfer = new FluidTransfer(transfer, virtualTime + transfer.getRemainingFileSize(),
+				getSimulation().clock(), fluidSerial++);
+		fluidTransfers.add(fluidTransfer);
+		finishTagsSum += fluidTransfer.finishTag;
+		transferProgressList.add(transfer);
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Finishes the transfers of a fluid link that are done, then schedules the
+	 * next completion.
+	 * 
+	 * @see #isFluid()
+	 */
+	protected void finishFluidTransfers() {
+		completionEvent = null;
+		updateVirtualTime();
+		double tolerance = getBandwidth(fluidTransfers.size()) * COMPLETION_TOLERANCE;
+		while (!fluidTransfers.isEmpty() && fluidTransfers.peek().finishTag - virtualTime <= tolerance) {
+			FluidTransfer finished = fluidTransfers.poll();
+			finishTagsSum -= finished.finishTag;
+			TransferProgress transfer = finished.transfer;
+
+			// The transfer got the same share of the bandwidth as the others
+			double transferDelay = getSimulation().clock() - finished.startTime;
+			if (transferDelay > 0)
+				transfer.setCurrentBandwidth(transfer.getRemainingFileSize() / transferDelay);
+			transfer.setRemainingFileSize(0);
+			addNetworkTime(transfer, transferDelay);
 			transferFinished(transfer);
 		}
+
+		// Start over from 0 once the link is idle, to keep the precision
+		if (fluidTransfers.isEmpty()) {
+			virtualTime = 0;
+			finishTagsSum = 0;
+		}
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Updates the amount of data received by each transfer of a fluid link up to
+	 * the current time.
+	 */
+	protected void updateVirtualTime() {
+		double now = getSimulation().clock();
+		if (!fluidTransfers.isEmpty())
+			virtualTime += (now - lastUpdateTime) * getBandwidth(fluidTransfers.size());
+		lastUpdateTime = now;
+	}
+
+	/**
+	 * Replaces the completion event of a fluid link by one at the time when its
+	 * next transfer finishes, given the current number of transfers.
+	 */
+	protected void scheduleNextCompletion() {
+		if (completionEvent != null)
+			cancel(completionEvent);
+		completionEvent = null;
+
+		int count = fluidTransfers.size();
+		// The remaining data of all transfers, as the polling model computes it
+		usedBandwidth = finishTagsSum - count * virtualTime;
+		if (count == 0)
+			return;
+
+		// Round the completion up to the next tick of the time base, otherwise it
+		// could happen before the transfer is done, and finish nothing
+		double now = getSimulation().clock();
+		double delay = (fluidTransfers.peek().finishTag - virtualTime) / getBandwidth(count);
+		double time = getSimulation().getTimeBase().ceil(now + Math.max(0, delay));
+		completionEvent = schedule(this, Math.max(0, time - now), UPDATE_PROGRESS);
 	}
 
 	protected void transferFinished(TransferProgress transfer) {
@@ -167,12 +353,11 @@ public class NetworkLink extends SimEntity {
 		// Add the network link latency to the task network delay
 		transfer.getTask().addActualNetworkTime(latency);
 
-		// Remove the previous hop (data has been transferred one hop)
-		transfer.getVertexList().remove(0);
-		transfer.getEdgeList().remove(0);
+		// Move to the next hop (data has been transferred one hop)
+		transfer.nextHop();
 
 		// Data has reached the destination
-		if (transfer.getVertexList().size() == 1) {
+		if (transfer.hasReachedDestination()) {
 			// Update logger parameters
 			simulationManager.getSimulationLogger().updateNetworkUsage(transfer);
 
@@ -180,7 +365,7 @@ public class NetworkLink extends SimEntity {
 		} else {
 			// Still did not reach destination, send it to the next hop
 			transfer.setRemainingFileSize(transfer.getFileSize());
-			transfer.getEdgeList().get(0).addTransfer(transfer);
+			transfer.getCurrentLink().addTransfer(transfer);
 		}
 	}
 
@@ -201,6 +386,10 @@ public class NetworkLink extends SimEntity {
 		// Used by the energy model to get the total energy consumed by this network
 		// link
 		totalTrasferredData += transfer.getFileSize();
+		if (isFluid()) {
+			addFluidTransfer(transfer);
+			return;
+		}
 		transferProgressList.add(transfer);
 
 		if (!scheduled) {
@@ -221,4 +410,146 @@ public class NetworkLink extends SimEntity {
 		return totalTrasferredData;
 	}
 
+	/**
+	 * Saves the state of this link, so it can be rolled back by the optimistic
+	 * simulation engine: its usage, and the progress of its current transfers.
+	 * The events of network links are not partition-local by default, as a
+	 * finished transfer is handed to the next link of its path, so this state is
+	 * only used by subclasses that override
+	 * {@link #isPartitionLocal(Event)}.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim
+	 */
+	@Override
+	public Object saveState() {
+		State state = new State();
+		state.usedBandwidth = usedBandwidth;
+		state.totalTrasferredData = totalTrasferredData;
+		state.scheduled = scheduled;
+		if (fluidTransfers != null)
+			state.fluidTransfers = new PriorityQueue<>(fluidTransfers);
+		state.virtualTime = virtualTime;
+		state.finishTagsSum = finishTagsSum;
+		state.lastUpdateTime = lastUpdateTime;
+		state.fluidSerial = fluidSerial;
+		state.completionEvent = completionEvent;
+		state.transfers = new ArrayList<>(transferProgressList.size());
+		for (TransferProgress transfer : transferProgressList)
+			state.transfers.add(new TransferState(transfer));
+		return state;
+	}
+
+	@Override
+	public void restoreState(Object savedState) {
+		State state = (State) savedState;
+		usedBandwidth = state.usedBandwidth;
+		totalTrasferredData = state.totalTrasferredData;
+		scheduled = state.scheduled;
+		fluidTransfers = state.fluidTransfers == null ? null : new PriorityQueue<>(state.fluidTransfers);
+		virtualTime = state.virtualTime;
+		finishTagsSum = state.finishTagsSum;
+		lastUpdateTime = state.lastUpdateTime;
+		fluidSerial = state.fluidSerial;
+		completionEvent = state.completionEvent;
+		transferProgressList = new ArrayList<>(state.transfers.size());
+		for (TransferState transfer : state.transfers)
+			transferProgressList.add(transfer.restore());
+	}
+
+	/**
+	 * A saved state of a network link.
+	 * 
+	 * @see #saveState()
+	 */
+	protected static class State {
+		protected double usedBandwidth;
+		protected double totalTrasferredData;
+		protected boolean scheduled;
+		protected List<TransferState> transfers;
+		protected PriorityQueue<FluidTransfer> fluidTransfers;
+		protected double virtualTime;
+		protected double finishTagsSum;
+		protected double lastUpdateTime;
+		protected long fluidSerial;
+		protected Event completionEvent;
+	}
+
+	/**
+	 * A transfer of a fluid link.
+	 * 
+	 * @see NetworkLink#isFluid()
+	 */
+	protected static class FluidTransfer implements Comparable<FluidTransfer>, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final TransferProgress transfer;
+
+		/**
+		 * The virtual time of the link at which this transfer finishes.
+		 */
+		protected final double finishTag;
+		protected final double startTime;
+
+		/**
+		 * Used to finish the transfers of the same instant in the order they started.
+		 */
+		protected final long serial;
+
+		protected FluidTransfer(TransferProgress transfer, double finishTag, double startTime, long serial) {
+			this.transfer = transfer;
+			this.finishTag = finishTag;
+			this.startTime = startTime;
+			this.serial = serial;
+		}
+
+		@Override
+		public int compareTo(FluidTransfer other) {
+			int result = Double.compare(finishTag, other.finishTag);
+			return result != 0 ? result : Long.compare(serial, other.serial);
+		}
+	}
+
+	/**
+	 * A saved state of a transfer.
+	 */
+	protected static class TransferState {
+		protected final TransferProgress transfer;
+		protected final double remainingFileSize;
+		protected final double currentBandwidth;
+		protected final double totalBandwidths;
+		protected final int bwAllocationTimes;
+		protected final double lanNetworkUsage;
+		protected final double manNetworkUsage;
+		protected final double wanNetworkUsage;
+		protected final double actualNetworkTime;
+		protected final int hop;
+
+		protected TransferState(TransferProgress transfer) {
+			this.transfer = transfer;
+			remainingFileSize = transfer.remainingFileSize;
+			currentBandwidth = transfer.currentBandwidth;
+			totalBandwidths = transfer.totalBandwidths;
+			bwAllocationTimes = transfer.bwAllocationTimes;
+			lanNetworkUsage = transfer.lanNetworkUsage;
+			manNetworkUsage = transfer.manNetworkUsage;
+			wanNetworkUsage = transfer.wanNetworkUsage;
+			actualNetworkTime = transfer.getTask().getActualNetworkTime();
+			hop = transfer.hop;
+		}
+
+		protected TransferProgress restore() {
+			transfer.remainingFileSize = remainingFileSize;
+			transfer.currentBandwidth = currentBandwidth;
+			transfer.totalBandwidths = totalBandwidths;
+			transfer.bwAllocationTimes = bwAllocationTimes;
+			transfer.lanNetworkUsage = lanNetworkUsage;
+			transfer.manNetworkUsage = manNetworkUsage;
+			transfer.wanNetworkUsage = wanNetworkUsage;
+			// The task only allows to add network time
+			transfer.getTask().addActualNetworkTime(actualNetworkTime - transfer.getTask().getActualNetworkTime());
+			transfer.hop = hop;
+			return transfer;
+		}
+	}
+
 }
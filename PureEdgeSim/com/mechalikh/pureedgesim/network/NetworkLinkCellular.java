@@ -21,18 +21,20 @@
 package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A 4G LTE network link.
  */
 public abstract class NetworkLinkCellular extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	protected NetworkLinkCellular(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		setBandwidth(SimulationParameters.cellularBandwidthBitsPerSecond);
-		setLatency(SimulationParameters.cellularLatency); 
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		setBandwidth(configuration.cellularBandwidthBitsPerSecond);
+		setLatency(configuration.cellularLatency); 
 	}
 
 }
@@ -22,23 +22,25 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A 4G LTE network link.
  */
 public class NetworkLinkCellularDown extends NetworkLinkCellular {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkCellularDown(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
 
-		double energyConsumption = SimulationParameters.cellularDeviceReceptionWattHourPerBit
-				+ SimulationParameters.cellularBaseStationWattHourPerBitDownLink;
+		double energyConsumption = configuration.cellularDeviceReceptionWattHourPerBit
+				+ configuration.cellularBaseStationWattHourPerBitDownLink;
 		if (type == NetworkLinkTypes.WAN) {
-			energyConsumption += SimulationParameters.wanWattHourPerBit;
-			setLatency(SimulationParameters.wanLatency);
-			setBandwidth(Math.min(SimulationParameters.wanBandwidthBitsPerSecond, SimulationParameters.cellularBandwidthBitsPerSecond));
+			energyConsumption += configuration.wanWattHourPerBit;
+			setLatency(configuration.wanLatency);
+			setBandwidth(Math.min(configuration.wanBandwidthBitsPerSecond, configuration.cellularBandwidthBitsPerSecond));
 		}
 		setEnergyModel(new EnergyModelNetworkLink(energyConsumption, this));
 	}
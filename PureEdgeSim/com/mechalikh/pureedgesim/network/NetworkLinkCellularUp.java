@@ -22,22 +22,24 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A 4G LTE network link.
  */
 public class NetworkLinkCellularUp extends NetworkLinkCellular {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkCellularUp(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		double energyConsumption = SimulationParameters.cellularDeviceTransmissionWattHourPerBit
-				+ SimulationParameters.cellularBaseStationWattHourPerBitUpLink;
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		double energyConsumption = configuration.cellularDeviceTransmissionWattHourPerBit
+				+ configuration.cellularBaseStationWattHourPerBitUpLink;
 		if (type == NetworkLinkTypes.WAN) {
-			energyConsumption += SimulationParameters.wanWattHourPerBit;
-			setLatency(SimulationParameters.wanLatency);
-			setBandwidth(Math.min(SimulationParameters.wanBandwidthBitsPerSecond, SimulationParameters.cellularBandwidthBitsPerSecond));
+			energyConsumption += configuration.wanWattHourPerBit;
+			setLatency(configuration.wanLatency);
+			setBandwidth(Math.min(configuration.wanBandwidthBitsPerSecond, configuration.cellularBandwidthBitsPerSecond));
 		}
 		setEnergyModel(new EnergyModelNetworkLink(energyConsumption, this));
 	}
@@ -22,24 +22,26 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * An Ethernet network link.
  */
 public class NetworkLinkEthernet extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkEthernet(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		setBandwidth(SimulationParameters.ethernetBandwidthBitsPerSecond);
-		setLatency(SimulationParameters.ethernetLatency);
-		double energyConsumption = SimulationParameters.ethernetWattHourPerBit;
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		setBandwidth(configuration.ethernetBandwidthBitsPerSecond);
+		setLatency(configuration.ethernetLatency);
+		double energyConsumption = configuration.ethernetWattHourPerBit;
 	
 		if (type == NetworkLinkTypes.WAN) {
-			energyConsumption += SimulationParameters.wanWattHourPerBit;
-			setLatency(SimulationParameters.wanLatency);
-			setBandwidth(Math.min(SimulationParameters.wanBandwidthBitsPerSecond, SimulationParameters.ethernetBandwidthBitsPerSecond));
+			energyConsumption += configuration.wanWattHourPerBit;
+			setLatency(configuration.wanLatency);
+			setBandwidth(Math.min(configuration.wanBandwidthBitsPerSecond, configuration.ethernetBandwidthBitsPerSecond));
 		}
 
 		setEnergyModel(new EnergyModelNetworkLink(energyConsumption, this));
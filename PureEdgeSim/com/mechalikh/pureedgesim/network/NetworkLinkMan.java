@@ -22,19 +22,21 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A 4G LTE network link.
  */
 public class NetworkLinkMan extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkMan(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		setBandwidth(SimulationParameters.manBandwidthBitsPerSecond);
-		setLatency(SimulationParameters.manLatency); 
-		setEnergyModel(new EnergyModelNetworkLink(SimulationParameters.manWattHourPerBit, this));
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		setBandwidth(configuration.manBandwidthBitsPerSecond);
+		setLatency(configuration.manLatency); 
+		setEnergyModel(new EnergyModelNetworkLink(configuration.manWattHourPerBit, this));
 	}
 
 }
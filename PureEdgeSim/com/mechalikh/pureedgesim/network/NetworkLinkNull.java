@@ -4,6 +4,17 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink; 
 
 public class NetworkLinkNull extends NetworkLink {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Returns the {@link NetworkLink#NULL} object when a simulation checkpoint is
+	 * restored, so that the comparisons with it still work.
+	 * 
+	 * @return the NULL object.
+	 */
+	protected Object readResolve() {
+		return NetworkLink.NULL;
+	}
 
 	public double getLatency() {
 		return 0;
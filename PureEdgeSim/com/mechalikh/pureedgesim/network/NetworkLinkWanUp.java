@@ -22,19 +22,21 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A WAN network link.
  */
 public class NetworkLinkWanUp extends NetworkLink {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWanUp(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		setBandwidth(SimulationParameters.wanBandwidthBitsPerSecond);
-		setLatency(SimulationParameters.wanLatency);
-		setEnergyModel(new EnergyModelNetworkLink(SimulationParameters.wanWattHourPerBit, this));
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		setBandwidth(configuration.wanBandwidthBitsPerSecond);
+		setLatency(configuration.wanLatency);
+		setEnergyModel(new EnergyModelNetworkLink(configuration.wanWattHourPerBit, this));
 	}
 
 }
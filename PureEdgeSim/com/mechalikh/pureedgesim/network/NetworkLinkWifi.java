@@ -21,7 +21,7 @@
 package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  
 
@@ -29,11 +29,13 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * A WiFi network link.
  */
 public abstract class NetworkLinkWifi extends NetworkLink {
+	private static final long serialVersionUID = 1L;
  
 	protected NetworkLinkWifi(ComputingNode src, ComputingNode dst, SimulationManager simulationManager, NetworkLinkTypes type) {
         super(src, dst, simulationManager, type);
-        setBandwidth(SimulationParameters.wifiBandwidthBitsPerSecond);
-        setLatency(SimulationParameters.wifiLatency); 
+        SimulationConfiguration configuration = simulationManager.getConfiguration();
+        setBandwidth(configuration.wifiBandwidthBitsPerSecond);
+        setLatency(configuration.wifiLatency); 
     }
 
 }
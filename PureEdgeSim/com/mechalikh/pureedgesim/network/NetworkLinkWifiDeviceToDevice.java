@@ -22,20 +22,22 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A WiFi network link.
  */
 public class NetworkLinkWifiDeviceToDevice extends NetworkLinkWifi {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWifiDeviceToDevice(ComputingNode src, ComputingNode dst, SimulationManager simulationManager,
 			NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
 
-		setEnergyModel(new EnergyModelNetworkLink(SimulationParameters.wifiDeviceTransmissionWattHourPerBit
-				+ SimulationParameters.wifiDeviceReceptionWattHourPerBit, this));
+		setEnergyModel(new EnergyModelNetworkLink(configuration.wifiDeviceTransmissionWattHourPerBit
+				+ configuration.wifiDeviceReceptionWattHourPerBit, this));
 	}
 
 }
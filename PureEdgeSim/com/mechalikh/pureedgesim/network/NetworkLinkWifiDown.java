@@ -22,23 +22,25 @@ package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
  * A WiFi network link.
  */
 public class NetworkLinkWifiDown extends NetworkLinkWifi {
+	private static final long serialVersionUID = 1L;
 
 	public NetworkLinkWifiDown(ComputingNode src, ComputingNode dst, SimulationManager simulationManager,
 			NetworkLinkTypes type) {
 		super(src, dst, simulationManager, type);
-		double energyConsumption = SimulationParameters.wifiAccessPointTransmissionWattHourPerBit
-				+ SimulationParameters.wifiDeviceReceptionWattHourPerBit;
+		SimulationConfiguration configuration = simulationManager.getConfiguration();
+		double energyConsumption = configuration.wifiAccessPointTransmissionWattHourPerBit
+				+ configuration.wifiDeviceReceptionWattHourPerBit;
 		if (type == NetworkLinkTypes.WAN) {
-			energyConsumption += SimulationParameters.wanWattHourPerBit;
-			setLatency(SimulationParameters.wanLatency);	
-			setBandwidth(Math.min(SimulationParameters.wanBandwidthBitsPerSecond, SimulationParameters.wifiBandwidthBitsPerSecond));
+			energyConsumption += configuration.wanWattHourPerBit;
+			setLatency(configuration.wanLatency);	
+			setBandwidth(Math.min(configuration.wanBandwidthBitsPerSecond, configuration.wifiBandwidthBitsPerSecond));
 		}
 		setEnergyModel(new EnergyModelNetworkLink(energyConsumption, this));
 	}
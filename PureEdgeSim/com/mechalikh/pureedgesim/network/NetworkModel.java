@@ -21,7 +21,6 @@
 package com.mechalikh.pureedgesim.network;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
@@ -33,6 +32,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 5.0
  */
 public abstract class NetworkModel extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
 	public static final int SEND_REQUEST_FROM_ORCH_TO_DESTINATION = 1;
 	protected static final int TRANSFER_FINISHED = 2;
 	public static final int DOWNLOAD_CONTAINER = 3;
@@ -66,14 +67,14 @@ public abstract class NetworkModel extends SimEntity {
 	}
 
 	public double getWanUpUtilization() {
-		if (!SimulationParameters.useOneSharedWanLink)
+		if (!simulationManager.getConfiguration().useOneSharedWanLink)
 			throw new IllegalArgumentException(getClass().getSimpleName()
 					+ " - The \"one_shared_wan_network\" option needs to be enabled in simulation_parameters.properties file in  in order to call \"getWanUpUtilization()\"");
 		return wanUp.getUsedBandwidth();
 	}
 
 	public double getWanDownUtilization() {
-		if (!SimulationParameters.useOneSharedWanLink)
+		if (!simulationManager.getConfiguration().useOneSharedWanLink)
 			throw new IllegalArgumentException(getClass().getSimpleName()
 					+ " - The \"one_shared_wan_network\" option needs to be enabled in simulation_parameters.properties file in order to call \"getWanDownUtilization()\"");
 		return wanDown.getUsedBandwidth();
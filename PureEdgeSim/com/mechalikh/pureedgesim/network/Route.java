@@ -0,0 +1,146 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+
+/**
+ * The path of a transfer: the nodes it goes through, from the source to the
+ * destination, and the links between them (link i goes from node i to node i +
+ * 1).
+ * <p>
+ * A route is immutable, so the same one is shared by all the transfers between
+ * the same nodes, and each transfer only keeps its current hop.
+ *
+ * @see TransferProgress#getRoute()
+ * @see InfrastructureGraph#getRoute(ComputingNode, ComputingNode)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class Route implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	protected final ComputingNode[] vertices;
+	protected final NetworkLink[] links;
+
+	/**
+	 * Creates a route.
+	 *
+	 * @param vertices the nodes, from the source to the destination.
+	 * @param links    the links between them.
+	 */
+	public Route(List<ComputingNode> vertices, List<NetworkLink> links) {
+		this(vertices.toArray(new ComputingNode[0]), links.toArray(new NetworkLink[0]));
+	}
+
+	protected Route(ComputingNode[] vertices, NetworkLink[] links) {
+		if (vertices.length != links.length + 1)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, a route must have one node more than links.");
+		this.vertices = vertices;
+		this.links = links;
+	}
+
+	/**
+	 * Gets the number of links of this route.
+	 *
+	 * @return the number of hops.
+	 */
+	public int getLength() {
+		return links.length;
+	}
+
+	public ComputingNode getVertex(int index) {
+		return vertices[index];
+	}
+
+	public NetworkLink getLink(int index) {
+		return links[index];
+	}
+
+	public ComputingNode getSource() {
+		return vertices[0];
+	}
+
+	public ComputingNode getDestination() {
+		return vertices[links.length];
+	}
+
+	/**
+	 * Gets the nodes of this route, starting from the given one.
+	 *
+	 * @param from the index of the first node.
+	 * @return a read-only list of the nodes.
+	 */
+	public List<ComputingNode> getVertexList(int from) {
+		return Collections.unmodifiableList(Arrays.asList(vertices).subList(from, vertices.length));
+	}
+
+	/**
+	 * Gets the links of this route, starting from the given one.
+	 *
+	 * @param from the index of the first link.
+	 * @return a read-only list of the links.
+	 */
+	public List<NetworkLink> getEdgeList(int from) {
+		return Collections.unmodifiableList(Arrays.asList(links).subList(from, links.length));
+	}
+
+	/**
+	 * Creates a route that starts with the given link, then follows this one.
+	 *
+	 * @param source the source of the new route.
+	 * @param link   the link from this source to the source of this route.
+	 * @return the new route.
+	 */
+	public Route prepend(ComputingNode source, NetworkLink link) {
+		ComputingNode[] newVertices = new ComputingNode[vertices.length + 1];
+		NetworkLink[] newLinks = new NetworkLink[links.length + 1];
+		newVertices[0] = source;
+		newLinks[0] = link;
+		System.arraycopy(vertices, 0, newVertices, 1, vertices.length);
+		System.arraycopy(links, 0, newLinks, 1, links.length);
+		return new Route(newVertices, newLinks);
+	}
+
+	/**
+	 * Creates a route that follows this one, then the given link.
+	 *
+	 * @param link        the link from the destination of this route to the new
+	 *                    destination.
+	 * @param destination the destination of the new route.
+	 * @return the new route.
+	 */
+	public Route append(NetworkLink link, ComputingNode destination) {
+		ComputingNode[] newVertices = Arrays.copyOf(vertices, vertices.length + 1);
+		NetworkLink[] newLinks = Arrays.copyOf(links, links.length + 1);
+		newVertices[vertices.length] = destination;
+		newLinks[links.length] = link;
+		return new Route(newVertices, newLinks);
+	}
+
+}
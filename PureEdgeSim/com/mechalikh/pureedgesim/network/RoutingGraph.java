@@ -0,0 +1,332 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.network;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jgrapht.Graph;
+
+import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
+import com.mechalikh.pureedgesim.simulationengine.ImmutableState;
+
+/**
+ * A read-only snapshot of the {@link InfrastructureGraph}, used to find the
+ * shortest paths without going through the JGraphT graph, whose algorithms
+ * allocate maps and objects for every vertex at each search.
+ * <p>
+ * The vertices are identified by their index, and the links are stored in
+ * compressed sparse row form: the links that leave vertex v are stored from
+ * {@code offsets[v]} to {@code offsets[v + 1]} (excluded), in primitive arrays
+ * holding their destination and their weight (i.e. their latency). A search
+ * only uses these arrays and a binary heap of vertex indexes, which are reused
+ * from one search to the next. When all the links have the same weight, a
+ * breadth-first search is used instead.
+ * <p>
+ * These arrays are kept in a {@link Topology}, which does not reference the
+ * nodes and links themselves, so that it is shared by the forks of the
+ * simulation instead of being copied for each one.
+ *
+ * @see InfrastructureGraph#getRoutingGraph()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class RoutingGraph implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The vertices and the network link of each link, by index.
+	 */
+	protected final ComputingNode[] vertices;
+	protected final NetworkLink[] links;
+
+	/**
+	 * The links between the vertices.
+	 */
+	protected final Topology topology;
+
+	/**
+	 * Takes a snapshot of a graph.
+	 *
+	 * @param graph    the graph.
+	 * @param vertices its vertices, in the order of their index.
+	 */
+	public RoutingGraph(Graph<ComputingNode, NetworkLink> graph, List<ComputingNode> vertices) {
+		this.vertices = vertices.toArray(new ComputingNode[0]);
+		int edgesCount = graph.edgeSet().size();
+		int[] offsets = new int[this.vertices.length + 1];
+		int[] sources = new int[edgesCount];
+		int[] targets = new int[edgesCount];
+		double[] weights = new double[edgesCount];
+		links = new NetworkLink[edgesCount];
+
+		Map<ComputingNode, Integer> indexes = new HashMap<>(this.vertices.length * 2);
+		for (int i = 0; i < this.vertices.length; i++)
+			indexes.put(this.vertices[i], i);
+
+		int edge = 0;
+		boolean uniform = true;
+		for (int v = 0; v < this.vertices.length; v++) {
+			offsets[v] = edge;
+			if (!graph.containsVertex(this.vertices[v]))
+				continue;
+			for (NetworkLink link : graph.outgoingEdgesOf(this.vertices[v])) {
+				sources[edge] = v;
+				targets[edge] = indexes.get(graph.getEdgeTarget(link));
+				weights[edge] = graph.getEdgeWeight(link);
+				links[edge] = link;
+				uniform &= weights[edge] == weights[0];
+				edge++;
+			}
+		}
+		offsets[this.vertices.length] = edge;
+		topology = new Topology(offsets, sources, targets, weights, uniform);
+	}
+
+	public int getVerticesCount() {
+		return vertices.length;
+	}
+
+	public ComputingNode getVertex(int index) {
+		return vertices[index];
+	}
+
+	public int getEdgeSource(int edge) {
+		return topology.sources[edge];
+	}
+
+	public NetworkLink getLink(int edge) {
+		return links[edge];
+	}
+
+	/**
+	 * Creates a search of the shortest paths from a source, whose arrays can be
+	 * reused for several sources.
+	 *
+	 * @return the search.
+	 */
+	public Search newSearch() {
+		return new Search();
+	}
+
+	/**
+	 * The shortest paths from a source to all the vertices, given by the distance
+	 * of each vertex and the last link of its path.
+	 */
+	public class Search {
+		protected final int[] offsets = topology.offsets;
+		protected final int[] targets = topology.targets;
+		protected final double[] weights = topology.weights;
+
+		protected final double[] distances = new double[vertices.length];
+		protected final int[] parentEdges = new int[vertices.length];
+
+		/**
+		 * The binary heap of the vertices to visit, ordered by distance, and the
+		 * position of each vertex in it (-1 if it is not in the heap).
+		 */
+		protected final int[] heap = new int[vertices.length];
+		protected final int[] positions = new int[vertices.length];
+		protected int size;
+
+		protected int source = -1;
+
+		/**
+		 * Finds the shortest paths from a source.
+		 *
+		 * @param source the index of the source.
+		 * @return this search.
+		 */
+		public Search run(int source) {
+			this.source = source;
+			Arrays.fill(distances, Double.POSITIVE_INFINITY);
+			Arrays.fill(parentEdges, -1);
+			distances[source] = 0;
+			if (topology.uniformWeights)
+				breadthFirst(source);
+			else
+				dijkstra(source);
+			return this;
+		}
+
+		protected void dijkstra(int source) {
+			Arrays.fill(positions, -1);
+			size = 0;
+			push(source);
+			while (size > 0) {
+				int v = pop();
+				double distance = distances[v];
+				for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+					int target = targets[edge];
+					double newDistance = distance + weights[edge];
+					if (newDistance < distances[target]) {
+						distances[target] = newDistance;
+						parentEdges[target] = edge;
+						if (positions[target] < 0)
+							push(target);
+						else
+							siftUp(positions[target]);
+					}
+				}
+			}
+		}
+
+		protected void breadthFirst(int source) {
+			// The heap is used as a FIFO queue
+			int head = 0;
+			size = 0;
+			heap[size++] = source;
+			while (head < size) {
+				int v = heap[head++];
+				for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+					int target = targets[edge];
+					if (distances[target] == Double.POSITIVE_INFINITY) {
+						distances[target] = distances[v] + weights[edge];
+						parentEdges[target] = edge;
+						heap[size++] = target;
+					}
+				}
+			}
+		}
+
+		protected void push(int v) {
+			heap[size] = v;
+			positions[v] = size;
+			siftUp(size++);
+		}
+
+		protected int pop() {
+			int first = heap[0];
+			positions[first] = -1;
+			if (--size > 0) {
+				heap[0] = heap[size];
+				positions[heap[0]] = 0;
+				siftDown(0);
+			}
+			return first;
+		}
+
+		protected void siftUp(int i) {
+			int v = heap[i];
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (distances[heap[parent]] <= distances[v])
+					break;
+				heap[i] = heap[parent];
+				positions[heap[i]] = i;
+				i = parent;
+			}
+			heap[i] = v;
+			positions[v] = i;
+		}
+
+		protected void siftDown(int i) {
+			int v = heap[i];
+			int half = size >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && distances[heap[child + 1]] < distances[heap[child]])
+					child++;
+				if (distances[v] <= distances[heap[child]])
+					break;
+				heap[i] = heap[child];
+				positions[heap[i]] = i;
+				i = child;
+			}
+			heap[i] = v;
+			positions[v] = i;
+		}
+
+		public int getSource() {
+			return source;
+		}
+
+		/**
+		 * Gets the distance from the source to a vertex.
+		 *
+		 * @param target the index of the vertex.
+		 * @return the sum of the weights of its shortest path, or
+		 *         Double.POSITIVE_INFINITY if there is none.
+		 */
+		public double getDistance(int target) {
+			return distances[target];
+		}
+
+		/**
+		 * Gets the last link of the shortest path from the source to a vertex.
+		 *
+		 * @param target the index of the vertex.
+		 * @return the index of the link, or -1 if the vertex is the source or is not
+		 *         reachable.
+		 */
+		public int getParentEdge(int target) {
+			return parentEdges[target];
+		}
+
+		/**
+		 * Copies the distances from the source to all the vertices.
+		 *
+		 * @return the distances, indexed by vertex index.
+		 */
+		public double[] getDistances() {
+			return distances.clone();
+		}
+	}
+
+	/**
+	 * The links between the vertices, in compressed sparse row form. It never
+	 * changes once created, and only holds the indexes of the vertices.
+	 */
+	protected static class Topology implements Serializable, ImmutableState {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The first link of each vertex, plus the number of links at the end.
+		 */
+		protected final int[] offsets;
+
+		/**
+		 * The source, the destination, and the weight of each link.
+		 */
+		protected final int[] sources;
+		protected final int[] targets;
+		protected final double[] weights;
+
+		/**
+		 * Whether all the links have the same weight, in which case the shortest
+		 * paths are the ones with the fewest hops.
+		 */
+		protected final boolean uniformWeights;
+
+		protected Topology(int[] offsets, int[] sources, int[] targets, double[] weights, boolean uniformWeights) {
+			this.offsets = offsets;
+			this.sources = sources;
+			this.targets = targets;
+			this.weights = weights;
+			this.uniformWeights = uniformWeights;
+		}
+	}
+
+}
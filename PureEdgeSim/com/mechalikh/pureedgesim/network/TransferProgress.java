@@ -20,12 +20,15 @@
  **/
 package com.mechalikh.pureedgesim.network;
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
-public class TransferProgress {
+public class TransferProgress implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	public enum Type {
 		TASK, CONTAINER, RESULTS_TO_DEV, RESULTS_TO_ORCH, REQUEST
 	}
@@ -40,8 +43,13 @@ public class TransferProgress {
 	protected double currentBandwidth = 0; // bits/s
 	protected double totalBandwidths = 0; // bits/s
 	protected int bwAllocationTimes = 0;
-	protected List<ComputingNode> vertexList;
-	protected List<NetworkLink> edgeList; 
+
+	/**
+	 * The route of this transfer, shared with the other transfers between the same
+	 * nodes, and the index of the link it is currently transferred through.
+	 */
+	protected Route route;
+	protected int hop;
 
 	public TransferProgress(Task task, double fileSize, Type type) {
 		this.task = task; 
@@ -102,22 +110,90 @@ public class TransferProgress {
 		return bwAllocationTimes > 0 ? totalBandwidths / bwAllocationTimes : 0;
 	}
 
-	public List<ComputingNode> getVertexList() {
-		return vertexList;
+	public Route getRoute() {
+		return route;
 	}
 
-	public TransferProgress setVertexList(List<ComputingNode> vertexList) {
-		this.vertexList = vertexList;
+	/**
+	 * Sets the route of this transfer, which starts from its first hop.
+	 * 
+	 * @param route the route.
+	 * @return this transfer.
+	 */
+	public TransferProgress setRoute(Route route) {
+		this.route = route;
+		this.hop = 0;
 		return this;
 	}
 
-	public List<NetworkLink> getEdgeList() {
-		return edgeList;
+	/**
+	 * Gets the index of the link of the route this transfer is currently
+	 * transferred through, which is also the index of the node where its data
+	 * currently is.
+	 * 
+	 * @return the current hop.
+	 */
+	public int getHop() {
+		return hop;
 	}
 
-	public TransferProgress setEdgeList(List<NetworkLink> edgeList) {
-		this.edgeList = edgeList;
-		return this;
+	protected void setHop(int hop) {
+		this.hop = hop;
+	}
+
+	/**
+	 * Moves this transfer to the next hop of its route, once its data has been
+	 * transferred through the current link.
+	 */
+	protected void nextHop() {
+		hop++;
+	}
+
+	/**
+	 * Tells whether the data has been transferred through all the links of the
+	 * route.
+	 * 
+	 * @return true if the data is at the destination.
+	 */
+	public boolean hasReachedDestination() {
+		return hop == route.getLength();
+	}
+
+	/**
+	 * Gets the node where the data currently is, which is the destination once it
+	 * has been transferred through all the links.
+	 * 
+	 * @return the current node.
+	 */
+	public ComputingNode getCurrentNode() {
+		return route.getVertex(hop);
+	}
+
+	/**
+	 * Gets the link through which the data is currently transferred.
+	 * 
+	 * @return the current link.
+	 */
+	public NetworkLink getCurrentLink() {
+		return route.getLink(hop);
+	}
+
+	/**
+	 * Gets the nodes that are left on the route, starting from the current one.
+	 * 
+	 * @return a read-only list of the nodes.
+	 */
+	public List<ComputingNode> getVertexList() {
+		return route.getVertexList(hop);
+	}
+
+	/**
+	 * Gets the links that are left on the route, starting from the current one.
+	 * 
+	 * @return a read-only list of the links.
+	 */
+	public List<NetworkLink> getEdgeList() {
+		return route.getEdgeList(hop);
 	}
 
 	public double getManNetworkUsage() {
@@ -33,6 +33,74 @@ public class ParametersParser extends FileParserAbstract {
 					* assertDouble(prop, "simulation_time", value -> (value > 0), "> 0");
 			
 			SimulationParameters.batchSize = (int) assertDouble(prop, "batch_size", value -> (value > 0), "> 0");
+
+			SimulationParameters.eventsQueue = prop.getProperty("events_queue", "DEFAULT").trim();
+			if (!"DEFAULT".equals(SimulationParameters.eventsQueue)
+					&& !"CALENDAR".equals(SimulationParameters.eventsQueue)
+					&& !"WHEEL".equals(SimulationParameters.eventsQueue)) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"events_queue\" must be DEFAULT, CALENDAR or WHEEL. Check the simulation_parameters.properties file!.");
+			}
+			SimulationParameters.timingWheelSlot = Double
+					.parseDouble(prop.getProperty("timing_wheel_slot", "0.01").trim());
+			SimulationParameters.timingWheelHorizon = Double
+					.parseDouble(prop.getProperty("timing_wheel_horizon", "600").trim());
+			if (!(SimulationParameters.timingWheelSlot > 0)
+					|| SimulationParameters.timingWheelHorizon < SimulationParameters.timingWheelSlot) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"timing_wheel_slot\" must be > 0 and <= \"timing_wheel_horizon\". Check the simulation_parameters.properties file!.");
+			}
+			SimulationParameters.eventsPooling = Boolean
+					.parseBoolean(prop.getProperty("events_pooling", "false").trim());
+			SimulationParameters.parallelEngineThreads = Integer
+					.parseInt(prop.getProperty("parallel_engine_threads", "1").trim());
+			if (SimulationParameters.parallelEngineThreads < 1) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"parallel_engine_threads\" must be >= 1. Check the simulation_parameters.properties file!.");
+			}
+			SimulationParameters.parallelEngineMode = prop.getProperty("parallel_engine_mode", "CONSERVATIVE").trim();
+			if (!"CONSERVATIVE".equals(SimulationParameters.parallelEngineMode)
+					&& !"OPTIMISTIC".equals(SimulationParameters.parallelEngineMode)) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"parallel_engine_mode\" must be CONSERVATIVE or OPTIMISTIC. Check the simulation_parameters.properties file!.");
+			}
+			SimulationParameters.optimisticWindow = Double
+					.parseDouble(prop.getProperty("optimistic_window", "1").trim());
+			if (SimulationParameters.optimisticWindow <= 0) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"optimistic_window\" must be > 0. Check the simulation_parameters.properties file!.");
+			}
+			if (SimulationParameters.parallelEngineThreads > 1 && SimulationParameters.eventsPooling) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, \"events_pooling\" cannot be used with the parallel engine (\"parallel_engine_threads\" > 1). Check the simulation_parameters.properties file!.");
+			}
+			
+			SimulationParameters.engineMetrics = Boolean
+					.parseBoolean(prop.getProperty("engine_metrics", "false").trim());
+
+			String randomSeed = prop.getProperty("random_seed", "").trim();
+			SimulationParameters.randomSeed = randomSeed.isEmpty() ? System.nanoTime() : Long.parseLong(randomSeed);
+			SimLog.println("%s - Random seed: %d", getClass().getSimpleName(), SimulationParameters.randomSeed);
+
+			SimulationParameters.parallelTicks = Boolean
+					.parseBoolean(prop.getProperty("parallel_ticks", "false").trim());
+
+			String timeResolution = prop.getProperty("time_resolution", "").trim();
+			SimulationParameters.timeResolution = timeResolution.isEmpty() ? 0 : Double.parseDouble(timeResolution);
+			if (SimulationParameters.timeResolution < 0) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"time_resolution\" must be >= 0. Check the simulation_parameters.properties file!.");
+			}
+
+			SimulationParameters.eventTrace = Boolean.parseBoolean(prop.getProperty("event_trace", "false").trim());
+			SimulationParameters.eventTraceCapacity = Integer
+					.parseInt(prop.getProperty("event_trace_capacity", "1000000").trim());
+			if (SimulationParameters.eventTraceCapacity <= 0) {
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, the value of \"event_trace_capacity\" must be > 0. Check the simulation_parameters.properties file!.");
+			}
+
+			SimulationParameters.bulkDelivery = Boolean.parseBoolean(prop.getProperty("bulk_delivery", "false").trim());
 			
 			SimulationParameters.parallelism_enabled = Boolean.parseBoolean(prop.getProperty("parallel_simulation").trim());
 
@@ -94,6 +162,8 @@ public class ParametersParser extends FileParserAbstract {
 			// Seconds
 			SimulationParameters.networkUpdateInterval = assertDouble(prop, "network_update_interval",
 					value -> (value >= 0.001), ">= 0.001");
+			SimulationParameters.fluidNetworkLinks = Boolean
+					.parseBoolean(prop.getProperty("fluid_network_links", "false").trim());
 			SimulationParameters.useOneSharedWanLink = Boolean
 					.parseBoolean(prop.getProperty("one_shared_wan_network").trim());
 
@@ -0,0 +1,532 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.scenariomanager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.mechalikh.pureedgesim.simulationengine.ImmutableState;
+import com.mechalikh.pureedgesim.taskgenerator.Application;
+
+/**
+ * The parameters of a single simulation run. Each field holds the value of the
+ * {@link SimulationParameters} field of the same name.
+ * <p>
+ * The static fields of {@link SimulationParameters} are shared by the whole
+ * JVM, so two simulations reading them cannot use different parameters at the
+ * same time. Instead, each simulation gets its own configuration, which cannot
+ * change once created, and the engine, the simulation manager, and the entities
+ * read it through
+ * {@link com.mechalikh.pureedgesim.simulationmanager.SimulationManager#getConfiguration()}.
+ * The static fields are still filled by the parsers, and are used as the
+ * default configuration.
+ * <p>
+ * Configurations are created from the parsed parameters and then modified
+ * using a {@link Builder}, e.g.:
+ * 
+ * <pre>
+ * SimulationConfiguration.Builder builder = SimulationConfiguration.fromParameters().toBuilder();
+ * builder.wifiBandwidthBitsPerSecond = 1e9;
+ * builder.outputFolder = "PureEdgeSim/output/fast_wifi/";
+ * SimulationConfiguration fastWifi = builder.build();
+ * </pre>
+ *
+ * @see com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulations(List)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class SimulationConfiguration implements Serializable, ImmutableState {
+	private static final long serialVersionUID = 1L;
+
+	// The settings files and the output folder
+	public final String simulationParametersFile;
+	public final String applicationFile;
+	public final String edgeDataCentersFile;
+	public final String edgeDevicesFile;
+	public final String cloudDataCentersFile;
+	public final String outputFolder;
+
+	// The simulation
+	public final boolean parallelism_enabled;
+	public final double simulationDuration;
+	public final int pauseLength;
+	public final double updateInterval;
+	public final boolean displayRealTimeCharts;
+	public final boolean autoCloseRealTimeCharts;
+	public final double chartsUpdateInterval;
+	public final boolean saveCharts;
+	public final int simulationMapLength;
+	public final int simulationMapWidth;
+	public final int numberOfEdgeDataCenters;
+	public final int numberOfCloudDataCenters;
+	public final int minNumberOfEdgeDevices;
+	public final int maxNumberOfEdgeDevices;
+	public final int edgeDevicesIncrementationStepSize;
+
+	// The logs
+	public final boolean deepLoggingEnabled;
+	public final boolean saveLog;
+	public final boolean cleanOutputFolder;
+
+	// The network
+	public final double wanBandwidthBitsPerSecond;
+	public final double wanLatency;
+	public final double wanWattHourPerBit;
+	public final boolean useOneSharedWanLink;
+	public final double manBandwidthBitsPerSecond;
+	public final double manLatency;
+	public final double manWattHourPerBit;
+	public final double wifiBandwidthBitsPerSecond;
+	public final double wifiDeviceTransmissionWattHourPerBit;
+	public final double wifiDeviceReceptionWattHourPerBit;
+	public final double wifiAccessPointTransmissionWattHourPerBit;
+	public final double wifiAccessPointReceptionWattHourPerBit;
+	public final double wifiLatency;
+	public final double ethernetBandwidthBitsPerSecond;
+	public final double ethernetWattHourPerBit;
+	public final double ethernetLatency;
+	public final double cellularBandwidthBitsPerSecond;
+	public final double cellularDeviceTransmissionWattHourPerBit;
+	public final double cellularDeviceReceptionWattHourPerBit;
+	public final double cellularBaseStationWattHourPerBitUpLink;
+	public final double cellularBaseStationWattHourPerBitDownLink;
+	public final double cellularLatency;
+	public final int edgeDevicesRange;
+	public final int edgeDataCentersRange;
+	public final double networkUpdateInterval;
+	public final boolean realisticNetworkModel;
+	public final boolean fluidNetworkLinks;
+
+	// The orchestration
+	public final boolean enableOrchestrators;
+	public final String deployOrchestrators;
+	public final List<String> orchestrationAlgorithms;
+	public final List<String> orchestrationArchitectures;
+	public final boolean enableRegistry;
+	public final String registryMode;
+
+	// The applications and the tasks
+	public final List<Application> applicationList;
+	public final boolean waitForAllTasksToFinish;
+	public final int batchSize;
+
+	// The simulation engine
+	public final String eventsQueue;
+	public final double timingWheelSlot;
+	public final double timingWheelHorizon;
+	public final boolean eventsPooling;
+	public final int parallelEngineThreads;
+	public final String parallelEngineMode;
+	public final double optimisticWindow;
+	public final boolean engineMetrics;
+	public final long randomSeed;
+	public final boolean parallelTicks;
+	public final double timeResolution;
+	public final boolean eventTrace;
+	public final int eventTraceCapacity;
+	public final boolean bulkDelivery;
+
+	/**
+	 * Creates a configuration from the values of a builder.
+	 * 
+	 * @param builder the builder.
+	 */
+	protected SimulationConfiguration(Builder builder) {
+		simulationParametersFile = builder.simulationParametersFile;
+		applicationFile = builder.applicationFile;
+		edgeDataCentersFile = builder.edgeDataCentersFile;
+		edgeDevicesFile = builder.edgeDevicesFile;
+		cloudDataCentersFile = builder.cloudDataCentersFile;
+		outputFolder = builder.outputFolder;
+		parallelism_enabled = builder.parallelism_enabled;
+		simulationDuration = builder.simulationDuration;
+		pauseLength = builder.pauseLength;
+		updateInterval = builder.updateInterval;
+		displayRealTimeCharts = builder.displayRealTimeCharts;
+		autoCloseRealTimeCharts = builder.autoCloseRealTimeCharts;
+		chartsUpdateInterval = builder.chartsUpdateInterval;
+		saveCharts = builder.saveCharts;
+		simulationMapLength = builder.simulationMapLength;
+		simulationMapWidth = builder.simulationMapWidth;
+		numberOfEdgeDataCenters = builder.numberOfEdgeDataCenters;
+		numberOfCloudDataCenters = builder.numberOfCloudDataCenters;
+		minNumberOfEdgeDevices = builder.minNumberOfEdgeDevices;
+		maxNumberOfEdgeDevices = builder.maxNumberOfEdgeDevices;
+		edgeDevicesIncrementationStepSize = builder.edgeDevicesIncrementationStepSize;
+		deepLoggingEnabled = builder.deepLoggingEnabled;
+		saveLog = builder.saveLog;
+		cleanOutputFolder = builder.cleanOutputFolder;
+		wanBandwidthBitsPerSecond = builder.wanBandwidthBitsPerSecond;
+		wanLatency = builder.wanLatency;
+		wanWattHourPerBit = builder.wanWattHourPerBit;
+		useOneSharedWanLink = builder.useOneSharedWanLink;
+		manBandwidthBitsPerSecond = builder.manBandwidthBitsPerSecond;
+		manLatency = builder.manLatency;
+		manWattHourPerBit = builder.manWattHourPerBit;
+		wifiBandwidthBitsPerSecond = builder.wifiBandwidthBitsPerSecond;
+		wifiDeviceTransmissionWattHourPerBit = builder.wifiDeviceTransmissionWattHourPerBit;
+		wifiDeviceReceptionWattHourPerBit = builder.wifiDeviceReceptionWattHourPerBit;
+		wifiAccessPointTransmissionWattHourPerBit = builder.wifiAccessPointTransmissionWattHourPerBit;
+		wifiAccessPointReceptionWattHourPerBit = builder.wifiAccessPointReceptionWattHourPerBit;
+		wifiLatency = builder.wifiLatency;
+		ethernetBandwidthBitsPerSecond = builder.ethernetBandwidthBitsPerSecond;
+		ethernetWattHourPerBit = builder.ethernetWattHourPerBit;
+		ethernetLatency = builder.ethernetLatency;
+		cellularBandwidthBitsPerSecond = builder.cellularBandwidthBitsPerSecond;
+		cellularDeviceTransmissionWattHourPerBit = builder.cellularDeviceTransmissionWattHourPerBit;
+		cellularDeviceReceptionWattHourPerBit = builder.cellularDeviceReceptionWattHourPerBit;
+		cellularBaseStationWattHourPerBitUpLink = builder.cellularBaseStationWattHourPerBitUpLink;
+		cellularBaseStationWattHourPerBitDownLink = builder.cellularBaseStationWattHourPerBitDownLink;
+		cellularLatency = builder.cellularLatency;
+		edgeDevicesRange = builder.edgeDevicesRange;
+		edgeDataCentersRange = builder.edgeDataCentersRange;
+		networkUpdateInterval = builder.networkUpdateInterval;
+		realisticNetworkModel = builder.realisticNetworkModel;
+		fluidNetworkLinks = builder.fluidNetworkLinks;
+		enableOrchestrators = builder.enableOrchestrators;
+		deployOrchestrators = builder.deployOrchestrators;
+		orchestrationAlgorithms = toList(builder.orchestrationAlgorithms);
+		orchestrationArchitectures = toList(builder.orchestrationArchitectures);
+		enableRegistry = builder.enableRegistry;
+		registryMode = builder.registryMode;
+		applicationList = builder.applicationList == null ? null : Collections.unmodifiableList(new ArrayList<>(builder.applicationList));
+		waitForAllTasksToFinish = builder.waitForAllTasksToFinish;
+		batchSize = builder.batchSize;
+		eventsQueue = builder.eventsQueue;
+		timingWheelSlot = builder.timingWheelSlot;
+		timingWheelHorizon = builder.timingWheelHorizon;
+		eventsPooling = builder.eventsPooling;
+		parallelEngineThreads = builder.parallelEngineThreads;
+		parallelEngineMode = builder.parallelEngineMode;
+		optimisticWindow = builder.optimisticWindow;
+		engineMetrics = builder.engineMetrics;
+		randomSeed = builder.randomSeed;
+		parallelTicks = builder.parallelTicks;
+		timeResolution = builder.timeResolution;
+		eventTrace = builder.eventTrace;
+		eventTraceCapacity = builder.eventTraceCapacity;
+		bulkDelivery = builder.bulkDelivery;
+	}
+
+	/**
+	 * Copies the given array into an unmodifiable list, so the configuration
+	 * cannot be changed through it.
+	 * 
+	 * @param array the array, can be null.
+	 * @return the list, or null if the array is null.
+	 */
+	private static List<String> toList(String[] array) {
+		return array == null ? null : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(array)));
+	}
+
+	/**
+	 * Creates a configuration from the current values of the
+	 * {@link SimulationParameters}, i.e. the parameters read from the settings
+	 * files.
+	 * 
+	 * @return the configuration.
+	 */
+	public static SimulationConfiguration fromParameters() {
+		return new Builder().build();
+	}
+
+	/**
+	 * Creates a builder initialized with the values of this configuration, to
+	 * create a modified copy of it.
+	 * 
+	 * @return the builder.
+	 */
+	public Builder toBuilder() {
+		return new Builder(this);
+	}
+
+	/**
+	 * The mutable counterpart of a configuration, used to create it.
+	 */
+	public static class Builder {
+
+		// The settings files and the output folder
+		public String simulationParametersFile;
+		public String applicationFile;
+		public String edgeDataCentersFile;
+		public String edgeDevicesFile;
+		public String cloudDataCentersFile;
+		public String outputFolder;
+
+		// The simulation
+		public boolean parallelism_enabled;
+		public double simulationDuration;
+		public int pauseLength;
+		public double updateInterval;
+		public boolean displayRealTimeCharts;
+		public boolean autoCloseRealTimeCharts;
+		public double chartsUpdateInterval;
+		public boolean saveCharts;
+		public int simulationMapLength;
+		public int simulationMapWidth;
+		public int numberOfEdgeDataCenters;
+		public int numberOfCloudDataCenters;
+		public int minNumberOfEdgeDevices;
+		public int maxNumberOfEdgeDevices;
+		public int edgeDevicesIncrementationStepSize;
+
+		// The logs
+		public boolean deepLoggingEnabled;
+		public boolean saveLog;
+		public boolean cleanOutputFolder;
+
+		// The network
+		public double wanBandwidthBitsPerSecond;
+		public double wanLatency;
+		public double wanWattHourPerBit;
+		public boolean useOneSharedWanLink;
+		public double manBandwidthBitsPerSecond;
+		public double manLatency;
+		public double manWattHourPerBit;
+		public double wifiBandwidthBitsPerSecond;
+		public double wifiDeviceTransmissionWattHourPerBit;
+		public double wifiDeviceReceptionWattHourPerBit;
+		public double wifiAccessPointTransmissionWattHourPerBit;
+		public double wifiAccessPointReceptionWattHourPerBit;
+		public double wifiLatency;
+		public double ethernetBandwidthBitsPerSecond;
+		public double ethernetWattHourPerBit;
+		public double ethernetLatency;
+		public double cellularBandwidthBitsPerSecond;
+		public double cellularDeviceTransmissionWattHourPerBit;
+		public double cellularDeviceReceptionWattHourPerBit;
+		public double cellularBaseStationWattHourPerBitUpLink;
+		public double cellularBaseStationWattHourPerBitDownLink;
+		public double cellularLatency;
+		public int edgeDevicesRange;
+		public int edgeDataCentersRange;
+		public double networkUpdateInterval;
+		public boolean realisticNetworkModel;
+		public boolean fluidNetworkLinks;
+
+		// The orchestration
+		public boolean enableOrchestrators;
+		public String deployOrchestrators;
+		public String[] orchestrationAlgorithms;
+		public String[] orchestrationArchitectures;
+		public boolean enableRegistry;
+		public String registryMode;
+
+		// The applications and the tasks
+		public List<Application> applicationList;
+		public boolean waitForAllTasksToFinish;
+		public int batchSize;
+
+		// The simulation engine
+		public String eventsQueue;
+		public double timingWheelSlot;
+		public double timingWheelHorizon;
+		public boolean eventsPooling;
+		public int parallelEngineThreads;
+		public String parallelEngineMode;
+		public double optimisticWindow;
+		public boolean engineMetrics;
+		public long randomSeed;
+		public boolean parallelTicks;
+		public double timeResolution;
+		public boolean eventTrace;
+		public int eventTraceCapacity;
+		public boolean bulkDelivery;
+
+		/**
+		 * Creates a builder initialized with the current values of the
+		 * {@link SimulationParameters}.
+		 */
+		public Builder() {
+			simulationParametersFile = SimulationParameters.simulationParametersFile;
+			applicationFile = SimulationParameters.applicationFile;
+			edgeDataCentersFile = SimulationParameters.edgeDataCentersFile;
+			edgeDevicesFile = SimulationParameters.edgeDevicesFile;
+			cloudDataCentersFile = SimulationParameters.cloudDataCentersFile;
+			outputFolder = SimulationParameters.outputFolder;
+			parallelism_enabled = SimulationParameters.parallelism_enabled;
+			simulationDuration = SimulationParameters.simulationDuration;
+			pauseLength = SimulationParameters.pauseLength;
+			updateInterval = SimulationParameters.updateInterval;
+			displayRealTimeCharts = SimulationParameters.displayRealTimeCharts;
+			autoCloseRealTimeCharts = SimulationParameters.autoCloseRealTimeCharts;
+			chartsUpdateInterval = SimulationParameters.chartsUpdateInterval;
+			saveCharts = SimulationParameters.saveCharts;
+			simulationMapLength = SimulationParameters.simulationMapLength;
+			simulationMapWidth = SimulationParameters.simulationMapWidth;
+			numberOfEdgeDataCenters = SimulationParameters.numberOfEdgeDataCenters;
+			numberOfCloudDataCenters = SimulationParameters.numberOfCloudDataCenters;
+			minNumberOfEdgeDevices = SimulationParameters.minNumberOfEdgeDevices;
+			maxNumberOfEdgeDevices = SimulationParameters.maxNumberOfEdgeDevices;
+			edgeDevicesIncrementationStepSize = SimulationParameters.edgeDevicesIncrementationStepSize;
+			deepLoggingEnabled = SimulationParameters.deepLoggingEnabled;
+			saveLog = SimulationParameters.saveLog;
+			cleanOutputFolder = SimulationParameters.cleanOutputFolder;
+			wanBandwidthBitsPerSecond = SimulationParameters.wanBandwidthBitsPerSecond;
+			wanLatency = SimulationParameters.wanLatency;
+			wanWattHourPerBit = SimulationParameters.wanWattHourPerBit;
+			useOneSharedWanLink = SimulationParameters.useOneSharedWanLink;
+			manBandwidthBitsPerSecond = SimulationParameters.manBandwidthBitsPerSecond;
+			manLatency = SimulationParameters.manLatency;
+			manWattHourPerBit = SimulationParameters.manWattHourPerBit;
+			wifiBandwidthBitsPerSecond = SimulationParameters.wifiBandwidthBitsPerSecond;
+			wifiDeviceTransmissionWattHourPerBit = SimulationParameters.wifiDeviceTransmissionWattHourPerBit;
+			wifiDeviceReceptionWattHourPerBit = SimulationParameters.wifiDeviceReceptionWattHourPerBit;
+			wifiAccessPointTransmissionWattHourPerBit = SimulationParameters.wifiAccessPointTransmissionWattHourPerBit;
+			wifiAccessPointReceptionWattHourPerBit = SimulationParameters.wifiAccessPointReceptionWattHourPerBit;
+			wifiLatency = SimulationParameters.wifiLatency;
+			ethernetBandwidthBitsPerSecond = SimulationParameters.ethernetBandwidthBitsPerSecond;
+			ethernetWattHourPerBit = SimulationParameters.ethernetWattHourPerBit;
+			ethernetLatency = SimulationParameters.ethernetLatency;
+			cellularBandwidthBitsPerSecond = SimulationParameters.cellularBandwidthBitsPerSecond;
+			cellularDeviceTransmissionWattHourPerBit = SimulationParameters.cellularDeviceTransmissionWattHourPerBit;
+			cellularDeviceReceptionWattHourPerBit = SimulationParameters.cellularDeviceReceptionWattHourPerBit;
+			cellularBaseStationWattHourPerBitUpLink = SimulationParameters.cellularBaseStationWattHourPerBitUpLink;
+			cellularBaseStationWattHourPerBitDownLink = SimulationParameters.cellularBaseStationWattHourPerBitDownLink;
+			cellularLatency = SimulationParameters.cellularLatency;
+			edgeDevicesRange = SimulationParameters.edgeDevicesRange;
+			edgeDataCentersRange = SimulationParameters.edgeDataCentersRange;
+			networkUpdateInterval = SimulationParameters.networkUpdateInterval;
+			realisticNetworkModel = SimulationParameters.realisticNetworkModel;
+			fluidNetworkLinks = SimulationParameters.fluidNetworkLinks;
+			enableOrchestrators = SimulationParameters.enableOrchestrators;
+			deployOrchestrators = SimulationParameters.deployOrchestrators;
+			orchestrationAlgorithms = SimulationParameters.orchestrationAlgorithms == null ? null : SimulationParameters.orchestrationAlgorithms.clone();
+			orchestrationArchitectures = SimulationParameters.orchestrationArchitectures == null ? null : SimulationParameters.orchestrationArchitectures.clone();
+			enableRegistry = SimulationParameters.enableRegistry;
+			registryMode = SimulationParameters.registryMode;
+			applicationList = SimulationParameters.applicationList == null ? null : new ArrayList<>(SimulationParameters.applicationList);
+			waitForAllTasksToFinish = SimulationParameters.waitForAllTasksToFinish;
+			batchSize = SimulationParameters.batchSize;
+			eventsQueue = SimulationParameters.eventsQueue;
+			timingWheelSlot = SimulationParameters.timingWheelSlot;
+			timingWheelHorizon = SimulationParameters.timingWheelHorizon;
+			eventsPooling = SimulationParameters.eventsPooling;
+			parallelEngineThreads = SimulationParameters.parallelEngineThreads;
+			parallelEngineMode = SimulationParameters.parallelEngineMode;
+			optimisticWindow = SimulationParameters.optimisticWindow;
+			engineMetrics = SimulationParameters.engineMetrics;
+			randomSeed = SimulationParameters.randomSeed;
+			parallelTicks = SimulationParameters.parallelTicks;
+			timeResolution = SimulationParameters.timeResolution;
+			eventTrace = SimulationParameters.eventTrace;
+			eventTraceCapacity = SimulationParameters.eventTraceCapacity;
+			bulkDelivery = SimulationParameters.bulkDelivery;
+		}
+
+		/**
+		 * Creates a builder initialized with the values of the given configuration.
+		 * 
+		 * @param configuration the configuration to copy.
+		 */
+		public Builder(SimulationConfiguration configuration) {
+			simulationParametersFile = configuration.simulationParametersFile;
+			applicationFile = configuration.applicationFile;
+			edgeDataCentersFile = configuration.edgeDataCentersFile;
+			edgeDevicesFile = configuration.edgeDevicesFile;
+			cloudDataCentersFile = configuration.cloudDataCentersFile;
+			outputFolder = configuration.outputFolder;
+			parallelism_enabled = configuration.parallelism_enabled;
+			simulationDuration = configuration.simulationDuration;
+			pauseLength = configuration.pauseLength;
+			updateInterval = configuration.updateInterval;
+			displayRealTimeCharts = configuration.displayRealTimeCharts;
+			autoCloseRealTimeCharts = configuration.autoCloseRealTimeCharts;
+			chartsUpdateInterval = configuration.chartsUpdateInterval;
+			saveCharts = configuration.saveCharts;
+			simulationMapLength = configuration.simulationMapLength;
+			simulationMapWidth = configuration.simulationMapWidth;
+			numberOfEdgeDataCenters = configuration.numberOfEdgeDataCenters;
+			numberOfCloudDataCenters = configuration.numberOfCloudDataCenters;
+			minNumberOfEdgeDevices = configuration.minNumberOfEdgeDevices;
+			maxNumberOfEdgeDevices = configuration.maxNumberOfEdgeDevices;
+			edgeDevicesIncrementationStepSize = configuration.edgeDevicesIncrementationStepSize;
+			deepLoggingEnabled = configuration.deepLoggingEnabled;
+			saveLog = configuration.saveLog;
+			cleanOutputFolder = configuration.cleanOutputFolder;
+			wanBandwidthBitsPerSecond = configuration.wanBandwidthBitsPerSecond;
+			wanLatency = configuration.wanLatency;
+			wanWattHourPerBit = configuration.wanWattHourPerBit;
+			useOneSharedWanLink = configuration.useOneSharedWanLink;
+			manBandwidthBitsPerSecond = configuration.manBandwidthBitsPerSecond;
+			manLatency = configuration.manLatency;
+			manWattHourPerBit = configuration.manWattHourPerBit;
+			wifiBandwidthBitsPerSecond = configuration.wifiBandwidthBitsPerSecond;
+			wifiDeviceTransmissionWattHourPerBit = configuration.wifiDeviceTransmissionWattHourPerBit;
+			wifiDeviceReceptionWattHourPerBit = configuration.wifiDeviceReceptionWattHourPerBit;
+			wifiAccessPointTransmissionWattHourPerBit = configuration.wifiAccessPointTransmissionWattHourPerBit;
+			wifiAccessPointReceptionWattHourPerBit = configuration.wifiAccessPointReceptionWattHourPerBit;
+			wifiLatency = configuration.wifiLatency;
+			ethernetBandwidthBitsPerSecond = configuration.ethernetBandwidthBitsPerSecond;
+			ethernetWattHourPerBit = configuration.ethernetWattHourPerBit;
+			ethernetLatency = configuration.ethernetLatency;
+			cellularBandwidthBitsPerSecond = configuration.cellularBandwidthBitsPerSecond;
+			cellularDeviceTransmissionWattHourPerBit = configuration.cellularDeviceTransmissionWattHourPerBit;
+			cellularDeviceReceptionWattHourPerBit = configuration.cellularDeviceReceptionWattHourPerBit;
+			cellularBaseStationWattHourPerBitUpLink = configuration.cellularBaseStationWattHourPerBitUpLink;
+			cellularBaseStationWattHourPerBitDownLink = configuration.cellularBaseStationWattHourPerBitDownLink;
+			cellularLatency = configuration.cellularLatency;
+			edgeDevicesRange = configuration.edgeDevicesRange;
+			edgeDataCentersRange = configuration.edgeDataCentersRange;
+			networkUpdateInterval = configuration.networkUpdateInterval;
+			realisticNetworkModel = configuration.realisticNetworkModel;
+			fluidNetworkLinks = configuration.fluidNetworkLinks;
+			enableOrchestrators = configuration.enableOrchestrators;
+			deployOrchestrators = configuration.deployOrchestrators;
+			orchestrationAlgorithms = configuration.orchestrationAlgorithms == null ? null : configuration.orchestrationAlgorithms.toArray(new String[0]);
+			orchestrationArchitectures = configuration.orchestrationArchitectures == null ? null : configuration.orchestrationArchitectures.toArray(new String[0]);
+			enableRegistry = configuration.enableRegistry;
+			registryMode = configuration.registryMode;
+			applicationList = configuration.applicationList == null ? null : new ArrayList<>(configuration.applicationList);
+			waitForAllTasksToFinish = configuration.waitForAllTasksToFinish;
+			batchSize = configuration.batchSize;
+			eventsQueue = configuration.eventsQueue;
+			timingWheelSlot = configuration.timingWheelSlot;
+			timingWheelHorizon = configuration.timingWheelHorizon;
+			eventsPooling = configuration.eventsPooling;
+			parallelEngineThreads = configuration.parallelEngineThreads;
+			parallelEngineMode = configuration.parallelEngineMode;
+			optimisticWindow = configuration.optimisticWindow;
+			engineMetrics = configuration.engineMetrics;
+			randomSeed = configuration.randomSeed;
+			parallelTicks = configuration.parallelTicks;
+			timeResolution = configuration.timeResolution;
+			eventTrace = configuration.eventTrace;
+			eventTraceCapacity = configuration.eventTraceCapacity;
+			bulkDelivery = configuration.bulkDelivery;
+		}
+
+		/**
+		 * Creates the configuration. The builder can then be modified and used
+		 * again, without changing the configurations it has created.
+		 * 
+		 * @return the configuration.
+		 */
+		public SimulationConfiguration build() {
+			return new SimulationConfiguration(this);
+		}
+	}
+
+}
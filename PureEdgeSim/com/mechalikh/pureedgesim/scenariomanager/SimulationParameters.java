@@ -472,6 +472,16 @@ public class SimulationParameters {
 	 */
 	public static boolean realisticNetworkModel;
 
+	/**
+	 * If true, and if the realistic network model is used, the network links
+	 * compute the exact time at which their transfers finish, and only update them
+	 * when a transfer starts or finishes, instead of every network update
+	 * interval.
+	 * 
+	 * @see com.mechalikh.pureedgesim.network.NetworkLink#isFluid()
+	 */
+	public static boolean fluidNetworkLinks = false;
+
 	/**
 	 * If true, the tasks will be sent for another computing node (i.e. the
 	 * orchestrator) in order to make offlaoding decision, before being sent to the
@@ -540,6 +550,133 @@ public class SimulationParameters {
 	 */
 	public static int batchSize;
 
+	/**
+	 * The data structure used to store the future events: DEFAULT (a balanced
+	 * tree, O(log n)), CALENDAR (a calendar queue, O(1) amortized for large
+	 * queues), or WHEEL (a hierarchical timing wheel, O(1) for the events within
+	 * its horizon).
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.FutureQueue
+	 * @see com.mechalikh.pureedgesim.simulationengine.CalendarQueue
+	 * @see com.mechalikh.pureedgesim.simulationengine.TimingWheelQueue
+	 */
+	public static String eventsQueue = "DEFAULT";
+
+	/**
+	 * The time interval covered by a slot of the timing wheel, in seconds.
+	 * 
+	 * @see #eventsQueue
+	 */
+	public static double timingWheelSlot = 0.01;
+
+	/**
+	 * The delay (in seconds) beyond which the events are stored in a sorted set
+	 * instead of the timing wheel.
+	 * 
+	 * @see #eventsQueue
+	 */
+	public static double timingWheelHorizon = 600;
+
+	/**
+	 * If true, the processed events are recycled instead of being garbage
+	 * collected. Events must then not be used once they have been processed.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.EventPool
+	 */
+	public static boolean eventsPooling = false;
+
+	/**
+	 * The number of threads used by the parallel simulation engine to process the
+	 * partitions (one per edge data center coverage area). 1 means that the
+	 * sequential engine is used.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.ParallelPureEdgeSim
+	 */
+	public static int parallelEngineThreads = 1;
+
+	/**
+	 * The synchronization of the parallel simulation engine: CONSERVATIVE (the
+	 * partitions only process the events that are within the lookahead, i.e. the
+	 * minimum latency between two partitions), or OPTIMISTIC (experimental, the
+	 * partitions process their events within a fixed window and roll back when
+	 * they receive an event in their past).
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.ParallelPureEdgeSim
+	 * @see com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim
+	 */
+	public static String parallelEngineMode = "CONSERVATIVE";
+
+	/**
+	 * The width (in seconds) of the windows processed by the optimistic parallel
+	 * engine.
+	 * 
+	 * @see #parallelEngineMode
+	 */
+	public static double optimisticWindow = 1;
+
+	/**
+	 * Whether the metrics of the simulation engine (processed events and
+	 * processing time per entity class and tag, queue depth, etc.) are collected
+	 * and saved next to the simulation results.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.EngineMetrics
+	 */
+	public static boolean engineMetrics = false;
+
+	/**
+	 * The master seed of the random number streams. The runs that use the same
+	 * seed get the same random numbers, whatever the orchestration algorithm.
+	 * Unless it is set in the simulation parameters file, a new seed is picked
+	 * for each launch (and printed, so that the run can be reproduced).
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.RandomStreams
+	 */
+	public static long randomSeed = 0;
+
+	/**
+	 * Whether the periodic status updates of the computing nodes are split across
+	 * the available cores, when the sequential engine is used.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.TickService
+	 */
+	public static boolean parallelTicks = false;
+
+	/**
+	 * The duration of a tick of the simulation clock, in seconds, e.g. 1e-6 for
+	 * microseconds. The events times are rounded to the nearest tick, and the
+	 * events whose times round to the same tick happen at the same instant. When
+	 * it is 0, the times are not rounded.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.TimeBase
+	 */
+	public static double timeResolution = 0;
+
+	/**
+	 * Whether the processed events are recorded in a binary trace file, next to
+	 * the simulation results.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder
+	 * @see com.mechalikh.pureedgesim.simulationengine.EventTraceReader
+	 */
+	public static boolean eventTrace = false;
+
+	/**
+	 * The maximum number of events in the trace file, once reached the oldest ones
+	 * are overwritten.
+	 * 
+	 * @see #eventTrace
+	 */
+	public static int eventTraceCapacity = 1000000;
+
+	/**
+	 * Whether the computing nodes receive the tasks whose execution finishes at
+	 * the same instant in bulk, to free their resources and start the queued
+	 * tasks in one pass.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.SimEntity#isBulkDelivered(com.mechalikh.pureedgesim.simulationengine.Event)
+	 */
+	public static boolean bulkDelivery = false;
+
 	/**
 	 * A private constructor to prevent this class from being instantiated.
 	 * 
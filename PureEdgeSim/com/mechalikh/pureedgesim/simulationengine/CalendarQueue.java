@@ -0,0 +1,467 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Queue} that stores future simulation Events and Tasks in a calendar
+ * queue (R. Brown, "Calendar queues: a fast O(1) priority queue implementation
+ * for the simulation event set problem", Communications of the ACM, 1988).
+ * <p>
+ * The elements are spread over an array of buckets (the days of the calendar),
+ * each one covering a time interval of the same width. Each bucket is kept
+ * sorted, so inserting an element and removing the first one takes O(1)
+ * amortized time as long as the number of buckets and their width follow the
+ * number of elements and their distribution, which is done automatically by
+ * resizing the calendar when the queue grows or shrinks.
+ * <p>
+ * Elements are ordered exactly as in the {@link FutureQueue}, by time then by
+ * serial, so switching between both queues does not change the simulation
+ * results.
+ *
+ * @see FutureQueue
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsQueue
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class CalendarQueue<T extends QueueElement> implements Queue<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The minimum number of buckets.
+	 */
+	protected static final int MIN_BUCKETS = 2;
+
+	/**
+	 * The number of elements (those that will be dequeued first) used to estimate
+	 * the bucket width when resizing the calendar.
+	 */
+	protected static final int WIDTH_SAMPLE_SIZE = 25;
+
+	/**
+	 * The days of the calendar.
+	 */
+	protected Bucket[] buckets;
+
+	/**
+	 * The time interval covered by each bucket.
+	 */
+	protected double width;
+
+	/**
+	 * The number of elements in the queue.
+	 */
+	protected int size;
+
+	/**
+	 * The virtual bucket (i.e. time / width) from which the search of the first
+	 * element starts. No element of the queue is located before it.
+	 */
+	protected long currentVirtualBucket;
+
+	/**
+	 * The index of the bucket containing the first element, -1 if it needs to be
+	 * searched again.
+	 */
+	protected int firstBucket = -1;
+
+	protected long serial;
+
+	protected long lowestSerial;
+
+	protected long maxTsNumber;
+
+	/**
+	 * Creates a calendar queue with a default bucket width of one second.
+	 */
+	public CalendarQueue() {
+		this(MIN_BUCKETS, 1);
+	}
+
+	/**
+	 * Creates a calendar queue.
+	 *
+	 * @param initialBuckets the initial number of buckets.
+	 * @param initialWidth   the initial time interval covered by each bucket.
+	 */
+	public CalendarQueue(int initialBuckets, double initialWidth) {
+		if (initialWidth <= 0)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " - The bucket width must be > 0");
+		this.width = initialWidth;
+		this.buckets = newBuckets(Math.max(MIN_BUCKETS, initialBuckets));
+	}
+
+	@Override
+	public void add(final T item) {
+		item.setSerial(serial++);
+		insert(item);
+	}
+
+	@Override
+	public void addFirst(final T item) {
+		item.setSerial(--lowestSerial);
+		insert(item);
+	}
+
+	/**
+	 * Puts the element in its bucket, and resizes the calendar if needed.
+	 *
+	 * @param item the element to insert.
+	 */
+	protected void insert(final T item) {
+		long virtualBucket = virtualBucket(item.getTime());
+		if (size == 0 || virtualBucket < currentVirtualBucket)
+			currentVirtualBucket = virtualBucket;
+
+		int index = bucketIndex(virtualBucket);
+		buckets[index].insert(item);
+		size++;
+		maxTsNumber = Math.max(maxTsNumber, size);
+
+		// Keep track of the first element without searching it again
+		if (firstBucket != -1 && compare(item, first(firstBucket)) < 0)
+			firstBucket = index;
+
+		if (size > 2 * buckets.length)
+			resize(2 * buckets.length);
+	}
+
+	@Override
+	public T first() throws NoSuchElementException {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return first(locateFirst());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T pollFirst() {
+		if (size == 0)
+			return null;
+		T first = (T) buckets[locateFirst()].pollFirst();
+		removed();
+		return first;
+	}
+
+	@Override
+	public boolean remove(final T item) {
+		if (size == 0)
+			return false;
+		if (!buckets[bucketIndex(virtualBucket(item.getTime()))].remove(item))
+			return false;
+		removed();
+		return true;
+	}
+
+	/**
+	 * Updates the queue state once an element has been removed.
+	 */
+	protected void removed() {
+		size--;
+		firstBucket = -1;
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS)
+			resize(buckets.length / 2);
+	}
+
+	/**
+	 * Finds the bucket of the first element. The search starts from the current
+	 * bucket, and goes through one year (i.e. all the buckets once). If no element
+	 * belongs to this year, a direct search is done.
+	 *
+	 * @return the index of the bucket containing the first element.
+	 */
+	protected int locateFirst() {
+		if (firstBucket != -1)
+			return firstBucket;
+
+		for (int i = 0; i < buckets.length; i++) {
+			long virtualBucket = currentVirtualBucket + i;
+			int index = bucketIndex(virtualBucket);
+			if (buckets[index].size > 0 && virtualBucket(first(index).getTime()) <= virtualBucket) {
+				currentVirtualBucket = virtualBucket;
+				firstBucket = index;
+				return index;
+			}
+		}
+
+		// The next element is more than one year ahead, look at the head of each bucket
+		int index = -1;
+		for (int i = 0; i < buckets.length; i++) {
+			if (buckets[i].size > 0 && (index == -1 || compare(first(i), first(index)) < 0))
+				index = i;
+		}
+		currentVirtualBucket = virtualBucket(first(index).getTime());
+		firstBucket = index;
+		return index;
+	}
+
+	/**
+	 * Changes the number of buckets and recomputes their width based on the time
+	 * separating the elements that will be dequeued first.
+	 *
+	 * @param newSize the new number of buckets.
+	 */
+	protected void resize(int newSize) {
+		List<T> elements = toList();
+		width = estimateWidth(elements);
+		buckets = newBuckets(Math.max(MIN_BUCKETS, newSize));
+		firstBucket = -1;
+		currentVirtualBucket = Long.MAX_VALUE;
+
+		for (T item : elements) {
+			long virtualBucket = virtualBucket(item.getTime());
+			currentVirtualBucket = Math.min(currentVirtualBucket, virtualBucket);
+			buckets[bucketIndex(virtualBucket)].insert(item);
+		}
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation between
+	 * the first elements of the queue, ignoring the separations that are larger
+	 * than twice the average.
+	 *
+	 * @param elements the elements of the queue.
+	 * @return the new bucket width.
+	 */
+	protected double estimateWidth(List<T> elements) {
+		// Get the earliest distinct times, without sorting the whole queue
+		double[] sample = new double[WIDTH_SAMPLE_SIZE];
+		int count = 0;
+		for (T item : elements) {
+			double time = item.getTime();
+			if (count == WIDTH_SAMPLE_SIZE && time >= sample[count - 1])
+				continue;
+			int position = count;
+			while (position > 0 && sample[position - 1] > time)
+				position--;
+			if (position > 0 && sample[position - 1] == time)
+				continue;
+			if (count < WIDTH_SAMPLE_SIZE)
+				count++;
+			System.arraycopy(sample, position, sample, position + 1, count - position - 1);
+			sample[position] = time;
+		}
+
+		if (count < 2)
+			return width;
+
+		double average = (sample[count - 1] - sample[0]) / (count - 1);
+		double total = 0;
+		int separations = 0;
+		for (int i = 1; i < count; i++) {
+			double separation = sample[i] - sample[i - 1];
+			if (separation <= 2 * average) {
+				total += separation;
+				separations++;
+			}
+		}
+		double newWidth = 3 * total / separations;
+		return newWidth > 0 && !Double.isInfinite(newWidth) ? newWidth : width;
+	}
+
+	protected long virtualBucket(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	protected int bucketIndex(long virtualBucket) {
+		return (int) Math.floorMod(virtualBucket, (long) buckets.length);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T first(int bucket) {
+		return (T) buckets[bucket].items[buckets[bucket].head];
+	}
+
+	protected Bucket[] newBuckets(int count) {
+		Bucket[] newBuckets = new Bucket[count];
+		for (int i = 0; i < count; i++)
+			newBuckets[i] = new Bucket();
+		return newBuckets;
+	}
+
+	/**
+	 * Compares two elements by time, and then by serial, as done by the
+	 * {@link FutureQueue}.
+	 */
+	protected static int compare(QueueElement a, QueueElement b) {
+		int res = Double.compare(a.getTime(), b.getTime());
+		if (res != 0)
+			return res;
+		return Long.compare(a.getSerial(), b.getSerial());
+	}
+
+	/**
+	 * Returns all the elements of the queue, in no particular order.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<T> toList() {
+		List<T> elements = new ArrayList<>(size);
+		for (Bucket bucket : buckets)
+			for (int i = bucket.head; i < bucket.head + bucket.size; i++)
+				elements.add((T) bucket.items[i]);
+		return elements;
+	}
+
+	/**
+	 * Returns the elements sorted as they will be dequeued. As the elements are
+	 * not stored in a single sorted collection, the result is a sorted copy of the
+	 * queue.
+	 */
+	protected List<T> toSortedList() {
+		List<T> elements = toList();
+		elements.sort(CalendarQueue::compare);
+		return Collections.unmodifiableList(elements);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return toSortedList().iterator();
+	}
+
+	@Override
+	public Stream<T> stream() {
+		return toSortedList().stream();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean anyMatch(Predicate<? super T> predicate) {
+		for (Bucket bucket : buckets)
+			for (int i = bucket.head; i < bucket.head + bucket.size; i++)
+				if (predicate.test((T) bucket.items[i]))
+					return true;
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the maximum number of elements that have been stored at the same
+	 * time in this queue.
+	 *
+	 * @return the maximum size reached by the queue.
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
+	/**
+	 * A day of the calendar: a sorted array of elements. The elements are removed
+	 * from the head, and are in most cases added at the tail, both being done in
+	 * constant time.
+	 */
+	protected static class Bucket implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected Object[] items = new Object[4];
+		protected int head;
+		protected int size;
+
+		protected void insert(QueueElement item) {
+			int position = insertionPoint(item);
+
+			// Added before the current head, no need to shift the elements
+			if (position == head && head > 0) {
+				items[--head] = item;
+				size++;
+				return;
+			}
+
+			if (head + size == items.length) {
+				if (size < items.length / 2) {
+					// Enough room: move the elements to the beginning of the array
+					System.arraycopy(items, head, items, 0, size);
+					Arrays.fill(items, size, head + size, null);
+				} else {
+					Object[] newItems = new Object[items.length * 2];
+					System.arraycopy(items, head, newItems, 0, size);
+					items = newItems;
+				}
+				position -= head;
+				head = 0;
+			}
+
+			System.arraycopy(items, position, items, position + 1, head + size - position);
+			items[position] = item;
+			size++;
+		}
+
+		/**
+		 * Finds where the element must be inserted, starting from the tail where
+		 * elements are usually added.
+		 */
+		protected int insertionPoint(QueueElement item) {
+			int low = head;
+			int high = head + size;
+			if (size == 0 || compare((QueueElement) items[high - 1], item) < 0)
+				return high;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare((QueueElement) items[middle], item) < 0)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return low;
+		}
+
+		protected Object pollFirst() {
+			Object first = items[head];
+			items[head] = null;
+			size--;
+			head = size == 0 ? 0 : head + 1;
+			return first;
+		}
+
+		protected boolean remove(QueueElement item) {
+			int position = insertionPoint(item);
+			if (position == head + size || compare((QueueElement) items[position], item) != 0)
+				return false;
+			if (position == head) {
+				pollFirst();
+				return true;
+			}
+			System.arraycopy(items, position + 1, items, position, head + size - position - 1);
+			items[head + size - 1] = null;
+			size--;
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,354 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects statistics about the simulation engine, to find which entities and
+ * which events take most of the run time without using an external profiler:
+ * <ul>
+ * <li>the number of processed events, and the time spent processing them, per
+ * entity class and per event tag,</li>
+ * <li>the number of processed events per second (of wall time),</li>
+ * <li>the number of pending events (queue depth), sampled over the simulation
+ * time,</li>
+ * <li>the sizes of the batches of events that happen at the same time.</li>
+ * </ul>
+ * The metrics are disabled by default, in which case they cost nothing. They
+ * are enabled by calling {@link PureEdgeSim#enableMetrics(double)} before
+ * starting the simulation, or by setting the "engine_metrics" parameter to
+ * true, in which case they are saved in a CSV file next to the simulation
+ * results.
+ * <p>
+ * The events that are processed in parallel by the {@link ParallelPureEdgeSim}
+ * engine are counted, but their processing time is not measured.
+ * 
+ * @see PureEdgeSim#getMetrics()
+ * @see com.mechalikh.pureedgesim.simulationmanager.SimLog#saveEngineMetrics(EngineMetrics)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class EngineMetrics implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The event tags in [0, MAX_INDEXED_TAG[ are counted in arrays, the others in
+	 * a map.
+	 */
+	protected static final int MAX_INDEXED_TAG = 1024;
+
+	/**
+	 * The number of buckets of the batch sizes histogram. The bucket i counts the
+	 * batches whose size is in [2^i, 2^(i+1)[.
+	 */
+	protected static final int BATCH_BUCKETS = 32;
+
+	/**
+	 * The interval (in seconds of simulation time) between two samples of the
+	 * queue depth.
+	 */
+	protected final double samplingInterval;
+
+	/**
+	 * The statistics of each entity class.
+	 */
+	protected final Map<Class<?>, ClassMetrics> classes = new HashMap<>();
+
+	/**
+	 * The statistics of the last entity class, to avoid looking it up when it
+	 * processes several events in a row.
+	 */
+	protected ClassMetrics lastClass;
+
+	protected long eventsCount;
+	protected long processingTime;
+	protected long firstEventWallTime;
+	protected long lastEventWallTime;
+
+	protected double nextSampleTime;
+	protected int samplesCount;
+	protected double[] samplesTimes = new double[64];
+	protected int[] samplesDepths = new int[64];
+	protected int maxQueueDepth;
+
+	protected double batchTime = Double.NaN;
+	protected int batchSize;
+	protected final long[] batchSizes = new long[BATCH_BUCKETS];
+
+	/**
+	 * Creates the metrics of a simulation.
+	 * 
+	 * @param samplingInterval the interval (in seconds of simulation time) between
+	 *                         two samples of the queue depth.
+	 */
+	public EngineMetrics(double samplingInterval) {
+		if (samplingInterval <= 0)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the sampling interval must be > 0.");
+		this.samplingInterval = samplingInterval;
+	}
+
+	/**
+	 * Records a processed event. Called by the simulation engine.
+	 * 
+	 * @param event          the event, before it is recycled.
+	 * @param processingTime the time spent processing it, in nanoseconds.
+	 * @param queueDepth     the number of pending events after processing it.
+	 */
+	public void eventProcessed(Event event, long processingTime, int queueDepth) {
+		long now = System.nanoTime();
+		if (eventsCount++ == 0)
+			firstEventWallTime = now - processingTime;
+		lastEventWallTime = now;
+		this.processingTime += processingTime;
+
+		Class<?> type = event.getSimEntity().getClass();
+		if (lastClass == null || lastClass.type != type)
+			lastClass = classes.computeIfAbsent(type, ClassMetrics::new);
+		lastClass.add(event.getTag(), processingTime);
+
+		double time = event.getTime();
+		if (time != batchTime) {
+			endBatch();
+			batchTime = time;
+		}
+		batchSize++;
+
+		maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+		if (time >= nextSampleTime) {
+			sample(time, queueDepth);
+			nextSampleTime = (Math.floor(time / samplingInterval) + 1) * samplingInterval;
+		}
+	}
+
+	/**
+	 * Adds the size of the last batch to the histogram.
+	 */
+	protected void endBatch() {
+		if (batchSize > 0)
+			batchSizes[31 - Integer.numberOfLeadingZeros(batchSize)]++;
+		batchSize = 0;
+	}
+
+	/**
+	 * Records the queue depth at the given simulation time.
+	 */
+	protected void sample(double time, int queueDepth) {
+		if (samplesCount == samplesTimes.length) {
+			samplesTimes = Arrays.copyOf(samplesTimes, samplesCount * 2);
+			samplesDepths = Arrays.copyOf(samplesDepths, samplesCount * 2);
+		}
+		samplesTimes[samplesCount] = time;
+		samplesDepths[samplesCount++] = queueDepth;
+	}
+
+	/**
+	 * Gets the total number of processed events.
+	 * 
+	 * @return the number of events.
+	 */
+	public long getEventsCount() {
+		return eventsCount;
+	}
+
+	/**
+	 * Gets the number of events of the given tag processed by the entities of the
+	 * given class.
+	 * 
+	 * @param type the class of the entities (not including its subclasses).
+	 * @param tag  the tag of the events.
+	 * @return the number of events.
+	 */
+	public long getEventsCount(Class<? extends SimEntity> type, int tag) {
+		ClassMetrics metrics = classes.get(type);
+		return metrics == null ? 0 : metrics.get(tag)[0];
+	}
+
+	/**
+	 * Gets the time spent processing the events of the given tag by the entities
+	 * of the given class.
+	 * 
+	 * @param type the class of the entities (not including its subclasses).
+	 * @param tag  the tag of the events.
+	 * @return the processing time, in nanoseconds.
+	 */
+	public long getProcessingTime(Class<? extends SimEntity> type, int tag) {
+		ClassMetrics metrics = classes.get(type);
+		return metrics == null ? 0 : metrics.get(tag)[1];
+	}
+
+	/**
+	 * Gets the time spent processing the events of each tag, whatever the class
+	 * of the entity that processed them.
+	 * 
+	 * @return the processing time in nanoseconds, per tag.
+	 */
+	public Map<Integer, Long> getProcessingTimePerTag() {
+		Map<Integer, Long> result = new TreeMap<>();
+		for (ClassMetrics metrics : classes.values())
+			metrics.forEach((tag, counters) -> result.merge(tag, counters[1], Long::sum));
+		return result;
+	}
+
+	/**
+	 * Gets the number of events processed per second of wall time, from the first
+	 * processed event to the last one.
+	 * 
+	 * @return the number of events per second.
+	 */
+	public double getEventsPerSecond() {
+		long duration = lastEventWallTime - firstEventWallTime;
+		return duration > 0 ? eventsCount * 1e9 / duration : 0;
+	}
+
+	/**
+	 * Gets the simulation times at which the queue depth has been sampled.
+	 * 
+	 * @return the times, in seconds.
+	 * @see #getQueueDepths()
+	 */
+	public double[] getQueueDepthTimes() {
+		return Arrays.copyOf(samplesTimes, samplesCount);
+	}
+
+	/**
+	 * Gets the sampled queue depths, i.e. the number of pending events.
+	 * 
+	 * @return the queue depths.
+	 * @see #getQueueDepthTimes()
+	 */
+	public int[] getQueueDepths() {
+		return Arrays.copyOf(samplesDepths, samplesCount);
+	}
+
+	/**
+	 * Gets the maximum number of pending events.
+	 * 
+	 * @return the maximum queue depth.
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Gets the histogram of the sizes of the batches of events that happen at the
+	 * same time: the element i is the number of batches whose size is in [2^i,
+	 * 2^(i+1)[.
+	 * 
+	 * @return the histogram.
+	 */
+	public long[] getBatchSizes() {
+		long[] histogram = batchSizes.clone();
+		if (batchSize > 0)
+			histogram[31 - Integer.numberOfLeadingZeros(batchSize)]++;
+		return histogram;
+	}
+
+	/**
+	 * Returns the metrics as CSV lines, with the following columns: metric,
+	 * entity class, tag, key (the simulation time of the queue depth samples, and
+	 * the minimum size of the batch sizes buckets), value.
+	 * 
+	 * @return the CSV lines, without header.
+	 */
+	public List<String> toCsv() {
+		List<String> lines = new ArrayList<>();
+		lines.add("Events,,,," + eventsCount);
+		lines.add("Events per second,,,," + getEventsPerSecond());
+		lines.add("Processing time (ms),,,," + processingTime / 1e6);
+		lines.add("Max queue depth,,,," + maxQueueDepth);
+
+		Map<String, ClassMetrics> sorted = new TreeMap<>();
+		for (ClassMetrics metrics : classes.values())
+			sorted.put(metrics.type.getName(), metrics);
+		for (ClassMetrics metrics : sorted.values())
+			metrics.forEach((tag, counters) -> {
+				lines.add("Events," + metrics.type.getName() + "," + tag + ",," + counters[0]);
+				lines.add("Processing time (ms)," + metrics.type.getName() + "," + tag + ",," + counters[1] / 1e6);
+			});
+
+		for (int i = 0; i < samplesCount; i++)
+			lines.add("Queue depth,,," + samplesTimes[i] + "," + samplesDepths[i]);
+
+		long[] histogram = getBatchSizes();
+		for (int i = 0; i < histogram.length; i++)
+			if (histogram[i] > 0)
+				lines.add("Batches,,," + (1L << i) + "," + histogram[i]);
+		return lines;
+	}
+
+	/**
+	 * The statistics of an entity class: the number of events and the processing
+	 * time of each tag.
+	 */
+	protected static class ClassMetrics implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final Class<?> type;
+		protected long[] counts = new long[8];
+		protected long[] times = new long[8];
+		protected final Map<Integer, long[]> otherTags = new TreeMap<>();
+
+		protected ClassMetrics(Class<?> type) {
+			this.type = type;
+		}
+
+		protected void add(int tag, long time) {
+			if (tag < 0 || tag >= MAX_INDEXED_TAG) {
+				long[] counters = otherTags.computeIfAbsent(tag, key -> new long[2]);
+				counters[0]++;
+				counters[1] += time;
+				return;
+			}
+			if (tag >= counts.length) {
+				int length = Math.min(MAX_INDEXED_TAG, Math.max(tag + 1, counts.length * 2));
+				counts = Arrays.copyOf(counts, length);
+				times = Arrays.copyOf(times, length);
+			}
+			counts[tag]++;
+			times[tag] += time;
+		}
+
+		protected long[] get(int tag) {
+			if (tag < 0 || tag >= MAX_INDEXED_TAG)
+				return otherTags.getOrDefault(tag, new long[2]);
+			return tag < counts.length ? new long[] { counts[tag], times[tag] } : new long[2];
+		}
+
+		protected void forEach(BiConsumer<Integer, long[]> action) {
+			Map<Integer, long[]> all = new TreeMap<>(otherTags);
+			for (int tag = 0; tag < counts.length; tag++)
+				if (counts[tag] > 0)
+					all.put(tag, new long[] { counts[tag], times[tag] });
+			all.forEach(action);
+		}
+	}
+
+}
@@ -3,41 +3,158 @@ package com.mechalikh.pureedgesim.simulationengine;
 import java.util.Objects;
 
 public class Event implements Comparable<Event>, QueueElement {
+	private static final long serialVersionUID = 1L;
+
 	double time;
+
+	/**
+	 * The time of this event in ticks of the simulation time base, on which the
+	 * events are compared.
+	 * 
+	 * @see TimeBase
+	 */
+	long ticks;
 	protected SimEntity simEntity;
 	protected int tag;
 	protected Object data;
 	protected long serial;
 
-	public Event(SimEntity simEntity, Double time, int tag) {
+	/**
+	 * Whether this event has been returned to the {@link EventPool}.
+	 */
+	boolean recycled;
+
+	/**
+	 * Whether this event is waiting in the simulation queue.
+	 */
+	boolean queued;
+
+	/**
+	 * Whether this event has been cancelled.
+	 * 
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	boolean cancelled;
+
+	/**
+	 * Whether this event waits in the zero-delay lane, or has been taken from the
+	 * events queue for the current instant (e.g. in a mailbox), rather than in the
+	 * events queue itself.
+	 * 
+	 * @see PureEdgeSim#compact()
+	 */
+	boolean taken;
+
+	/**
+	 * The number of times this event has been reused by the {@link EventPool}, to
+	 * tell a pending event from a stale reference to it.
+	 * 
+	 * @see PureEdgeSim#cancel(Event, int)
+	 */
+	int generation;
+
+	public Event(SimEntity simEntity, double time, int tag) {
+		this(simEntity, time, tag, null);
+	}
+
+	public Event(SimEntity simEntity, double time, int tag, Object data) {
 		this.simEntity = simEntity;
 		this.time = time;
+		this.ticks = TimeBase.EXACT.toTicks(time);
 		this.tag = tag;
+		this.data = data;
 	}
 
-	public Event(SimEntity simEntity, Double time, int tag, Object data) {
+	/**
+	 * Reinitializes a pooled event so it can be scheduled again.
+	 * 
+	 * @see EventPool#acquire(SimEntity, double, int, Object)
+	 */
+	Event init(SimEntity simEntity, double time, int tag, Object data) {
 		this.simEntity = simEntity;
 		this.time = time;
+		this.ticks = TimeBase.EXACT.toTicks(time);
 		this.tag = tag;
 		this.data = data;
+		this.serial = 0;
+		this.recycled = false;
+		this.queued = false;
+		this.cancelled = false;
+		this.taken = false;
+		this.generation++;
+		return this;
 	}
 
 	public int getTag() {
+		assert notRecycled();
 		return tag;
 	}
 
 	public double getTime() {
+		assert notRecycled();
 		return time;
 	}
 
+	/**
+	 * Gets the time of this event in ticks of the time base of the simulation.
+	 * 
+	 * @return the time in ticks.
+	 * @see PureEdgeSim#getTimeBase()
+	 */
+	public long getTicks() {
+		assert notRecycled();
+		return ticks;
+	}
+
 	public SimEntity getSimEntity() {
+		assert notRecycled();
 		return simEntity;
 	}
 
 	public Object getData() {
+		assert notRecycled();
 		return data;
 	}
 
+	/**
+	 * Checks whether this event has been cancelled. A cancelled event stays in the
+	 * queue but will never be processed.
+	 * 
+	 * @return true if the event has been cancelled.
+	 * @see SimEntity#cancel(Event)
+	 */
+	public boolean isCancelled() {
+		assert notRecycled();
+		return cancelled;
+	}
+
+	/**
+	 * Gets the generation of this event, which changes each time it is taken again
+	 * from the {@link EventPool}. It can be kept along with the event, to cancel it
+	 * later without the risk of cancelling another event if it has been processed
+	 * and reused in the meantime.
+	 * 
+	 * @return the generation of this event.
+	 * @see PureEdgeSim#cancel(Event, int)
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Debug guard (enabled with the -ea JVM option) that detects the use of an
+	 * event after it has been returned to the pool.
+	 * 
+	 * @return true if the event is still live.
+	 * @throws IllegalStateException if the event has been recycled.
+	 */
+	private boolean notRecycled() {
+		if (recycled)
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ " - Error, this event has already been processed and recycled. Do not keep references to pooled events.");
+		return true;
+	}
+
 	public void setSerial(long l) {
 		this.serial = l;
 	}
@@ -52,7 +169,7 @@ public class Event implements Comparable<Event>, QueueElement {
 			return 0;
 		}
 
-		int res = Double.compare(time, that.getTime());
+		int res = Long.compare(ticks, that.getTicks());
 		if (res != 0) {
 			return res;
 		}
@@ -67,13 +184,13 @@ public class Event implements Comparable<Event>, QueueElement {
 		if (obj == null || getClass() != obj.getClass())
 			return false;
 		final Event that = (Event) obj;
-		return Double.compare(that.getTime(), getTime()) == 0 && getTag() == that.getTag()
+		return that.getTicks() == getTicks() && getTag() == that.getTag()
 				&& getSerial() == that.getSerial();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(getTime(), getTag(), getSerial());
+		return Objects.hash(getTicks(), getTag(), getSerial());
 	}
 
 	public long getSerial() {
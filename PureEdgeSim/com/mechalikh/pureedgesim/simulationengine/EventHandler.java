@@ -0,0 +1,24 @@
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+
+/**
+ * A handler of the events of a given tag, registered by an entity using
+ * {@link SimEntity#setHandler(int, EventHandler)}. The events that have a
+ * handler are passed to it directly, with their data already cast, instead of
+ * going through {@link SimEntity#processEvent(Event)}.
+ * <p>
+ * The handlers are serializable, so that the entities that use them can be
+ * saved in the simulation checkpoints.
+ *
+ * @param <T> the type of the data of the events.
+ */
+@FunctionalInterface
+public interface EventHandler<T> extends Serializable {
+    /**
+     * Processes an event.
+     * 
+     * @param data the data of the event, can be null.
+     */
+	void handle(T data);
+}
@@ -0,0 +1,90 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of recyclable {@link Event} objects. When event pooling is enabled,
+ * the simulation entities get their events from this pool, and the simulation
+ * engine returns each event to it once it has been processed. This avoids
+ * allocating millions of short-lived objects in long simulations.
+ * <p>
+ * As a consequence, an event must not be used after it has been processed. It
+ * cannot be kept for later use (e.g. to be removed from the queue later), and
+ * its data must be copied if needed. When Java assertions are enabled (-ea),
+ * any access to a recycled event throws an {@link IllegalStateException}.
+ * 
+ * @see PureEdgeSim#PureEdgeSim(Queue, boolean)
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsPooling
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class EventPool implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The events that are available for reuse.
+	 */
+	protected final Deque<Event> freeEvents = new ArrayDeque<>();
+
+	/**
+	 * Gets an event from the pool, or creates a new one if the pool is empty.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param time      the time of the event.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event, can be null.
+	 * @return the event.
+	 */
+	public Event acquire(SimEntity simEntity, double time, int tag, Object data) {
+		Event event = freeEvents.poll();
+		if (event == null)
+			return new Event(simEntity, time, tag, data);
+		return event.init(simEntity, time, tag, data);
+	}
+
+	/**
+	 * Returns a processed event to the pool.
+	 * 
+	 * @param event the event to recycle.
+	 */
+	public void release(Event event) {
+		assert !event.recycled : getClass().getSimpleName() + " - Error, this event has already been recycled.";
+		event.recycled = true;
+		// Do not retain the data of the event
+		event.data = null;
+		freeEvents.push(event);
+	}
+
+	/**
+	 * Gets the number of events that are available for reuse.
+	 * 
+	 * @return the number of free events.
+	 */
+	public int size() {
+		return freeEvents.size();
+	}
+
+}
@@ -0,0 +1,295 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.CAPACITY_OFFSET;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.CLASSES_COUNT_OFFSET;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.COUNT_OFFSET;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.HEADER_SIZE;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.MAGIC;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.RECORDS_OFFSET;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.RECORD_SIZE;
+import static com.mechalikh.pureedgesim.simulationengine.EventTraceRecorder.VERSION;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a trace file written by the {@link EventTraceRecorder}, to replay or
+ * filter the recorded events offline, without running the simulation again.
+ * The records are read from the oldest to the most recent one. For example,
+ * the events of a given computing node are listed by:
+ *
+ * <pre>
+ * try (EventTraceReader trace = new EventTraceReader(fileName)) {
+ * 	trace.stream().filter(r -&gt; r.getEntityId() == 12 &amp;&amp; r.getEntityClass().endsWith("ComputingNode"))
+ * 			.forEach(System.out::println);
+ * }
+ * </pre>
+ *
+ * It can also be run from the command line, to print the records (optionally
+ * only those of the given entity class and tag) as CSV:
+ *
+ * <pre>
+ * java com.mechalikh.pureedgesim.simulationengine.EventTraceReader trace_file [entity_class [tag]]
+ * </pre>
+ *
+ * @see EventTraceRecorder
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class EventTraceReader implements Iterable<EventTraceReader.Record>, AutoCloseable {
+
+	protected final RandomAccessFile file;
+	protected final ByteBuffer buffer;
+
+	/**
+	 * The names of the entity classes, by index.
+	 */
+	protected final String[] classes;
+
+	protected final long capacity;
+	protected final long recordedCount;
+
+	/**
+	 * The number of records in the file, and the index of the oldest one.
+	 */
+	protected final int size;
+	protected final int first;
+
+	/**
+	 * Opens a trace file.
+	 *
+	 * @param fileName the path of the trace file.
+	 * @throws IOException if the file cannot be read, or is not a trace file.
+	 */
+	public EventTraceReader(String fileName) throws IOException {
+		file = new RandomAccessFile(fileName, "r");
+		try {
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			if (buffer.capacity() < RECORDS_OFFSET || buffer.getInt(0) != MAGIC)
+				throw new IOException(getClass().getSimpleName() + " - Error, this is not an event trace.");
+			if (buffer.getInt(4) != VERSION)
+				throw new IOException(getClass().getSimpleName() + " - Error, unsupported trace version: "
+						+ buffer.getInt(4) + ".");
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+
+		capacity = buffer.getLong(CAPACITY_OFFSET);
+		recordedCount = buffer.getLong(COUNT_OFFSET);
+		size = (int) Math.min(recordedCount, capacity);
+		first = (int) (recordedCount <= capacity ? 0 : recordedCount % capacity);
+
+		classes = new String[buffer.getInt(CLASSES_COUNT_OFFSET)];
+		int position = HEADER_SIZE;
+		for (int i = 0; i < classes.length; i++) {
+			byte[] name = new byte[buffer.getShort(position)];
+			for (int j = 0; j < name.length; j++)
+				name[j] = buffer.get(position + 2 + j);
+			classes[i] = new String(name, StandardCharsets.UTF_8);
+			position += 2 + name.length;
+		}
+	}
+
+	/**
+	 * Gets the number of records in the file.
+	 *
+	 * @return the number of records that can be read.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of events that have been recorded, including those that
+	 * have been overwritten once the file was full.
+	 *
+	 * @return the number of recorded events.
+	 */
+	public long getRecordedCount() {
+		return recordedCount;
+	}
+
+	/**
+	 * Reads a record.
+	 *
+	 * @param index the index of the record, 0 being the oldest one.
+	 * @return the record.
+	 */
+	public Record get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(getClass().getSimpleName() + " - Error, no record " + index + ".");
+		int position = RECORDS_OFFSET + (int) ((first + (long) index) % capacity) * RECORD_SIZE;
+		return new Record(buffer.getDouble(position), classes[buffer.getInt(position + 16)],
+				buffer.getInt(position + 20), buffer.getInt(position + 24), buffer.getInt(position + 28),
+				buffer.getLong(position + 8));
+	}
+
+	@Override
+	public Iterator<Record> iterator() {
+		return new Iterator<Record>() {
+			int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Record next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return get(next++);
+			}
+		};
+	}
+
+	/**
+	 * Gets the records, from the oldest to the most recent one.
+	 *
+	 * @return a sequential stream of the records.
+	 */
+	public Stream<Record> stream() {
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/**
+	 * Gets the records that match a filter.
+	 *
+	 * @param filter the filter.
+	 * @return a sequential stream of the matching records, in order.
+	 */
+	public Stream<Record> filter(Predicate<Record> filter) {
+		return stream().filter(filter);
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+	/**
+	 * Prints the records of a trace file as CSV.
+	 *
+	 * @param args the path of the trace file, optionally followed by the (simple
+	 *             or full) name of an entity class, and by a tag, to only print
+	 *             the matching records.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage: EventTraceReader trace_file [entity_class [tag]]");
+			return;
+		}
+		try (EventTraceReader trace = new EventTraceReader(args[0])) {
+			Predicate<Record> filter = record -> true;
+			if (args.length > 1)
+				filter = filter.and(record -> record.getEntityClass().equals(args[1])
+						|| record.getEntityClass().endsWith("." + args[1]));
+			if (args.length > 2) {
+				int tag = Integer.parseInt(args[2]);
+				filter = filter.and(record -> record.getTag() == tag);
+			}
+			System.out.println("Time,Entity class,Entity id,Partition,Tag,Payload id");
+			trace.filter(filter).forEach(System.out::println);
+		}
+	}
+
+	/**
+	 * A recorded event.
+	 */
+	public static class Record {
+		protected final double time;
+		protected final String entityClass;
+		protected final int entityId;
+		protected final int partition;
+		protected final int tag;
+		protected final long payloadId;
+
+		protected Record(double time, String entityClass, int entityId, int partition, int tag, long payloadId) {
+			this.time = time;
+			this.entityClass = entityClass;
+			this.entityId = entityId;
+			this.partition = partition;
+			this.tag = tag;
+			this.payloadId = payloadId;
+		}
+
+		public double getTime() {
+			return time;
+		}
+
+		/**
+		 * Gets the class of the entity that processed the event.
+		 *
+		 * @return the full name of the class.
+		 */
+		public String getEntityClass() {
+			return entityClass;
+		}
+
+		/**
+		 * Gets the id of the entity that processed the event, within its class.
+		 *
+		 * @return the id of the entity.
+		 * @see PureEdgeSim#getEntity(Class, int)
+		 */
+		public int getEntityId() {
+			return entityId;
+		}
+
+		public int getPartition() {
+			return partition;
+		}
+
+		public int getTag() {
+			return tag;
+		}
+
+		/**
+		 * Gets the id of the data of the event, e.g. the id of the task.
+		 *
+		 * @return the id, or -1 if the event has no data or the data has no id.
+		 */
+		public long getPayloadId() {
+			return payloadId;
+		}
+
+		@Override
+		public String toString() {
+			return time + "," + entityClass + "," + entityId + "," + partition + "," + tag + "," + payloadId;
+		}
+	}
+}
@@ -0,0 +1,255 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records the processed events in a binary trace file, to investigate a
+ * simulation afterwards without slowing it down the way the deep log does.
+ * Each event is written as a fixed-width record (time, entity class and id,
+ * partition, tag, and payload id) into a memory-mapped file, so recording an
+ * event costs a few memory writes: no string is formatted and no system call
+ * is made. The operating system writes the file to the disk in the
+ * background, even if the simulation crashes.
+ * <p>
+ * The file is a ring buffer: once it is full, the oldest records are
+ * overwritten, so that it keeps the last events before the end of the
+ * simulation (or before it went wrong). The trace is read offline using the
+ * {@link EventTraceReader}.
+ * <p>
+ * The events processed in parallel by the {@link ParallelPureEdgeSim} and
+ * {@link OptimisticPureEdgeSim} engines are recorded once committed, in the
+ * same order as the sequential engine. The recorder is not saved in the
+ * simulation checkpoints.
+ *
+ * @see PureEdgeSim#enableEventTrace(String, int)
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventTrace
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class EventTraceRecorder implements Closeable {
+
+	/**
+	 * The first bytes of a trace file, followed by the format version.
+	 */
+	protected static final int MAGIC = 0x50455354;
+	protected static final int VERSION = 1;
+
+	/**
+	 * The layout of the header: magic, version, capacity, number of recorded
+	 * events, number of entity classes, size of the classes table.
+	 */
+	protected static final int CAPACITY_OFFSET = 8;
+	protected static final int COUNT_OFFSET = 16;
+	protected static final int CLASSES_COUNT_OFFSET = 24;
+	protected static final int CLASSES_SIZE_OFFSET = 28;
+	protected static final int HEADER_SIZE = 64;
+
+	/**
+	 * The size of the table of the entity classes names, which follows the
+	 * header.
+	 */
+	protected static final int CLASSES_TABLE_SIZE = 64 * 1024;
+
+	/**
+	 * The offset of the first record.
+	 */
+	protected static final int RECORDS_OFFSET = HEADER_SIZE + CLASSES_TABLE_SIZE;
+
+	/**
+	 * The size of a record: time (8 bytes), payload id (8), entity class (4),
+	 * entity id (4), partition (4), and tag (4).
+	 */
+	protected static final int RECORD_SIZE = 32;
+
+	protected final RandomAccessFile file;
+	protected final MappedByteBuffer buffer;
+
+	/**
+	 * The maximum number of records in the file.
+	 */
+	protected final int capacity;
+
+	/**
+	 * The number of events recorded so far, including the overwritten ones.
+	 */
+	protected long count;
+
+	/**
+	 * The index of each entity class in the classes table.
+	 */
+	protected final Map<Class<?>, Integer> classes = new HashMap<>();
+	protected int classesSize;
+
+	/**
+	 * The last entity class, to avoid looking it up when it processes several
+	 * events in a row.
+	 */
+	protected Class<?> lastClass;
+	protected int lastClassIndex;
+
+	/**
+	 * Gives the id of the data of an event, e.g. the id of a task.
+	 */
+	protected ToLongFunction<Object> payloadIds = EventTraceRecorder::defaultPayloadId;
+
+	/**
+	 * Creates the trace file, replacing it if it exists.
+	 *
+	 * @param fileName the path of the trace file.
+	 * @param capacity the maximum number of records, at 32 bytes each.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public EventTraceRecorder(String fileName, int capacity) throws IOException {
+		if (capacity <= 0 || capacity > (Integer.MAX_VALUE - RECORDS_OFFSET) / RECORD_SIZE)
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ " - Error, the capacity must be > 0 and < " + (Integer.MAX_VALUE - RECORDS_OFFSET) / RECORD_SIZE
+					+ " records.");
+		this.capacity = capacity;
+
+		file = new RandomAccessFile(fileName, "rw");
+		try {
+			int size = RECORDS_OFFSET + capacity * RECORD_SIZE;
+			file.setLength(0);
+			file.setLength(size);
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putLong(CAPACITY_OFFSET, capacity);
+	}
+
+	/**
+	 * Sets how the id of the data of an event is obtained. By default, it is the
+	 * id of the entities and the value of the numbers, and -1 for any other data.
+	 *
+	 * @param payloadIds the function that gives the id of the data of an event,
+	 *                   which is never null.
+	 */
+	public void setPayloadIds(ToLongFunction<Object> payloadIds) {
+		this.payloadIds = payloadIds;
+	}
+
+	/**
+	 * Records a processed event. Called by the simulation engine.
+	 *
+	 * @param event the event, before it is recycled.
+	 */
+	public void record(Event event) {
+		SimEntity entity = event.getSimEntity();
+		Object data = event.getData();
+
+		int position = RECORDS_OFFSET + (int) (count % capacity) * RECORD_SIZE;
+		buffer.putDouble(position, event.getTime());
+		buffer.putLong(position + 8, data == null ? -1 : payloadIds.applyAsLong(data));
+		buffer.putInt(position + 16, getClassIndex(entity.getClass()));
+		buffer.putInt(position + 20, entity.getId());
+		buffer.putInt(position + 24, entity.getPartition());
+		buffer.putInt(position + 28, event.getTag());
+		buffer.putLong(COUNT_OFFSET, ++count);
+	}
+
+	/**
+	 * Gets the index of an entity class, adding it to the classes table if
+	 * needed.
+	 *
+	 * @param type the entity class.
+	 * @return its index.
+	 */
+	protected int getClassIndex(Class<?> type) {
+		if (type == lastClass)
+			return lastClassIndex;
+
+		Integer index = classes.get(type);
+		if (index == null) {
+			byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+			if (classesSize + 2 + name.length > CLASSES_TABLE_SIZE)
+				throw new IllegalStateException(
+						getClass().getSimpleName() + " - Error, too many entity classes to record.");
+			buffer.putShort(HEADER_SIZE + classesSize, (short) name.length);
+			for (int i = 0; i < name.length; i++)
+				buffer.put(HEADER_SIZE + classesSize + 2 + i, name[i]);
+			classesSize += 2 + name.length;
+			index = classes.size();
+			classes.put(type, index);
+			buffer.putInt(CLASSES_SIZE_OFFSET, classesSize);
+			buffer.putInt(CLASSES_COUNT_OFFSET, classes.size());
+		}
+		lastClass = type;
+		lastClassIndex = index;
+		return index;
+	}
+
+	/**
+	 * Gets the number of events recorded so far, including those that have been
+	 * overwritten.
+	 *
+	 * @return the number of recorded events.
+	 */
+	public long getRecordsCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the maximum number of records in the file.
+	 *
+	 * @return the capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Writes the records to the disk and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		file.close();
+	}
+
+	/**
+	 * The default id of the data of an event.
+	 *
+	 * @param data the data.
+	 * @return the id of the entities, the value of the numbers, -1 otherwise.
+	 */
+	protected static long defaultPayloadId(Object data) {
+		if (data instanceof SimEntity)
+			return ((SimEntity) data).getId();
+		if (data instanceof Number)
+			return ((Number) data).longValue();
+		return -1;
+	}
+}
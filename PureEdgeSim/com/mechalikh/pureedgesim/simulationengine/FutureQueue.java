@@ -10,7 +10,7 @@ package com.mechalikh.pureedgesim.simulationengine;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.SortedSet;
+import java.util.NavigableSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
 
@@ -25,11 +25,12 @@ import java.util.stream.Stream;
  * @since PureEdgeSim 5.0
  */
 public class FutureQueue<T extends QueueElement> implements Queue<T> {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The sorted set of QueueElements.
 	 */
-	protected final SortedSet<T> sortedSet = new TreeSet<>();
+	protected final NavigableSet<T> sortedSet = new TreeSet<>();
 
 	protected long serial;
 
@@ -45,11 +46,7 @@ public class FutureQueue<T extends QueueElement> implements Queue<T> {
 		maxTsNumber = Math.max(maxTsNumber, sortedSet.size());
 	}
 
-	/**
-	 * Adds a new item to the head of the queue.
-	 *
-	 * @param item The element to be put in the queue.
-	 */
+	@Override
 	public void addFirst(final T item) {
 		item.setSerial(--lowestSerial);
 		sortedSet.add(item);
@@ -75,12 +72,7 @@ public class FutureQueue<T extends QueueElement> implements Queue<T> {
 		return sortedSet.isEmpty();
 	}
 
-	/**
-	 * Removes an item from the queue.
-	 *
-	 * @param queueElement the element to remove
-	 * @return true if successful; false if not queueElement was removed
-	 */
+	@Override
 	public boolean remove(final T queueElement) {
 		return sortedSet.remove(queueElement);
 	}
@@ -90,4 +82,19 @@ public class FutureQueue<T extends QueueElement> implements Queue<T> {
 		return sortedSet.first();
 	}
 
+	@Override
+	public T pollFirst() {
+		return sortedSet.pollFirst();
+	}
+
+	/**
+	 * Returns the maximum number of elements that have been stored at the same
+	 * time in this queue.
+	 *
+	 * @return the maximum size reached by the queue.
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
 }
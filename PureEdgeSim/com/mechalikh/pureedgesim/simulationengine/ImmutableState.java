@@ -0,0 +1,11 @@
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * A marker interface for the classes whose instances never change once they
+ * have been created, e.g. the locations. When a simulation is forked, such
+ * objects are shared by all the forks instead of being copied.
+ * 
+ * @see SimulationFork
+ */
+public interface ImmutableState {
+}
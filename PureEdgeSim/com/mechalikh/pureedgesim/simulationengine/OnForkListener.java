@@ -0,0 +1,16 @@
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * An interface to listen for events when the simulation is forked.
+ * 
+ * @see SimulationFork
+ */
+public interface OnForkListener {
+    /**
+     * Called on the copy of the entity that belongs to a new fork, before the
+     * fork is returned, e.g. to make the fork save its results in its own files.
+     * 
+     * @param index the index of the fork, from 0 to the number of forks - 1.
+     */
+    void onFork(int index);
+}
@@ -0,0 +1,13 @@
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * An interface to listen for the periodic ticks of a {@link TickService}.
+ * 
+ * @see PureEdgeSim#addTickListener(OnTickListener, double, int)
+ */
+public interface OnTickListener {
+    /**
+     * Called at each tick, i.e. every interval of simulation time.
+     */ 
+	void onTick();
+}
@@ -0,0 +1,688 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
+
+/**
+ * An experimental optimistic (Time Warp) version of the parallel engine, for
+ * scenarios where the latency between partitions is too small for the
+ * conservative {@link ParallelPureEdgeSim} engine to find any parallelism.
+ * <p>
+ * As in the conservative engine, the simulation advances by windows that are
+ * closed by the first event that cannot be processed by a partition. But here,
+ * the window has a fixed width, and partitions may schedule events for each
+ * other within the window. Each partition processes its events as far as it
+ * can, saving the state of the entity before each event (incremental state
+ * saving, see {@link StateSavingEntity}). When a partition receives an event
+ * in its past (a straggler), it rolls back: it restores the saved states, and
+ * sends anti-messages to cancel the events that the rolled back events had
+ * sent to other partitions. The partitions then process again the events that
+ * have been rolled back.
+ * <p>
+ * Messages are exchanged between rounds, and after each round the global
+ * virtual time (GVT), i.e. the smallest time to which a partition may still
+ * roll back, is computed. The saved states of the events before the GVT are
+ * released (fossil collection). The window ends when no partition has events
+ * left to process and no message is in transit. The processing logs are then
+ * merged in the sequential order, as in the conservative engine.
+ * <p>
+ * To give the same results as the sequential engine, the events are ordered by
+ * a key that reproduces the sequential order: the time of the event, then the
+ * serial of the event for the events that were already in the queue, or the key
+ * of the event that created it for the others.
+ * <p>
+ * Only the partition-local events of entities that implement
+ * {@link StateSavingEntity} are processed optimistically. Their processing
+ * must only modify the state saved by their entity.
+ * 
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#parallelEngineMode
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#optimisticWindow
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class OptimisticPureEdgeSim extends ParallelPureEdgeSim {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The types of the actions recorded for each processed event.
+	 */
+	protected static final int LOCAL = 0;
+	protected static final int CROSS = 1;
+	protected static final int EXTERNAL = 2;
+	protected static final int CANCELLED = 3;
+
+	/**
+	 * The width of the windows, in seconds.
+	 */
+	protected final double windowSize;
+
+	/**
+	 * The partitions, by id.
+	 */
+	protected transient Map<Integer, TimeWarpProcess> processes = new HashMap<>();
+
+	/**
+	 * The partition run by the current thread.
+	 */
+	protected transient ThreadLocal<TimeWarpProcess> currentProcess = new ThreadLocal<>();
+
+	/**
+	 * The global virtual time of the current window.
+	 */
+	protected double gvt;
+
+	/**
+	 * Statistics: the number of rollbacks and of rolled back events.
+	 */
+	protected long rollbacks;
+	protected long rolledBackEvents;
+
+	/**
+	 * Creates an optimistic parallel simulation engine. The future events queue is
+	 * selected using the "events_queue" parameter.
+	 * 
+	 * @param threads    the number of threads used to process the partitions.
+	 * @param windowSize the width of the windows, in seconds.
+	 */
+	public OptimisticPureEdgeSim(int threads, double windowSize) {
+		this(SimulationConfiguration.fromParameters(), threads, windowSize);
+	}
+
+	/**
+	 * Creates an optimistic parallel simulation engine. The future events queue is
+	 * selected using the "events_queue" parameter of the given configuration.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * @param threads       the number of threads used to process the partitions.
+	 * @param windowSize    the width of the windows, in seconds.
+	 */
+	public OptimisticPureEdgeSim(SimulationConfiguration configuration, int threads, double windowSize) {
+		this(configuration, newEventsQueue(configuration), threads, windowSize);
+	}
+
+	/**
+	 * Creates an optimistic parallel simulation engine that uses the given future
+	 * events queue.
+	 * 
+	 * @param events     the (empty) queue in which the future events will be
+	 *                   stored.
+	 * @param threads    the number of threads used to process the partitions.
+	 * @param windowSize the width of the windows, in seconds.
+	 */
+	public OptimisticPureEdgeSim(Queue<Event> events, int threads, double windowSize) {
+		this(SimulationConfiguration.fromParameters(), events, threads, windowSize);
+	}
+
+	/**
+	 * Creates an optimistic parallel simulation engine that uses the given future
+	 * events queue.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * @param events        the (empty) queue in which the future events will be
+	 *                      stored.
+	 * @param threads       the number of threads used to process the partitions.
+	 * @param windowSize    the width of the windows, in seconds.
+	 */
+	public OptimisticPureEdgeSim(SimulationConfiguration configuration, Queue<Event> events, int threads,
+			double windowSize) {
+		super(configuration, events, threads);
+		if (windowSize <= 0)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the window size must be > 0.");
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Gets the number of rollbacks since the beginning of the simulation.
+	 * 
+	 * @return the number of rollbacks.
+	 */
+	public long getRollbacksCount() {
+		return rollbacks;
+	}
+
+	/**
+	 * Gets the number of events that have been rolled back since the beginning of
+	 * the simulation.
+	 * 
+	 * @return the number of rolled back events.
+	 */
+	public long getRolledBackEventsCount() {
+		return rolledBackEvents;
+	}
+
+	/**
+	 * Restores the engine from a checkpoint. The partitions only hold the events
+	 * and the history of the current window, so they are created again.
+	 *
+	 * @see SimulationCheckpoint
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		processes = new HashMap<>();
+		currentProcess = new ThreadLocal<>();
+	}
+
+	@Override
+	public double clock() {
+		if (windowRunning) {
+			TimeWarpProcess process = currentProcess.get();
+			if (process != null)
+				return process.clock;
+		}
+		return time;
+	}
+
+	@Override
+	protected boolean isPartitionLocal(Event event) {
+		return event.getSimEntity() instanceof StateSavingEntity && super.isPartitionLocal(event);
+	}
+
+	@Override
+	protected void processWindow(final double until) {
+		windowStart = events.first().getTime();
+		final double horizon = windowStart + windowSize;
+		List<TimeWarpProcess> active = new ArrayList<>();
+
+		while (!events.isEmpty()) {
+			Event evt = events.first();
+			if (evt.cancelled) {
+				discard(events.pollFirst());
+				continue;
+			}
+			if (evt.getTime() > until || (evt.getTime() != windowStart && evt.getTime() >= horizon)
+					|| !isPartitionLocal(evt))
+				break;
+
+			events.pollFirst();
+			TimeWarpProcess process = getProcess(evt.getSimEntity().getPartition(), active);
+			process.receive(new Node(evt, key(evt.getTime(), evt.getSerial())));
+		}
+
+		boundaryTime = Math.min(events.isEmpty() ? Double.POSITIVE_INFINITY : events.first().getTime(),
+				Math.nextUp(until));
+		windowEnd = Math.min(horizon, boundaryTime);
+		windowSerial = 0;
+
+		windowRunning = true;
+		try {
+			List<TimeWarpProcess> ready = new ArrayList<>(active);
+			while (!ready.isEmpty()) {
+				runAll(ready);
+				deliverMessages(active);
+				collectFossils(active);
+
+				ready.clear();
+				for (TimeWarpProcess process : active)
+					if (!process.pending.isEmpty() || !process.antiMessages.isEmpty())
+						ready.add(process);
+			}
+		} finally {
+			windowRunning = false;
+		}
+
+		mergeHistories(active);
+	}
+
+	/**
+	 * Processes the pending events of the given partitions, in parallel.
+	 * 
+	 * @param ready the partitions that have pending events.
+	 */
+	protected void runAll(List<TimeWarpProcess> ready) {
+		if (ready.size() == 1)
+			run(ready.get(0));
+		else
+			getPool().submit(() -> ready.parallelStream().forEach(this::run)).join();
+	}
+
+	/**
+	 * Processes the pending events of a partition, in order, saving the state of
+	 * each entity before processing its event.
+	 * 
+	 * @param process the partition.
+	 */
+	protected void run(TimeWarpProcess process) {
+		currentProcess.set(process);
+		try {
+			Node node;
+			while ((node = process.pending.pollFirst()) != null) {
+				Event evt = node.event;
+				evt.queued = false;
+				if (evt.cancelled)
+					continue;
+
+				process.clock = evt.getTime();
+				process.current = new Entry(node, ((StateSavingEntity) evt.getSimEntity()).saveState());
+				process.history.add(process.current);
+				node.processed = true;
+				evt.getSimEntity().dispatch(evt);
+			}
+		} finally {
+			process.current = null;
+			currentProcess.remove();
+		}
+	}
+
+	/**
+	 * Delivers the anti-messages and the messages sent during the last round,
+	 * rolling back the partitions that receive stragglers.
+	 * 
+	 * @param active the partitions of the window.
+	 */
+	protected void deliverMessages(List<TimeWarpProcess> active) {
+		List<Node> messages = new ArrayList<>();
+		List<Node> antiMessages = new ArrayList<>();
+		for (TimeWarpProcess process : active) {
+			messages.addAll(process.outbox);
+			process.outbox.clear();
+			antiMessages.addAll(process.antiMessages);
+			process.antiMessages.clear();
+		}
+
+		// The anti-messages go first, as a message that is sent again after a
+		// rollback has the same key as the one it replaces
+		for (Node node : antiMessages) {
+			TimeWarpProcess target = processes.get(node.event.getSimEntity().getPartition());
+			node.annihilated = true;
+			if (node.processed)
+				rollback(target, node.key);
+			target.pending.remove(node);
+			target.nodes.remove(node.event);
+			node.event.queued = false;
+		}
+
+		for (Node node : messages) {
+			TimeWarpProcess target = getProcess(node.event.getSimEntity().getPartition(), active);
+			if (!target.history.isEmpty() && compare(node.key, target.lastKey()) < 0)
+				rollback(target, node.key);
+			target.receive(node);
+		}
+	}
+
+	/**
+	 * Rolls back a partition: undoes all the processed events whose key is not
+	 * lower than the given one, in reverse order.
+	 * 
+	 * @param process the partition.
+	 * @param key     the key of the straggler.
+	 */
+	protected void rollback(TimeWarpProcess process, long[] key) {
+		rollbacks++;
+		while (!process.history.isEmpty() && compare(process.lastKey(), key) >= 0) {
+			Entry entry = process.history.remove(process.history.size() - 1);
+			if (entry.collected)
+				throw new IllegalStateException(getClass().getSimpleName()
+						+ " - Error, cannot roll back an event that happened before the global virtual time.");
+			rolledBackEvents++;
+
+			((StateSavingEntity) entry.node.event.getSimEntity()).restoreState(entry.state);
+			for (int i = entry.size - 1; i >= 0; i--)
+				undo(process, entry.types[i], entry.events[i], entry.nodes[i]);
+
+			entry.node.processed = false;
+			if (!entry.node.annihilated) {
+				entry.node.event.queued = true;
+				process.pending.add(entry.node);
+			}
+		}
+	}
+
+	/**
+	 * Undoes an action of a rolled back event.
+	 */
+	protected void undo(TimeWarpProcess process, int type, Event event, Node node) {
+		switch (type) {
+		case LOCAL:
+			node.annihilated = true;
+			process.pending.remove(node);
+			process.nodes.remove(event);
+			event.queued = false;
+			break;
+		case CROSS:
+			process.antiMessages.add(node);
+			break;
+		case EXTERNAL:
+			event.queued = false;
+			break;
+		case CANCELLED:
+			event.cancelled = false;
+			if (node != null && !node.annihilated && !node.processed && !process.pending.contains(node)) {
+				event.queued = true;
+				process.pending.add(node);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Computes the global virtual time, and releases the saved states of the
+	 * events that happened before it, as they can no longer be rolled back.
+	 * 
+	 * @param active the partitions of the window.
+	 */
+	protected void collectFossils(List<TimeWarpProcess> active) {
+		gvt = windowEnd;
+		for (TimeWarpProcess process : active) {
+			if (!process.pending.isEmpty())
+				gvt = Math.min(gvt, process.pending.first().event.getTime());
+			for (Node node : process.antiMessages)
+				gvt = Math.min(gvt, node.event.getTime());
+		}
+
+		for (TimeWarpProcess process : active) {
+			while (process.collected < process.history.size()
+					&& process.history.get(process.collected).node.event.getTime() < gvt) {
+				Entry entry = process.history.get(process.collected++);
+				entry.state = null;
+				entry.collected = true;
+			}
+		}
+	}
+
+	/**
+	 * Merges the histories of the partitions in the sequential order, inserting
+	 * the events scheduled after the window into the queue in that order.
+	 * 
+	 * @param active the partitions of the window.
+	 */
+	protected void mergeHistories(List<TimeWarpProcess> active) {
+		PriorityQueue<TimeWarpProcess> heads = new PriorityQueue<>(Math.max(1, active.size()),
+				(a, b) -> compare(a.head().node.key, b.head().node.key));
+		for (TimeWarpProcess process : active) {
+			process.cursor = 0;
+			if (!process.history.isEmpty())
+				heads.add(process);
+		}
+
+		while (!heads.isEmpty()) {
+			TimeWarpProcess process = heads.poll();
+			Entry entry = process.head();
+			time = entry.node.event.getTime();
+			if (eventTrace != null)
+				eventTrace.record(entry.node.event);
+			if (metrics != null)
+				metrics.eventProcessed(entry.node.event, 0, events.size());
+			for (int i = 0; i < entry.size; i++) {
+				if (entry.types[i] == LOCAL || entry.types[i] == CROSS)
+					entry.events[i].setSerial(WINDOW_SERIAL + (++windowSerial));
+				else if (entry.types[i] == EXTERNAL)
+					events.add(entry.events[i]);
+				else if (entry.types[i] == CANCELLED && entry.events[i].queued && entry.nodes[i] == null)
+					countCancelled(entry.events[i]);
+			}
+			if (++process.cursor < process.history.size())
+				heads.add(process);
+		}
+
+		for (TimeWarpProcess process : active)
+			process.clear();
+		compactIfNeeded();
+	}
+
+	@Override
+	void insert(Event event) {
+		TimeWarpProcess process = windowRunning ? currentProcess.get() : null;
+		if (process == null) {
+			super.insert(event);
+			return;
+		}
+
+		Entry entry = process.current;
+		event.queued = true;
+		if (!isInWindow(event.getTime())) {
+			entry.log(EXTERNAL, event, null);
+			return;
+		}
+
+		checkOptimistic(event, process);
+		Node node = new Node(event, childKey(entry.node.key, event.getTime(), ++entry.children));
+		if (event.getSimEntity().getPartition() == process.id) {
+			process.receive(node);
+			entry.log(LOCAL, event, node);
+		} else {
+			process.outbox.add(node);
+			entry.log(CROSS, event, node);
+		}
+	}
+
+	@Override
+	public void insertFirst(Event event) {
+		TimeWarpProcess process = windowRunning ? currentProcess.get() : null;
+		if (process == null) {
+			super.insertFirst(event);
+			return;
+		}
+
+		if (event.getTime() != process.clock || event.getSimEntity().getPartition() != process.id)
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ " - Error, events can only be inserted first for the same partition and at the current time during a parallel window.");
+		checkOptimistic(event, process);
+
+		Entry entry = process.current;
+		event.queued = true;
+		Node node = new Node(event, laneKey(entry.node.key, ++entry.laneChildren));
+		process.receive(node);
+		entry.log(LOCAL, event, node);
+	}
+
+	@Override
+	public boolean cancel(Event event) {
+		TimeWarpProcess process = windowRunning ? currentProcess.get() : null;
+		if (process == null)
+			return super.cancel(event);
+
+		if (!isPending(event))
+			return false;
+		if (event.getSimEntity().getPartition() != process.id)
+			throw new IllegalStateException(getClass().getSimpleName() + " - Error, partition " + process.id
+					+ " cannot cancel an event of partition " + event.getSimEntity().getPartition()
+					+ " during a parallel window.");
+
+		event.cancelled = true;
+		process.current.log(CANCELLED, event, process.nodes.get(event));
+		return true;
+	}
+
+	/**
+	 * Checks that an event that falls within the current window can be processed
+	 * optimistically.
+	 * 
+	 * @param event   the event.
+	 * @param process the partition that scheduled it.
+	 * @throws IllegalStateException if the event cannot be rolled back.
+	 */
+	protected void checkOptimistic(Event event, TimeWarpProcess process) {
+		if (!isPartitionLocal(event))
+			throw new IllegalStateException(String.format(
+					"%s - Error, partition %d scheduled event (tag %d) for %s (partition %d) at %.6f, within the current window. Only partition-local events of entities that implement StateSavingEntity can be scheduled before the end of the window.",
+					getClass().getSimpleName(), process.id, event.getTag(),
+					event.getSimEntity().getClass().getSimpleName(), event.getSimEntity().getPartition(),
+					event.getTime()));
+	}
+
+	/**
+	 * Gets the partition with the given id, and adds it to the active ones if
+	 * needed.
+	 */
+	protected TimeWarpProcess getProcess(int partition, List<TimeWarpProcess> active) {
+		TimeWarpProcess process = processes.computeIfAbsent(partition, TimeWarpProcess::new);
+		if (!process.active) {
+			process.active = true;
+			active.add(process);
+		}
+		return process;
+	}
+
+	/**
+	 * The key of an event that was in the queue when the window started.
+	 */
+	protected static long[] key(double time, long serial) {
+		return new long[] { Double.doubleToLongBits(time), 0, serial };
+	}
+
+	/**
+	 * The key of an event scheduled by the event with the given key: it comes
+	 * after all the events of the same time that existed before, in the order of
+	 * the events that created them.
+	 */
+	protected static long[] childKey(long[] parent, double time, int index) {
+		long[] key = new long[parent.length + 3];
+		key[0] = Double.doubleToLongBits(time);
+		key[1] = 1;
+		System.arraycopy(parent, 0, key, 2, parent.length);
+		key[key.length - 1] = index;
+		return key;
+	}
+
+	/**
+	 * The key of a zero-delay event scheduled by the event with the given key: it
+	 * comes right after its parent, the last one first, and before the events of
+	 * the same time that its parent scheduled through the queue, as with
+	 * {@link #insertFirst(Event)}.
+	 */
+	protected static long[] laneKey(long[] parent, int index) {
+		long[] key = Arrays.copyOf(parent, parent.length + 1);
+		key[parent.length] = Long.MAX_VALUE - index;
+		return key;
+	}
+
+	/**
+	 * Compares two keys lexicographically.
+	 */
+	protected static int compare(long[] a, long[] b) {
+		int length = Math.min(a.length, b.length);
+		for (int i = 0; i < length; i++) {
+			if (a[i] != b[i])
+				return Long.compare(a[i], b[i]);
+		}
+		return Integer.compare(a.length, b.length);
+	}
+
+	/**
+	 * An event within the window, with its ordering key.
+	 */
+	protected static class Node {
+		protected final Event event;
+		protected final long[] key;
+		protected boolean processed;
+		protected boolean annihilated;
+
+		protected Node(Event event, long[] key) {
+			this.event = event;
+			this.key = key;
+		}
+	}
+
+	/**
+	 * A processed event: the saved state of its entity, and the events it has
+	 * scheduled or cancelled.
+	 */
+	protected static class Entry {
+		protected final Node node;
+		protected Object state;
+		protected boolean collected;
+		protected int children;
+		protected int laneChildren;
+		protected int size;
+		protected int[] types = new int[4];
+		protected Event[] events = new Event[4];
+		protected Node[] nodes = new Node[4];
+
+		protected Entry(Node node, Object state) {
+			this.node = node;
+			this.state = state;
+		}
+
+		protected void log(int type, Event event, Node node) {
+			if (size == types.length) {
+				types = Arrays.copyOf(types, size * 2);
+				events = Arrays.copyOf(events, size * 2);
+				nodes = Arrays.copyOf(nodes, size * 2);
+			}
+			types[size] = type;
+			events[size] = event;
+			nodes[size++] = node;
+		}
+	}
+
+	/**
+	 * A logical process of the optimistic engine.
+	 */
+	protected static class TimeWarpProcess {
+		protected final int id;
+		protected final TreeSet<Node> pending = new TreeSet<>((a, b) -> compare(a.key, b.key));
+		protected final List<Entry> history = new ArrayList<>();
+		protected final List<Node> outbox = new ArrayList<>();
+		protected final List<Node> antiMessages = new ArrayList<>();
+		protected final Map<Event, Node> nodes = new IdentityHashMap<>();
+		protected Entry current;
+		protected double clock;
+		protected int collected;
+		protected int cursor;
+		protected boolean active;
+
+		protected TimeWarpProcess(int id) {
+			this.id = id;
+		}
+
+		protected void receive(Node node) {
+			node.event.queued = true;
+			pending.add(node);
+			nodes.put(node.event, node);
+		}
+
+		protected long[] lastKey() {
+			return history.get(history.size() - 1).node.key;
+		}
+
+		protected Entry head() {
+			return history.get(cursor);
+		}
+
+		protected void clear() {
+			pending.clear();
+			history.clear();
+			outbox.clear();
+			antiMessages.clear();
+			nodes.clear();
+			collected = 0;
+			cursor = 0;
+			active = false;
+		}
+	}
+
+}
@@ -0,0 +1,570 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
+
+/**
+ * A conservative parallel version of the {@link PureEdgeSim} engine. The
+ * simulation entities are divided into logical processes (partitions, see
+ * {@link SimEntity#getPartition()}), e.g. one per edge data center coverage
+ * area, and the events that only concern a single partition are processed in
+ * parallel.
+ * <p>
+ * The engine uses synchronous time windows (YAWNS). Each window starts at the
+ * time T of the first event in the queue and ends at T + lookahead, where the
+ * lookahead is the minimum delay of any interaction between two partitions
+ * (e.g. the minimum latency of the network links that cross partition
+ * boundaries). The window is also closed by the first event that is not
+ * partition-local (see {@link SimEntity#isPartitionLocal(Event)}), so the
+ * global entities (the simulation manager, the network model, the
+ * orchestrator...) always see the same state as in a sequential run. Within a
+ * window, each partition processes its events on its own thread, with its own
+ * clock, and the events it schedules for itself are processed in the same
+ * window. The events scheduled for other partitions or for global entities are
+ * buffered until the end of the window.
+ * <p>
+ * Once all partitions have finished, their processing logs are merged in the
+ * order the sequential engine would have followed, and the buffered events are
+ * inserted into the queue in that order. The simulation therefore produces the
+ * same results as the sequential engine, given the same seeds. If an entity
+ * breaks this contract (e.g. it schedules an event for another partition
+ * within the lookahead, or a non partition-local event inside the window), an
+ * {@link IllegalStateException} is thrown.
+ * <p>
+ * Event pooling is not supported by this engine.
+ * 
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#parallelEngineThreads
+ * @see com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager#assignPartitions()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class ParallelPureEdgeSim extends PureEdgeSim {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The types of the actions recorded by the logical processes.
+	 */
+	protected static final int PROCESS = 0;
+	protected static final int INSERT_LOCAL = 1;
+	protected static final int INSERT_FIRST = 2;
+	protected static final int INSERT_EXTERNAL = 3;
+	protected static final int CANCEL = 4;
+
+	/**
+	 * The serials of the events that are created and processed within a window
+	 * start from this value, so they always come after the events that were
+	 * already in the queue.
+	 */
+	protected static final long WINDOW_SERIAL = Long.MAX_VALUE / 2;
+
+	/**
+	 * The serial of zero-delay events created within a window, which are always
+	 * processed right after the event that scheduled them.
+	 */
+	protected static final long LANE_SERIAL = Long.MIN_VALUE;
+
+	/**
+	 * The number of threads used to process the partitions.
+	 */
+	protected final int threads;
+
+	/**
+	 * The thread pool, created when the first parallel window is processed.
+	 */
+	protected transient ForkJoinPool pool;
+
+	/**
+	 * The minimum delay between an event and any event it schedules for another
+	 * partition.
+	 */
+	protected double lookahead = Double.MAX_VALUE;
+
+	/**
+	 * The logical processes, by partition.
+	 */
+	protected transient Map<Integer, LogicalProcess> logicalProcesses = new HashMap<>();
+
+	/**
+	 * The logical process run by the current thread.
+	 */
+	protected transient ThreadLocal<LogicalProcess> currentLogicalProcess = new ThreadLocal<>();
+
+	/**
+	 * Whether a window is currently being processed by the logical processes.
+	 */
+	protected boolean windowRunning;
+
+	/**
+	 * The time of the first event of the current window.
+	 */
+	protected double windowStart;
+
+	/**
+	 * The time before which the events scheduled within the current window are
+	 * processed in it.
+	 */
+	protected double windowEnd;
+
+	/**
+	 * The time of the first event left in the queue after the current window.
+	 */
+	protected double boundaryTime;
+
+	/**
+	 * Used to give the events created within the current window their serial, in
+	 * the sequential order.
+	 */
+	protected long windowSerial;
+
+	/**
+	 * Creates a parallel simulation engine. The future events queue is selected
+	 * using the "events_queue" parameter.
+	 * 
+	 * @param threads the number of threads used to process the partitions.
+	 */
+	public ParallelPureEdgeSim(int threads) {
+		this(SimulationConfiguration.fromParameters(), threads);
+	}
+
+	/**
+	 * Creates a parallel simulation engine. The future events queue is selected
+	 * using the "events_queue" parameter of the given configuration.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * @param threads       the number of threads used to process the partitions.
+	 */
+	public ParallelPureEdgeSim(SimulationConfiguration configuration, int threads) {
+		this(configuration, newEventsQueue(configuration), threads);
+	}
+
+	/**
+	 * Creates a parallel simulation engine that uses the given future events
+	 * queue.
+	 * 
+	 * @param events  the (empty) queue in which the future events will be stored.
+	 * @param threads the number of threads used to process the partitions.
+	 */
+	public ParallelPureEdgeSim(Queue<Event> events, int threads) {
+		this(SimulationConfiguration.fromParameters(), events, threads);
+	}
+
+	/**
+	 * Creates a parallel simulation engine that uses the given future events
+	 * queue.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * @param events        the (empty) queue in which the future events will be
+	 *                      stored.
+	 * @param threads       the number of threads used to process the partitions.
+	 */
+	public ParallelPureEdgeSim(SimulationConfiguration configuration, Queue<Event> events, int threads) {
+		super(configuration, events, false);
+		if (threads < 1)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the number of threads must be >= 1.");
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the lookahead, i.e. the minimum delay between an event and any event it
+	 * schedules for another partition.
+	 * 
+	 * @param lookahead the lookahead in seconds.
+	 */
+	public void setLookahead(double lookahead) {
+		if (lookahead < 0)
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the lookahead must be >= 0.");
+		this.lookahead = lookahead;
+	}
+
+	/**
+	 * Gets the lookahead.
+	 * 
+	 * @return the lookahead in seconds.
+	 */
+	public double getLookahead() {
+		return lookahead;
+	}
+
+	@Override
+	public double clock() {
+		if (windowRunning) {
+			LogicalProcess logicalProcess = currentLogicalProcess.get();
+			if (logicalProcess != null)
+				return logicalProcess.clock;
+		}
+		return time;
+	}
+
+	@Override
+	public void finish() {
+		try {
+			super.finish();
+		} finally {
+			if (pool != null)
+				pool.shutdown();
+		}
+	}
+
+	/**
+	 * Restores the engine from a checkpoint. The logical processes only hold the
+	 * events of the current window, so they are created again, as well as the
+	 * thread pool.
+	 * 
+	 * @see SimulationCheckpoint
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		logicalProcesses = new HashMap<>();
+		currentLogicalProcess = new ThreadLocal<>();
+	}
+
+	@Override
+	protected boolean runClockTickAndProcessFutureEvents(final double until) {
+		purgeCancelledEvents();
+
+		if (!currentEvents.isEmpty() || !instantEvents.isEmpty() || events.isEmpty()
+				|| !isPartitionLocal(events.first()))
+			return super.runClockTickAndProcessFutureEvents(until);
+
+		if (events.first().getTime() > until)
+			return false;
+
+		processWindow(until);
+		return true;
+	}
+
+	/**
+	 * Checks whether an event can be processed by the logical process of its
+	 * entity.
+	 * 
+	 * @param event the event.
+	 * @return true if the event is partition-local.
+	 */
+	protected boolean isPartitionLocal(Event event) {
+		return event.getSimEntity().getPartition() >= 0 && event.getSimEntity().isPartitionLocal(event);
+	}
+
+	/**
+	 * Processes the next window: takes the partition-local events at its head from
+	 * the queue, processes them in parallel, and merges the results.
+	 * 
+	 * @param until the time when simulation should be terminated.
+	 */
+	protected void processWindow(final double until) {
+		windowStart = events.first().getTime();
+		final double horizon = windowStart + lookahead;
+		List<LogicalProcess> active = new ArrayList<>();
+
+		while (!events.isEmpty()) {
+			Event evt = events.first();
+			if (evt.cancelled) {
+				discard(events.pollFirst());
+				continue;
+			}
+			if (evt.getTime() > until || (evt.getTime() != windowStart && evt.getTime() >= horizon)
+					|| !isPartitionLocal(evt))
+				break;
+
+			LogicalProcess logicalProcess = getLogicalProcess(evt.getSimEntity().getPartition());
+			if (logicalProcess.isIdle())
+				active.add(logicalProcess);
+			logicalProcess.events.add(events.pollFirst());
+		}
+
+		boundaryTime = Math.min(events.isEmpty() ? Double.POSITIVE_INFINITY : events.first().getTime(),
+				Math.nextUp(until));
+		windowEnd = Math.min(horizon, boundaryTime);
+		windowSerial = 0;
+
+		windowRunning = true;
+		try {
+			if (active.size() == 1)
+				run(active.get(0));
+			else
+				getPool().submit(() -> active.parallelStream().forEach(this::run)).join();
+		} finally {
+			windowRunning = false;
+		}
+
+		merge(active);
+	}
+
+	/**
+	 * Checks whether an event scheduled at the given time, within the current
+	 * window, must be processed before the end of the window.
+	 * 
+	 * @param time the time of the event.
+	 * @return true if the event falls within the window.
+	 */
+	protected boolean isInWindow(double time) {
+		return time < windowEnd || (time == windowStart && boundaryTime > windowStart);
+	}
+
+	/**
+	 * Processes the events of a logical process, in order, until none is left in
+	 * the window.
+	 * 
+	 * @param logicalProcess the logical process.
+	 */
+	protected void run(LogicalProcess logicalProcess) {
+		currentLogicalProcess.set(logicalProcess);
+		try {
+			Event evt;
+			while ((evt = logicalProcess.next()) != null) {
+				evt.queued = false;
+				if (evt.cancelled)
+					continue;
+				logicalProcess.clock = evt.getTime();
+				logicalProcess.log(PROCESS, evt);
+				evt.getSimEntity().dispatch(evt);
+			}
+		} finally {
+			currentLogicalProcess.remove();
+		}
+	}
+
+	/**
+	 * Replays the logs of the logical processes in the sequential order, i.e. by
+	 * time and serial of the processed events, to insert the buffered events into
+	 * the queue in the same order as the sequential engine.
+	 * 
+	 * @param active the logical processes of the window.
+	 */
+	protected void merge(List<LogicalProcess> active) {
+		PriorityQueue<LogicalProcess> heads = new PriorityQueue<>(Math.max(1, active.size()),
+				(a, b) -> compare(a.head(), b.head()));
+		for (LogicalProcess logicalProcess : active) {
+			logicalProcess.cursor = 0;
+			if (logicalProcess.size > 0)
+				heads.add(logicalProcess);
+		}
+
+		while (!heads.isEmpty()) {
+			LogicalProcess logicalProcess = heads.poll();
+			time = logicalProcess.head().getTime();
+			if (eventTrace != null)
+				eventTrace.record(logicalProcess.head());
+			if (metrics != null)
+				metrics.eventProcessed(logicalProcess.head(), 0, events.size());
+			logicalProcess.cursor++;
+
+			// Replay the actions of this event
+			while (logicalProcess.cursor < logicalProcess.size
+					&& logicalProcess.types[logicalProcess.cursor] != PROCESS) {
+				Event evt = logicalProcess.actions[logicalProcess.cursor];
+				switch (logicalProcess.types[logicalProcess.cursor]) {
+				case INSERT_LOCAL:
+					evt.setSerial(WINDOW_SERIAL + (++windowSerial));
+					break;
+				case INSERT_EXTERNAL:
+					events.add(evt);
+					break;
+				case CANCEL:
+					if (evt.queued)
+						countCancelled(evt);
+					break;
+				default:
+					break;
+				}
+				logicalProcess.cursor++;
+			}
+
+			if (logicalProcess.cursor < logicalProcess.size)
+				heads.add(logicalProcess);
+		}
+
+		for (LogicalProcess logicalProcess : active)
+			logicalProcess.clear();
+		compactIfNeeded();
+	}
+
+	@Override
+	void insert(Event event) {
+		LogicalProcess logicalProcess = windowRunning ? currentLogicalProcess.get() : null;
+		if (logicalProcess == null) {
+			super.insert(event);
+			return;
+		}
+
+		event.queued = true;
+		if (isInWindow(event.getTime())) {
+			checkLocal(event, logicalProcess);
+			event.setSerial(WINDOW_SERIAL + (++logicalProcess.serial));
+			logicalProcess.events.add(event);
+			logicalProcess.log(INSERT_LOCAL, event);
+		} else
+			logicalProcess.log(INSERT_EXTERNAL, event);
+	}
+
+	@Override
+	public void insertFirst(Event event) {
+		LogicalProcess logicalProcess = windowRunning ? currentLogicalProcess.get() : null;
+		if (logicalProcess == null) {
+			super.insertFirst(event);
+			return;
+		}
+
+		if (event.getTime() != logicalProcess.clock)
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ " - Error, events can only be inserted first at the current time during a parallel window.");
+		checkLocal(event, logicalProcess);
+		event.queued = true;
+		event.setSerial(LANE_SERIAL);
+		logicalProcess.lane.push(event);
+		logicalProcess.log(INSERT_FIRST, event);
+	}
+
+	@Override
+	public boolean cancel(Event event) {
+		LogicalProcess logicalProcess = windowRunning ? currentLogicalProcess.get() : null;
+		if (logicalProcess == null)
+			return super.cancel(event);
+
+		if (!isPending(event))
+			return false;
+		if (event.getSimEntity().getPartition() != logicalProcess.id)
+			throw new IllegalStateException(getClass().getSimpleName() + " - Error, partition "
+					+ logicalProcess.id + " cannot cancel an event of partition "
+					+ event.getSimEntity().getPartition() + " during a parallel window.");
+
+		event.cancelled = true;
+		logicalProcess.log(CANCEL, event);
+		return true;
+	}
+
+	/**
+	 * Checks that an event that falls within the current window can be processed
+	 * by the given logical process.
+	 * 
+	 * @param event          the event.
+	 * @param logicalProcess the logical process that scheduled it.
+	 * @throws IllegalStateException if the event belongs to another partition, or
+	 *                               is not partition-local.
+	 */
+	protected void checkLocal(Event event, LogicalProcess logicalProcess) {
+		if (event.getSimEntity().getPartition() != logicalProcess.id || !isPartitionLocal(event))
+			throw new IllegalStateException(String.format(
+					"%s - Error, partition %d scheduled event (tag %d) for %s (partition %d) at %.6f, within the current window (lookahead %.6f). Only partition-local events of the same partition can be scheduled before the end of the window.",
+					getClass().getSimpleName(), logicalProcess.id, event.getTag(),
+					event.getSimEntity().getClass().getSimpleName(), event.getSimEntity().getPartition(),
+					event.getTime(), lookahead));
+	}
+
+	/**
+	 * Gets the logical process of the given partition, creating it if needed.
+	 * 
+	 * @param partition the partition.
+	 * @return the logical process.
+	 */
+	protected LogicalProcess getLogicalProcess(int partition) {
+		return logicalProcesses.computeIfAbsent(partition, LogicalProcess::new);
+	}
+
+	/**
+	 * Gets the thread pool, creating it if needed.
+	 * 
+	 * @return the thread pool.
+	 */
+	protected ForkJoinPool getPool() {
+		if (pool == null)
+			pool = new ForkJoinPool(threads);
+		return pool;
+	}
+
+	/**
+	 * Orders events by time then serial, as the events queue does.
+	 */
+	protected static int compare(Event a, Event b) {
+		int res = Double.compare(a.time, b.time);
+		return res != 0 ? res : Long.compare(a.serial, b.serial);
+	}
+
+	/**
+	 * A logical process: the events of one partition within the current window,
+	 * and the log of what has been done while processing them.
+	 */
+	protected static class LogicalProcess {
+		protected final int id;
+		protected final PriorityQueue<Event> events = new PriorityQueue<>(ParallelPureEdgeSim::compare);
+		protected final Deque<Event> lane = new ArrayDeque<>();
+		protected double clock;
+		protected long serial;
+
+		/**
+		 * The log: the processed events, each followed by the events it scheduled
+		 * or cancelled.
+		 */
+		protected Event[] actions = new Event[64];
+		protected int[] types = new int[64];
+		protected int size;
+		protected int cursor;
+
+		protected LogicalProcess(int id) {
+			this.id = id;
+		}
+
+		protected boolean isIdle() {
+			return events.isEmpty() && size == 0;
+		}
+
+		protected Event next() {
+			Event evt = lane.poll();
+			return evt != null ? evt : events.poll();
+		}
+
+		protected void log(int type, Event event) {
+			if (size == actions.length) {
+				actions = Arrays.copyOf(actions, size * 2);
+				types = Arrays.copyOf(types, size * 2);
+			}
+			actions[size] = event;
+			types[size++] = type;
+		}
+
+		protected Event head() {
+			return actions[cursor];
+		}
+
+		protected void clear() {
+			Arrays.fill(actions, 0, size, null);
+			size = 0;
+			cursor = 0;
+			serial = 0;
+		}
+	}
+
+}
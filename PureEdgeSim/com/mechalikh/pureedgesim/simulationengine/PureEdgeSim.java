@@ -20,9 +20,18 @@
  **/
 package com.mechalikh.pureedgesim.simulationengine;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
 
 /**
@@ -52,11 +61,159 @@ import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public class PureEdgeSim {
+public class PureEdgeSim implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	List<SimEntity> entitiesList = new ArrayList<>();
+
+	/**
+	 * The parameters of this simulation.
+	 * 
+	 * @see #getConfiguration()
+	 */
+	protected final SimulationConfiguration configuration;
+
+	/**
+	 * The simulation entities of each class, including the entities of its
+	 * subclasses, in the order they have been added. The position of an entity in
+	 * the list of its own class is its id.
+	 * 
+	 * @see #addEntity(SimEntity)
+	 * @see #getEntity(Class, int)
+	 */
+	protected final Map<Class<?>, List<SimEntity>> entitiesByClass = new HashMap<>();
 	protected double time;
 	protected boolean isRunning = true;
-	protected FutureQueue<Event> events;
+	protected Queue<Event> events;
+
+	/**
+	 * Whether the entities have been notified of the start of the simulation.
+	 */
+	protected boolean started;
+
+	/**
+	 * Whether the current run has been paused.
+	 * 
+	 * @see #pause()
+	 */
+	protected volatile boolean paused;
+
+	/**
+	 * The time until which the paused run was going, and whether it was started
+	 * using {@link #start()}, in order to resume it.
+	 * 
+	 * @see #resume()
+	 */
+	protected double pausedUntil;
+	protected boolean finishWhenResumed;
+
+	/**
+	 * The number of events that the paused run still had to process if it was
+	 * started using {@link #step(int)}, or -1 if it was not.
+	 * 
+	 * @see #resume()
+	 */
+	protected int pausedSteps = -1;
+
+	/**
+	 * The number of runs in progress, more than one when a paused run is resumed
+	 * by an entity.
+	 *
+	 * @see #isProcessingEvents()
+	 */
+	protected transient int runningCount;
+
+	/**
+	 * The zero-delay events, i.e. those scheduled for the current instant using
+	 * {@link #insertFirst(Event)}. They are kept out of the {@link #events} queue
+	 * and processed before it, the most recent one first.
+	 */
+	protected final Deque<Event> currentEvents = new ArrayDeque<>();
+
+	/**
+	 * The queued events of the current instant, taken from the {@link #events}
+	 * queue in order to group those that are delivered in bulk by entity. They
+	 * are processed after the zero-delay events and before the rest of the queue.
+	 * Each mailbox is represented here by its first event only.
+	 *
+	 * @see #deliver(Event)
+	 */
+	protected final Deque<Event> instantEvents = new ArrayDeque<>();
+
+	/**
+	 * The events of the current instant that are waiting to be delivered in bulk,
+	 * by entity, in the order they would have been processed.
+	 *
+	 * @see SimEntity#isBulkDelivered(Event)
+	 */
+	protected final Map<SimEntity, List<Event>> mailboxes = new IdentityHashMap<>();
+
+	/**
+	 * The serial given to the last zero-delay event. It decreases with each event,
+	 * the same way {@link FutureQueue#addFirst(QueueElement)} does.
+	 */
+	protected long lowestSerial;
+
+	/**
+	 * The pool from which the events are taken when event pooling is enabled,
+	 * null otherwise.
+	 */
+	protected EventPool eventPool;
+
+	/**
+	 * The metrics of the engine, null when they are disabled.
+	 * 
+	 * @see #enableMetrics(double)
+	 */
+	protected EngineMetrics metrics;
+
+	/**
+	 * The recorder of the processed events, null when it is disabled.
+	 * 
+	 * @see #enableEventTrace(String, int)
+	 */
+	protected transient EventTraceRecorder eventTrace;
+
+	/**
+	 * The random number streams of this simulation.
+	 * 
+	 * @see #getRandomStreams()
+	 */
+	protected RandomStreams randomStreams;
+
+	/**
+	 * The time base on which the events are ordered and grouped by instant.
+	 * 
+	 * @see #getTimeBase()
+	 */
+	protected TimeBase timeBase;
+
+	/**
+	 * The tick services, by interval and partition.
+	 * 
+	 * @see #addTickListener(OnTickListener, double, int)
+	 */
+	protected final List<TickService> tickServices = new ArrayList<>();
+
+	/**
+	 * The minimum number of cancelled events before the queue gets compacted.
+	 * 
+	 * @see #cancel(Event)
+	 */
+	protected static final int MIN_CANCELLED_EVENTS_TO_COMPACT = 1024;
+
+	/**
+	 * The number of cancelled events that are still in the queues.
+	 */
+	protected int cancelledEvents;
+
+	/**
+	 * The number of cancelled events that are still in the events queue, which
+	 * are the only ones that a compaction can remove.
+	 * 
+	 * @see #compact()
+	 */
+	protected int queuedCancelledEvents;
 
 	/**
 	 * Gets the current simulation time in seconds.
@@ -71,13 +228,115 @@ public class PureEdgeSim {
 	}
 
 	/**
-	 * Creates an instance of the PureEdgeSim discrete event simulation engine.
+	 * Creates an instance of the PureEdgeSim discrete event simulation engine that
+	 * uses the parameters read from the settings files.
 	 * 
 	 * @see PureEdgeSim
 	 * @see #start()
+	 * @see SimulationConfiguration#fromParameters()
 	 */
 	public PureEdgeSim() {
-		events = new FutureQueue<>();
+		this(SimulationConfiguration.fromParameters());
+	}
+
+	/**
+	 * Creates an instance of the PureEdgeSim discrete event simulation engine. The
+	 * future events queue and the use of event pooling are selected using the
+	 * "events_queue" and "events_pooling" parameters of the given configuration.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * 
+	 * @see #start()
+	 * @see SimulationConfiguration#eventsQueue
+	 * @see SimulationConfiguration#eventsPooling
+	 */
+	public PureEdgeSim(SimulationConfiguration configuration) {
+		this(configuration, newEventsQueue(configuration), configuration.eventsPooling);
+	}
+
+	/**
+	 * Creates the future events queue selected using the "events_queue"
+	 * parameter.
+	 * 
+	 * @param configuration the parameters of the simulation.
+	 * @return a new, empty, queue.
+	 * @see SimulationConfiguration#eventsQueue
+	 */
+	protected static Queue<Event> newEventsQueue(SimulationConfiguration configuration) {
+		if ("CALENDAR".equals(configuration.eventsQueue))
+			return new CalendarQueue<>();
+		if ("WHEEL".equals(configuration.eventsQueue))
+			return new TimingWheelQueue<>(configuration.timingWheelSlot, configuration.timingWheelHorizon);
+		return new FutureQueue<>();
+	}
+
+	/**
+	 * Creates an instance of the PureEdgeSim discrete event simulation engine that
+	 * uses the given future events queue.
+	 * 
+	 * @param events the (empty) queue in which the future events will be stored.
+	 * 
+	 * @see FutureQueue
+	 * @see CalendarQueue
+	 * @see TimingWheelQueue
+	 */
+	public PureEdgeSim(Queue<Event> events) {
+		this(events, false);
+	}
+
+	/**
+	 * Creates an instance of the PureEdgeSim discrete event simulation engine that
+	 * uses the given future events queue, and the parameters read from the
+	 * settings files.
+	 * 
+	 * @param events        the (empty) queue in which the future events will be
+	 *                      stored.
+	 * @param eventsPooling whether the processed events are recycled using an
+	 *                      {@link EventPool}.
+	 * 
+	 * @see FutureQueue
+	 * @see CalendarQueue
+	 * @see TimingWheelQueue
+	 * @see EventPool
+	 */
+	public PureEdgeSim(Queue<Event> events, boolean eventsPooling) {
+		this(SimulationConfiguration.fromParameters(), events, eventsPooling);
+	}
+
+	/**
+	 * Creates an instance of the PureEdgeSim discrete event simulation engine that
+	 * uses the given future events queue.
+	 * 
+	 * @param configuration the parameters of this simulation.
+	 * @param events        the (empty) queue in which the future events will be
+	 *                      stored.
+	 * @param eventsPooling whether the processed events are recycled using an
+	 *                      {@link EventPool}.
+	 * 
+	 * @see FutureQueue
+	 * @see CalendarQueue
+	 * @see TimingWheelQueue
+	 * @see EventPool
+	 */
+	public PureEdgeSim(SimulationConfiguration configuration, Queue<Event> events, boolean eventsPooling) {
+		this.configuration = configuration;
+		this.events = events;
+		if (eventsPooling)
+			eventPool = new EventPool();
+		randomStreams = new RandomStreams(configuration.randomSeed);
+		timeBase = TimeBase.of(configuration.timeResolution);
+	}
+
+	/**
+	 * Gets the parameters of this simulation. Unlike the static fields of
+	 * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters}, they
+	 * are specific to this simulation, so several simulations with different
+	 * parameters can run at the same time in the same JVM.
+	 * 
+	 * @return the configuration.
+	 */
+	public SimulationConfiguration getConfiguration() {
+		return configuration;
 	}
 
 	/**
@@ -99,18 +358,163 @@ public class PureEdgeSim {
 	 * @see #terminate()
 	 */
 	public void start() {
-		// Notify all entities that the simulation has started. 
-		entitiesList.forEach(entity -> {
-		    if (entity instanceof OnSimulationStartListener) {
-		        ((OnSimulationStartListener) entity).onSimulationStart();
-		    }
-		});
+		finishWhenResumed = true;
+		if (run(Double.MAX_VALUE))
+			finish();
+	}
+
+	/**
+	 * Processes the events up to the given time (included), then advances the
+	 * simulation clock to that time. Unlike {@link #start()}, it does not end the
+	 * simulation: it can be called again to continue the simulation from where it
+	 * stopped, e.g. by an external controller. The entities are notified of the
+	 * start of the simulation on the first call.
+	 * 
+	 * @param until the simulation time (in seconds) until which the events are
+	 *              processed.
+	 * 
+	 * @see #step(int)
+	 * @see #pause()
+	 * @see #finish()
+	 */
+	public void runUntil(double until) {
+		if (until < time)
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ " - Error, cannot run until " + until + ", the simulation time is already " + time + ".");
+		finishWhenResumed = false;
+		if (run(until) && isRunning)
+			time = timeBase.round(until);
+	}
 
+	/**
+	 * Processes the given number of events, or less if the queue gets empty, one
+	 * by one (or one mailbox at a time for the entities that receive their events
+	 * in bulk, which may exceed the given number). The events are processed in the same order as with
+	 * {@link #start()}. The entities are notified of the start of the simulation
+	 * on the first call.
+	 * 
+	 * @param count the maximum number of events to process.
+	 * @return the number of events that have been processed, 0 if there is none
+	 *         left.
+	 * 
+	 * @see #runUntil(double)
+	 */
+	public int step(int count) {
+		paused = false;
+		notifySimulationStart();
 
-		while (runClockTickAndProcessFutureEvents(Double.MAX_VALUE) && isRunning) {
-			// All the processing happens inside the method called above
+		int processed = 0;
+		Event event;
+		runningCount++;
+		try {
+			while (processed < count && isRunning && !paused && (event = nextEvent()) != null)
+				processed += deliver(event);
+		} finally {
+			runningCount--;
 		}
+		pausedSteps = paused ? Math.max(0, count - processed) : -1;
+		return processed;
+	}
 
+	/**
+	 * Pauses the current run: {@link #start()}, {@link #runUntil(double)} or
+	 * {@link #step(int)} returns once the event being processed has been
+	 * processed. It can be called by an entity, or by another thread.
+	 * 
+	 * @see #resume()
+	 */
+	public void pause() {
+		paused = true;
+	}
+
+	/**
+	 * Resumes the paused run, until it finishes or is paused again. A paused
+	 * {@link #step(int)} only processes the events it had left.
+	 * 
+	 * @see #pause()
+	 */
+	public void resume() {
+		if (!paused)
+			return;
+		if (pausedSteps >= 0)
+			step(pausedSteps);
+		else if (finishWhenResumed)
+			start();
+		else
+			runUntil(pausedUntil);
+	}
+
+	/**
+	 * Returns whether the last run has been paused.
+	 * 
+	 * @return true if it has been paused and not resumed.
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+	/**
+	 * Processes the events until the given time, the queue gets empty, or the
+	 * simulation is terminated or paused.
+	 * 
+	 * @param until the time until which the events are processed.
+	 * @return false if the run has been paused.
+	 */
+	protected boolean run(double until) {
+		paused = false;
+		pausedUntil = until;
+		pausedSteps = -1;
+		notifySimulationStart();
+
+		runningCount++;
+		try {
+			while (isRunning && !paused && runClockTickAndProcessFutureEvents(until)) {
+				// All the processing happens inside the method called above
+			}
+		} finally {
+			runningCount--;
+		}
+		return !paused;
+	}
+
+	/**
+	 * Returns whether the events are being processed, i.e. whether this method is
+	 * called (indirectly) by {@link #start()}, {@link #runUntil(double)} or
+	 * {@link #step(int)}.
+	 * 
+	 * @return true if a run is in progress.
+	 * @see SimulationCheckpoint#save(PureEdgeSim, OutputStream)
+	 */
+	public boolean isProcessingEvents() {
+		return runningCount > 0;
+	}
+
+	/**
+	 * Notifies all the entities that implement the
+	 * {@link OnSimulationStartListener} interface that the simulation has started,
+	 * the first time it is called.
+	 */
+	protected void notifySimulationStart() {
+		if (started)
+			return;
+		started = true;
+		// The entities may create other entities (e.g. tick services) when notified
+		for (int i = 0; i < entitiesList.size(); i++) {
+			SimEntity entity = entitiesList.get(i);
+			if (entity instanceof OnSimulationStartListener) {
+				((OnSimulationStartListener) entity).onSimulationStart();
+			}
+		}
+	}
+
+	/**
+	 * Ends the simulation: notifies all the entities that implement the
+	 * {@link OnSimulationEndListener} interface and clears the entities list.
+	 * Called by {@link #start()} once the simulation is over. It must be called
+	 * explicitly when the simulation is run using {@link #runUntil(double)} or
+	 * {@link #step(int)}.
+	 */
+	public void finish() {
 		// Iteration finished, notify all entities and clear their list
 		entitiesList.forEach(entity -> {
 		    if (entity instanceof OnSimulationEndListener) {
@@ -118,6 +522,7 @@ public class PureEdgeSim {
 		    }
 		});
 		entitiesList.clear();
+		entitiesByClass.clear();
 	}
  
 	/**
@@ -132,13 +537,26 @@ public class PureEdgeSim {
 	 */
 	protected boolean runClockTickAndProcessFutureEvents(final double until) {
 
+		purgeCancelledEvents();
+
+		if (!currentEvents.isEmpty()) {
+			processFutureEventsHappeningAtSameTimeOfTheFirstOne(currentEvents.pop());
+			return true;
+		}
+
+		// The run was paused in the middle of an instant
+		if (!instantEvents.isEmpty()) {
+			processFutureEventsHappeningAtSameTimeOfTheFirstOne(instantEvents.poll());
+			return true;
+		}
+
 		if (getEventsQueue().isEmpty()) {
 			return false;
 		}
 
 		final Event first = events.first();
 		if (first.getTime() <= until) {
-			processFutureEventsHappeningAtSameTimeOfTheFirstOne(first);
+			processFutureEventsHappeningAtSameTimeOfTheFirstOne(events.pollFirst());
 			return true;
 		}
 
@@ -147,29 +565,206 @@ public class PureEdgeSim {
 
 	/**
 	 * Processes events happening at the same time as the first event in the queue,
-	 * and updates the simulation time.
+	 * and updates the simulation time. The zero-delay events are processed before
+	 * the ones stored in the events queue.
 	 * 
-	 * @param firstEvent the first event in the queue at this instant of the
-	 *                   simulation.
+	 * @param firstEvent the first event at this instant of the simulation, already
+	 *                   removed from the queue.
 	 * @see #start()
 	 * @see #runClockTickAndProcessFutureEvents(double)
-	 * @see #processEvent(Event)
+	 * @see #deliver(Event)
 	 */
 	protected void processFutureEventsHappeningAtSameTimeOfTheFirstOne(final Event firstEvent) {
-		processEvent(firstEvent);
-		getEventsQueue().remove(firstEvent);
-
-		while (!getEventsQueue().isEmpty()) {
-			final Event evt = getEventsQueue().first();
-			if (evt.getTime() != firstEvent.getTime())
-				break;
-			processEvent(evt);
-			events.remove(evt);
+		final long currentTicks = firstEvent.getTicks();
+		deliver(firstEvent);
+
+		Event evt;
+		while (isRunning && !paused && (evt = nextEventAt(currentTicks)) != null) {
+			deliver(evt);
+		}
+	}
+
+	/**
+	 * Processes an event, or the whole mailbox of its entity when the entity
+	 * receives this event in bulk. The mailbox holds all the events of the
+	 * current instant that are queued for this entity and delivered in bulk: they
+	 * are delivered together, at the place of the first one, using
+	 * {@link SimEntity#processEvents(List)}. The events of other entities that
+	 * were queued between them are processed afterwards, in their usual order.
+	 * 
+	 * @param event the event to process.
+	 * @return the number of events that have been processed.
+	 * @see SimEntity#isBulkDelivered(Event)
+	 */
+	protected int deliver(final Event event) {
+		final SimEntity entity = event.getSimEntity();
+		final List<Event> mailbox = mailboxes.get(entity);
+		final boolean mailboxHead = mailbox != null && mailbox.get(0) == event;
+
+		if (event.cancelled && !mailboxHead) {
+			discard(event);
+			return 0;
+		}
+
+		if (!mailboxHead && !entity.isBulkDelivered(event)) {
+			processEvent(event);
+			return 1;
+		}
+
+		List<Event> delivered = mailbox;
+		if (!mailboxHead) {
+			// The event was not taken from the queue along with the other events of
+			// this instant, e.g. a zero-delay event
+			delivered = new ArrayList<>();
+			delivered.add(event);
+			if (mailbox == null)
+				mailboxes.put(entity, delivered);
+		}
+		takeInstantEvents(event.getTicks());
+		mailboxes.remove(entity, delivered);
+		return processMailbox(delivered);
+	}
+
+	/**
+	 * Takes the events of the given instant from the head of the queue, and puts
+	 * those that are delivered in bulk into the mailboxes of their entities.
+	 * 
+	 * @param ticks the current time, in ticks.
+	 * @see #deliver(Event)
+	 */
+	protected void takeInstantEvents(final long ticks) {
+		while (!events.isEmpty() && events.first().getTicks() == ticks) {
+			final Event evt = events.pollFirst();
+			if (evt.cancelled) {
+				discard(evt);
+				continue;
+			}
+
+			evt.taken = true;
+			final SimEntity entity = evt.getSimEntity();
+			if (entity.isBulkDelivered(evt)) {
+				List<Event> mailbox = mailboxes.get(entity);
+				if (mailbox != null) {
+					mailbox.add(evt);
+					continue;
+				}
+				mailbox = new ArrayList<>();
+				mailbox.add(evt);
+				mailboxes.put(entity, mailbox);
+			}
+			instantEvents.add(evt);
+		}
+	}
+
+	/**
+	 * Delivers the events of a mailbox to their entity, skipping the cancelled
+	 * ones. They are no longer queued once delivered, so the entity cannot cancel
+	 * them. When event pooling is enabled, they are recycled once processed.
+	 * 
+	 * @param mailbox the events of the same entity at the current instant.
+	 * @return the number of events that have been processed.
+	 */
+	protected int processMailbox(final List<Event> mailbox) {
+		int size = 0;
+		for (int i = 0; i < mailbox.size(); i++) {
+			final Event evt = mailbox.get(i);
+			if (evt.cancelled)
+				discard(evt);
+			else
+				mailbox.set(size++, evt);
 		}
+		mailbox.subList(size, mailbox.size()).clear();
+		if (size == 0)
+			return 0;
+
+		final Event first = mailbox.get(0);
+		if (first.getTime() < time) {
+			final String msg = "Past event detected. Event time: %.2f Simulation clock: %.2f";
+			throw new IllegalArgumentException(String.format(msg, first.getTime(), time));
+		}
+
+		time = first.getTime();
+		for (int i = 0; i < size; i++) {
+			mailbox.get(i).queued = false;
+			if (eventTrace != null)
+				eventTrace.record(mailbox.get(i));
+		}
+		if (metrics == null)
+			first.getSimEntity().processEvents(mailbox);
+		else {
+			final long start = System.nanoTime();
+			first.getSimEntity().processEvents(mailbox);
+			final long processingTime = (System.nanoTime() - start) / size;
+			for (int i = 0; i < size; i++)
+				metrics.eventProcessed(mailbox.get(i), processingTime, getPendingEventsCount());
+		}
+
+		if (eventPool != null)
+			for (int i = 0; i < size; i++)
+				eventPool.release(mailbox.get(i));
+		return size;
+	}
+
+	/**
+	 * Gets the number of events that are waiting to be processed.
+	 * 
+	 * @return the number of events in the queues, including the cancelled ones.
+	 */
+	protected int getPendingEventsCount() {
+		int count = events.size() + currentEvents.size() + instantEvents.size();
+		if (!mailboxes.isEmpty())
+			for (List<Event> mailbox : mailboxes.values())
+				count += mailbox.size() - 1;
+		return count;
+	}
+
+	/**
+	 * Removes and returns the next event to process at the given time.
+	 * 
+	 * @param currentTicks the time of the events being processed, in ticks.
+	 * @return the next zero-delay event if any, otherwise the next event of the
+	 *         instant that has already been taken from the queue, the first event
+	 *         of the queue if it happens at the given time, or {@code null}.
+	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
+	 */
+	protected Event nextEventAt(final long currentTicks) {
+		purgeCancelledEvents();
+
+		if (!currentEvents.isEmpty())
+			return currentEvents.pop();
+
+		if (!instantEvents.isEmpty())
+			return instantEvents.poll();
+
+		if (!events.isEmpty() && events.first().getTicks() == currentTicks)
+			return events.pollFirst();
+
+		return null;
 	}
 
 	/**
-	 * Processes an event and updates the simulation time.
+	 * Removes the next event from the queues, whatever its time.
+	 * 
+	 * @return the zero-delay event on top of the lane if any, otherwise the next
+	 *         event of the current instant that has already been taken from the
+	 *         queue, the head of the queue, or {@code null} if all are empty.
+	 * @see #step(int)
+	 */
+	protected Event nextEvent() {
+		purgeCancelledEvents();
+
+		if (!currentEvents.isEmpty())
+			return currentEvents.pop();
+
+		if (!instantEvents.isEmpty())
+			return instantEvents.poll();
+
+		return events.isEmpty() ? null : events.pollFirst();
+	}
+
+	/**
+	 * Processes an event and updates the simulation time. When event pooling is
+	 * enabled, the event is recycled once processed.
 	 * 
 	 * @param event the event to process.
 	 * @see #start()
@@ -183,16 +778,60 @@ public class PureEdgeSim {
 		}
 
 		time = event.getTime();
-		event.getSimEntity().processEvent(event);
+		event.queued = false;
+		if (eventTrace != null)
+			eventTrace.record(event);
+		if (metrics == null)
+			event.getSimEntity().dispatch(event);
+		else {
+			final long start = System.nanoTime();
+			event.getSimEntity().dispatch(event);
+			metrics.eventProcessed(event, System.nanoTime() - start, getPendingEventsCount());
+		}
 
+		if (eventPool != null)
+			eventPool.release(event);
+	}
+
+	/**
+	 * Creates a new event, or takes one from the pool when event pooling is
+	 * enabled. Its time is rounded to the time base of the simulation.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param time      the absolute time of the event.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event, can be null.
+	 * @return the event.
+	 * @see SimEntity#schedule(SimEntity, double, int, Object)
+	 */
+	Event newEvent(SimEntity simEntity, double time, int tag, Object data) {
+		return newEventAt(simEntity, timeBase.toTicks(time), tag, data);
+	}
+
+	/**
+	 * Creates a new event at the given time in ticks.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param ticks     the absolute time of the event, in ticks.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event, can be null.
+	 * @return the event.
+	 * @see SimEntity#scheduleInTicks(SimEntity, long, int, Object)
+	 */
+	Event newEventAt(SimEntity simEntity, long ticks, int tag, Object data) {
+		double eventTime = timeBase.toSeconds(ticks);
+		Event event = eventPool != null ? eventPool.acquire(simEntity, eventTime, tag, data)
+				: new Event(simEntity, eventTime, tag, data);
+		event.ticks = ticks;
+		return event;
 	}
 
 	/**
 	 * Adds an event to the queue
 	 * 
 	 * @param event the new event.
-	 * @see SimEntity#schedule(SimEntity, Double, int)
-	 * @see SimEntity#schedule(SimEntity, Double, int, Object)
+	 * @see SimEntity#schedule(SimEntity, double, int)
+	 * @see SimEntity#schedule(SimEntity, double, int, Object)
 	 * @see OnSimulationStartListener#onSimulationStart()
 	 * @see FutureQueue
 	 * @see #start()
@@ -200,15 +839,20 @@ public class PureEdgeSim {
 	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
 	 */
 	void insert(Event event) {
+		event.queued = true;
 		events.add(event);
 	}
 
 	/**
-	 * Adds an event to the head of the queue
+	 * Adds an event to the head of the queue. Events happening at the current
+	 * simulation time are put in a separate lane instead of the events queue,
+	 * which saves the cost of the sorted insertion and removal. They are still
+	 * processed in the same order: before all other events of this instant, the
+	 * last inserted one first.
 	 * 
 	 * @param event the new event.
-	 * @see SimEntity#schedule(SimEntity, Double, int)
-	 * @see SimEntity#schedule(SimEntity, Double, int, Object)
+	 * @see SimEntity#schedule(SimEntity, double, int)
+	 * @see SimEntity#schedule(SimEntity, double, int, Object)
 	 * @see OnSimulationStartListener#onSimulationStart()
 	 * @see FutureQueue
 	 * @see #start()
@@ -216,7 +860,138 @@ public class PureEdgeSim {
 	 * @see #processFutureEventsHappeningAtSameTimeOfTheFirstOne(Event)
 	 */
 	public void insertFirst(Event event) {
-		getEventsQueue().addFirst(event);
+		event.queued = true;
+		if (event.getTime() == time) {
+			event.setSerial(--lowestSerial);
+			event.taken = true;
+			currentEvents.push(event);
+		} else
+			getEventsQueue().addFirst(event);
+	}
+
+	/**
+	 * Cancels a scheduled event in O(1). The event is only marked as cancelled: it
+	 * is skipped when it reaches the head of the queue, and the queue is compacted
+	 * when the cancelled events make up more than half of it.
+	 * 
+	 * <p>
+	 * When event pooling is enabled, a processed event is reused for a later one,
+	 * so a reference kept after the event has been processed may point to another
+	 * pending event, which would be cancelled instead. Such references must not be
+	 * kept, or must be cancelled with {@link #cancel(Event, int)}.
+	 * 
+	 * @param event the event to cancel.
+	 * @return true if the event has been cancelled, false if it has already been
+	 *         processed or cancelled.
+	 * @see SimEntity#cancel(Event)
+	 * @see Event#isCancelled()
+	 */
+	public boolean cancel(Event event) {
+		if (!isPending(event))
+			return false;
+
+		event.cancelled = true;
+		countCancelled(event);
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Counts a cancelled event that is still waiting, in the events queue or
+	 * outside of it.
+	 * 
+	 * @param event the cancelled event.
+	 * @see #discard(Event)
+	 */
+	protected void countCancelled(Event event) {
+		cancelledEvents++;
+		if (!event.taken)
+			queuedCancelledEvents++;
+	}
+
+	/**
+	 * Cancels a scheduled event, unless it has been processed and reused by the
+	 * {@link EventPool} since the given generation was read.
+	 * 
+	 * @param event      the event to cancel.
+	 * @param generation the generation of the event when it was scheduled.
+	 * @return true if the event has been cancelled, false if it has already been
+	 *         processed or cancelled.
+	 * @see Event#getGeneration()
+	 */
+	public boolean cancel(Event event, int generation) {
+		if (event == null || event.generation != generation)
+			return false;
+		return cancel(event);
+	}
+
+	/**
+	 * Checks whether an event is waiting in the queue and can still be cancelled.
+	 * 
+	 * @param event the event.
+	 * @return false if the event is null, recycled, processed, or cancelled.
+	 */
+	protected static boolean isPending(Event event) {
+		return event != null && !event.recycled && event.queued && !event.cancelled;
+	}
+
+	/**
+	 * Compacts the events queue if the cancelled events make up more than half of
+	 * it. The cancelled events that wait outside of it, e.g. in the zero-delay
+	 * lane, are not counted, since the compaction cannot remove them.
+	 * 
+	 * @see #compact()
+	 */
+	protected void compactIfNeeded() {
+		if (queuedCancelledEvents >= MIN_CANCELLED_EVENTS_TO_COMPACT && queuedCancelledEvents > events.size() / 2)
+			compact();
+	}
+
+	/**
+	 * Removes the cancelled events from the head of the zero-delay lane and from
+	 * the head of the events queue, so that the next event to process is a live
+	 * one.
+	 * 
+	 * @see #cancel(Event)
+	 */
+	protected void purgeCancelledEvents() {
+		if (cancelledEvents == 0)
+			return;
+
+		while (!currentEvents.isEmpty() && currentEvents.peek().cancelled)
+			discard(currentEvents.pop());
+
+		while (!events.isEmpty() && events.first().cancelled)
+			discard(events.pollFirst());
+	}
+
+	/**
+	 * Removes all the cancelled events from the events queue.
+	 * 
+	 * @see #cancel(Event)
+	 */
+	protected void compact() {
+		List<Event> cancelled = new ArrayList<>(queuedCancelledEvents);
+		events.stream().filter(evt -> evt.cancelled).forEach(cancelled::add);
+		for (Event evt : cancelled) {
+			events.remove(evt);
+			discard(evt);
+		}
+	}
+
+	/**
+	 * Drops a cancelled event that has been removed from the queues.
+	 * 
+	 * @param event the cancelled event.
+	 * @see #countCancelled(Event)
+	 */
+	protected void discard(Event event) {
+		event.queued = false;
+		cancelledEvents--;
+		if (!event.taken)
+			queuedCancelledEvents--;
+		if (eventPool != null)
+			eventPool.release(event);
 	}
 
 	/**
@@ -224,20 +999,236 @@ public class PureEdgeSim {
 	 * added to this list before starting the simulation. When the simulation is
 	 * started it notifies all of them of the beginning of the simulation in order
 	 * to schedule their first events.
+	 * <p>
+	 * The id of the entity is the number of entities of the same class (or of its
+	 * subclasses) that have been added before it. It is given in constant time
+	 * (with regard to the number of entities), using the lists of entities of
+	 * each class.
 	 * 
 	 * @param simEntity the new simulation entity.
+	 * @return the id of the entity.
 	 * 
 	 * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#loadModels(DefaultSimulationManager
 	 *      simulationManager)
 	 * @see #start()
 	 * @see OnSimulationStartListener#onSimulationStart()
+	 * @see #getEntity(Class, int)
 	 */
-	public void addEntity(SimEntity simEntity) {
+	public int addEntity(SimEntity simEntity) {
 		entitiesList.add(simEntity);
+		int id = getEntities(simEntity.getClass()).size();
+
+		// Also add it to the lists of its super classes, so their sizes are the
+		// number of entities that are instances of each one of them
+		for (Class<?> type = simEntity.getClass(); type != SimEntity.class; type = type.getSuperclass())
+			getEntities(type).add(simEntity);
+		return id;
+	}
+
+	/**
+	 * Gets a simulation entity by its class and id, in constant time.
+	 * 
+	 * @param <T>  the class of the entity.
+	 * @param type the class of the entity.
+	 * @param id   the id of the entity.
+	 * @return the entity, or null if there is no such entity.
+	 * 
+	 * @see SimEntity#getId()
+	 */
+	public <T extends SimEntity> T getEntity(Class<T> type, int id) {
+		List<SimEntity> entities = entitiesByClass.get(type);
+		if (entities == null || id < 0 || id >= entities.size() || entities.get(id).getClass() != type)
+			return null;
+		return type.cast(entities.get(id));
+	}
+
+	/**
+	 * Gets the number of simulation entities that are instances of the given
+	 * class.
+	 * 
+	 * @param type the class of the entities.
+	 * @return the number of entities.
+	 */
+	public int getEntitiesCount(Class<? extends SimEntity> type) {
+		List<SimEntity> entities = entitiesByClass.get(type);
+		return entities == null ? 0 : entities.size();
+	}
+
+	/**
+	 * Gets the list of entities of the given class, creating it if needed.
+	 * 
+	 * @param type the class.
+	 * @return the list of entities.
+	 */
+	protected List<SimEntity> getEntities(Class<?> type) {
+		return entitiesByClass.computeIfAbsent(type, key -> new ArrayList<>());
+	}
+
+	/**
+	 * Enables the collection of the engine metrics. Must be called before starting
+	 * the simulation.
+	 * 
+	 * @param samplingInterval the interval (in seconds of simulation time) between
+	 *                         two samples of the queue depth.
+	 * @return the metrics.
+	 * 
+	 * @see EngineMetrics
+	 * @see SimulationConfiguration#engineMetrics
+	 */
+	public EngineMetrics enableMetrics(double samplingInterval) {
+		metrics = new EngineMetrics(samplingInterval);
+		return metrics;
+	}
+
+	/**
+	 * Gets the metrics of the engine.
+	 * 
+	 * @return the metrics, or null if they have not been enabled.
+	 * 
+	 * @see #enableMetrics(double)
+	 */
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Enables the recording of the processed events in a binary trace file. Must
+	 * be called before starting the simulation.
+	 * 
+	 * @param fileName the path of the trace file.
+	 * @param capacity the maximum number of records, once reached the oldest ones
+	 *                 are overwritten.
+	 * @return the recorder, which must be closed at the end of the simulation.
+	 * @throws IOException if the trace file cannot be created.
+	 * 
+	 * @see EventTraceRecorder
+	 * @see SimulationConfiguration#eventTrace
+	 */
+	public EventTraceRecorder enableEventTrace(String fileName, int capacity) throws IOException {
+		eventTrace = new EventTraceRecorder(fileName, capacity);
+		return eventTrace;
+	}
+
+	/**
+	 * Gets the recorder of the processed events.
+	 * 
+	 * @return the recorder, or null if it has not been enabled.
+	 * 
+	 * @see #enableEventTrace(String, int)
+	 */
+	public EventTraceRecorder getEventTrace() {
+		return eventTrace;
+	}
+
+	/**
+	 * Gets the random number streams of this simulation, derived from the
+	 * "random_seed" parameter.
+	 * 
+	 * @return the random number streams.
+	 * 
+	 * @see SimulationConfiguration#randomSeed
+	 */
+	public RandomStreams getRandomStreams() {
+		return randomStreams;
+	}
+
+	/**
+	 * Gets the time base of this simulation, selected using the "time_resolution"
+	 * parameter.
+	 * 
+	 * @return the time base.
+	 * 
+	 * @see SimulationConfiguration#timeResolution
+	 */
+	public TimeBase getTimeBase() {
+		return timeBase;
+	}
+
+	/**
+	 * Gets the current simulation time in ticks of the time base.
+	 * 
+	 * @return the simulation time in ticks.
+	 * 
+	 * @see #getTimeBase()
+	 */
+	public long clockInTicks() {
+		return timeBase.toTicks(time);
+	}
+
+	/**
+	 * Adds a listener that is called every given interval of simulation time,
+	 * starting now. All the listeners with the same interval and partition share
+	 * a single {@link TickService}, and therefore a single periodic event.
+	 * 
+	 * @param listener  the listener.
+	 * @param interval  the interval between two calls, in seconds.
+	 * @param partition the partition of the entities the listener modifies, or -1
+	 *                  if it is not partition-local.
+	 * 
+	 * @see TickService
+	 */
+	public void addTickListener(OnTickListener listener, double interval, int partition) {
+		getTickService(interval, partition).addListener(listener);
+	}
+
+	/**
+	 * Gets the tick service with the given interval and partition, creating it if
+	 * needed.
+	 * 
+	 * @param interval  the interval between two ticks, in seconds.
+	 * @param partition the partition.
+	 * @return the tick service.
+	 */
+	protected TickService getTickService(double interval, int partition) {
+		for (TickService tickService : tickServices)
+			if (tickService.getInterval() == interval && tickService.getPartition() == partition)
+				return tickService;
+		TickService tickService = new TickService(this, interval, partition, configuration.parallelTicks);
+		tickServices.add(tickService);
+		return tickService;
+	}
+
+	/**
+	 * Checks whether all the pending events are housekeeping ones, i.e. whether
+	 * the simulation would only go on processing periodic events. It stops at the
+	 * first event that is not, so it is fast as long as there is some work left.
+	 * It must be called between two windows by the parallel engines, e.g. from
+	 * an event that is not partition-local.
+	 * 
+	 * @return true if there is no pending event, or only housekeeping ones.
+	 * @see SimEntity#isHousekeeping(Event)
+	 */
+	public boolean hasOnlyHousekeepingEvents() {
+		for (Event event : currentEvents)
+			if (!event.cancelled && !event.getSimEntity().isHousekeeping(event))
+				return false;
+		for (Event event : instantEvents)
+			if (!event.cancelled && !event.getSimEntity().isHousekeeping(event))
+				return false;
+		for (List<Event> mailbox : mailboxes.values())
+			for (Event event : mailbox)
+				if (!event.cancelled && !event.getSimEntity().isHousekeeping(event))
+					return false;
+		return !events.anyMatch(event -> !event.cancelled && !event.getSimEntity().isHousekeeping(event));
+	}
+
+	/**
+	 * Forks this simulation into independent copies, which can be run in
+	 * parallel, e.g. to compare different choices from the current time. The
+	 * simulation itself is not modified.
+	 * 
+	 * @param count the number of forks.
+	 * @return the forks.
+	 * 
+	 * @see SimulationFork
+	 */
+	public List<PureEdgeSim> fork(int count) {
+		return SimulationFork.fork(this, count);
 	}
 
 	/**
-	 * Terminates the simulation.
+	 * Terminates the simulation. The run returns right after the current event,
+	 * without processing the other events of the current instant.
 	 * 
 	 * @see #start()
 	 * @see PureEdgeSim
@@ -255,15 +1246,17 @@ public class PureEdgeSim {
 	 * @see #start()
 	 */
 	public int clockInMinutes() {
-		return (int) (time / 60);
+		return (int) (clock() / 60);
 	}
 
 	/**
-	 * Gets the list of generated events.
+	 * Gets the list of generated events. The zero-delay events waiting to be
+	 * processed at the current instant are not part of it.
 	 * 
 	 * @return events queue
+	 * @see #insertFirst(Event)
 	 */
-	public FutureQueue<Event> getEventsQueue() {
+	public Queue<Event> getEventsQueue() {
 		return events;
 	}
 
@@ -6,8 +6,10 @@
  */
 package com.mechalikh.pureedgesim.simulationengine;
 
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -18,7 +20,7 @@ import java.util.stream.Stream;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 5.0
  */
-public interface Queue<T> {
+public interface Queue<T> extends Serializable {
     /**
      * Adds a new queue element to the queue. Adding a new element to the queue preserves the temporal order of
      * the elements in the queue.
@@ -27,6 +29,22 @@ public interface Queue<T> {
      */
     void add(T queueElement);
 
+    /**
+     * Adds a new queue element to the head of the queue, i.e. before all the
+     * elements having the same time.
+     *
+     * @param queueElement The queueElement to be put in the queue.
+     */
+    void addFirst(T queueElement);
+
+    /**
+     * Removes an element from the queue.
+     *
+     * @param queueElement the element to remove
+     * @return true if successful; false if not queueElement was removed
+     */
+    boolean remove(T queueElement);
+
     /**
      * Returns an iterator to the elements into the queue.
      *
@@ -41,6 +59,19 @@ public interface Queue<T> {
      */
     Stream<T> stream();
 
+    /**
+     * Checks whether an element of the queue matches the given predicate. The
+     * elements are checked in no particular order, until the first match, so the
+     * queues that are not kept sorted do not have to sort a copy of their
+     * elements as {@link #stream()} does.
+     *
+     * @param predicate the predicate.
+     * @return true if at least one element matches it.
+     */
+    default boolean anyMatch(Predicate<? super T> predicate) {
+        return stream().anyMatch(predicate);
+    }
+
     /**
      * Returns the size of this queue.
      *
@@ -62,4 +93,11 @@ public interface Queue<T> {
      * @throws NoSuchElementException when the queue is empty
      */
     T first() throws NoSuchElementException;
+
+    /**
+     * Gets and removes the first element of the queue.
+     *
+     * @return the first element, or null if the queue is empty
+     */
+    T pollFirst();
 }
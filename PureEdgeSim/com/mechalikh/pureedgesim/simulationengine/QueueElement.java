@@ -1,6 +1,10 @@
 package com.mechalikh.pureedgesim.simulationengine;
 
-public interface QueueElement {
+import java.io.Serializable;
+
+public interface QueueElement extends Serializable {
+
+	double getTime();
 
 	long getSerial();
 
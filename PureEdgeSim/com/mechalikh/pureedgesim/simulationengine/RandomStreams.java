@@ -0,0 +1,120 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The random number streams of a simulation. All the streams are derived from
+ * a master seed, so that a simulation run with the same seed and the same
+ * parameters always gives the same results.
+ * <p>
+ * Each stream is identified by a name (e.g. "mobility") and an index (e.g. the
+ * id of the entity that uses it), and its seed only depends on them and on the
+ * master seed. Therefore, the simulations that use the same master seed draw
+ * the same random numbers for the same purpose, whatever the orchestration
+ * algorithm, which is known as common random numbers: the algorithms are
+ * compared on the same devices locations, mobility, and tasks.
+ * <p>
+ * The streams are {@link XoshiroRandom} generators, which are fast and do not
+ * use any lock. A stream must only be used by one entity (or thread).
+ *
+ * @see PureEdgeSim#getRandomStreams()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#randomSeed
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class RandomStreams implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The seed from which all the streams are derived.
+	 */
+	protected final long masterSeed;
+
+	/**
+	 * The number of streams created so far with each name, using
+	 * {@link #nextStream(String)}.
+	 */
+	protected final Map<String, Long> counters = new HashMap<>();
+
+	/**
+	 * Creates the random number streams of a simulation.
+	 *
+	 * @param masterSeed the seed from which all the streams are derived.
+	 */
+	public RandomStreams(long masterSeed) {
+		this.masterSeed = masterSeed;
+	}
+
+	/**
+	 * Gets the seed from which all the streams are derived.
+	 *
+	 * @return the master seed.
+	 */
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * Creates the stream with the given name and index. The same name and index
+	 * always give the same stream, so it should be kept by the entity that uses
+	 * it.
+	 *
+	 * @param name  the name of the stream, i.e. what it is used for.
+	 * @param index the index of the stream, e.g. the id of the entity.
+	 * @return a new generator.
+	 */
+	public XoshiroRandom getStream(String name, long index) {
+		long seed = XoshiroRandom.mix(masterSeed ^ XoshiroRandom.mix(name.hashCode()));
+		return new XoshiroRandom(XoshiroRandom.mix(seed + index * XoshiroRandom.GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates the stream with the given name and index 0.
+	 *
+	 * @param name the name of the stream, i.e. what it is used for.
+	 * @return a new generator.
+	 * @see #getStream(String, long)
+	 */
+	public XoshiroRandom getStream(String name) {
+		return getStream(name, 0);
+	}
+
+	/**
+	 * Creates the next stream with the given name: the first call returns the
+	 * stream of index 0, the second one the stream of index 1, etc. It is used
+	 * when the entity that needs the stream has no id, e.g. a mobility model.
+	 * The streams are the same from one simulation to another as long as the
+	 * entities are created in the same order.
+	 *
+	 * @param name the name of the stream, i.e. what it is used for.
+	 * @return a new generator.
+	 * @see #getStream(String, long)
+	 */
+	public XoshiroRandom nextStream(String name) {
+		long index = counters.merge(name, 1L, Long::sum) - 1;
+		return getStream(name, index);
+	}
+}
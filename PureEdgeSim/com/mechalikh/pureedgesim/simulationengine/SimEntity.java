@@ -1,17 +1,47 @@
 package com.mechalikh.pureedgesim.simulationengine;
 
-import java.util.stream.Collectors;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+public abstract class SimEntity implements Serializable {
+	private static final long serialVersionUID = 1L;
 
-public abstract class SimEntity {
 	protected PureEdgeSim simulation;
 	protected int id;
 
+	/**
+	 * The logical process (partition) this entity belongs to, -1 if it is a
+	 * global entity.
+	 * 
+	 * @see ParallelPureEdgeSim
+	 */
+	protected int partition = -1;
+
+	/**
+	 * The event handlers, indexed by tag, or null if none has been registered.
+	 * 
+	 * @see #setHandler(int, EventHandler)
+	 */
+	protected EventHandler<?>[] handlers;
+
+	/**
+	 * The handlers of the tags whose events still go through
+	 * {@link #processEvent(Event)}, because a subclass overrides it, indexed by
+	 * tag, or null if there is none.
+	 * 
+	 * @see #setHandler(int, EventHandler, Class)
+	 */
+	protected EventHandler<?>[] fallbackHandlers;
+
+	/**
+	 * The largest tag that can have a handler.
+	 */
+	protected static final int MAX_HANDLER_TAG = 1023;
+
 	protected SimEntity(PureEdgeSim simulation) {
 		setSimulator(simulation);
-		id = simulation.entitiesList.stream().filter(getClass()::isInstance).collect(Collectors.toList())
-				.size();
-		setId(id);
-		simulation.addEntity(this);
+		setId(simulation.addEntity(this));
 	}
 
 	protected SimEntity() {
@@ -25,6 +55,27 @@ public abstract class SimEntity {
 		return id;
 	}
 
+	/**
+	 * Gets the partition (logical process) of this entity.
+	 * 
+	 * @return the partition, or -1 if this entity is shared by all partitions.
+	 * @see ParallelPureEdgeSim
+	 */
+	public int getPartition() {
+		return partition;
+	}
+
+	/**
+	 * Sets the partition (logical process) of this entity.
+	 * 
+	 * @param partition the partition, or -1 if this entity is shared by all
+	 *                  partitions.
+	 * @see ParallelPureEdgeSim
+	 */
+	public void setPartition(int partition) {
+		this.partition = partition;
+	}
+
 	public PureEdgeSim getSimulation() {
 		return simulation;
 	}
@@ -33,36 +84,275 @@ public abstract class SimEntity {
 		this.simulation = simulator;
 	}
 
-	protected Event schedule(SimEntity simEntity, Double time, int tag) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag);
-		simulation.insert(e);
-		return e;
+	protected Event schedule(SimEntity simEntity, double time, int tag) {
+		return schedule(simEntity, time, tag, null);
 	}
 
 	protected Event schedule(SimEntity simEntity, int time, int tag) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag);
+		return schedule(simEntity, (double) time, tag, null);
+	}
+
+	protected Event schedule(SimEntity simEntity, double time, int tag, Object data) {
+		Event e = simulation.newEvent(simEntity, simulation.clock() + time, tag, data);
 		simulation.insert(e);
 		return e;
 	}
 
-	protected Event schedule(SimEntity simEntity, Double time, int tag, Object data) {
-		Event e = new Event(simEntity, simulation.clock() + time, tag, data);
-		simulation.insert(e); 
+	/**
+	 * Schedules an event after a delay given in ticks of the time base of the
+	 * simulation, which is added to the current time without any rounding.
+	 * 
+	 * @param simEntity the entity that will process the event.
+	 * @param delay     the delay, in ticks.
+	 * @param tag       the tag of the event.
+	 * @param data      the data of the event, can be null.
+	 * @return the event.
+	 * @throws IllegalStateException if the simulation does not use a fixed
+	 *                               resolution.
+	 * @see PureEdgeSim#getTimeBase()
+	 */
+	protected Event scheduleInTicks(SimEntity simEntity, long delay, int tag, Object data) {
+		if (simulation.getTimeBase().isExact())
+			throw new IllegalStateException(getClass().getSimpleName()
+					+ " - Error, delays in ticks require a time base with a fixed resolution (\"time_resolution\" parameter).");
+		Event e = simulation.newEventAt(simEntity, simulation.clockInTicks() + delay, tag, data);
+		simulation.insert(e);
 		return e;
 	}
 
 	protected Event scheduleNow(SimEntity simEntity, int tag) {
-		Event e = new Event(simEntity, simulation.clock(), tag);
-		simulation.insertFirst(e);
-		return e;
+		return scheduleNow(simEntity, tag, null);
 	}
 
 	protected Event scheduleNow(SimEntity simEntity, int tag, Object data) {
-		Event e = new Event(simEntity, simulation.clock(), tag, data);
+		Event e = simulation.newEvent(simEntity, simulation.clock(), tag, data);
 		simulation.insertFirst(e);
 		return e;
 	}
 
+	/**
+	 * Cancels an event that has been scheduled but not yet processed, e.g. to
+	 * reschedule it at a different time.
+	 * 
+	 * @param e the event returned by one of the schedule methods.
+	 * @return true if the event has been cancelled, false if it has already been
+	 *         processed or cancelled.
+	 * @see PureEdgeSim#cancel(Event)
+	 */
+	protected boolean cancel(Event e) {
+		return simulation.cancel(e);
+	}
+
+	/**
+	 * Cancels an event that has been scheduled but not yet processed, unless it
+	 * has been processed and reused since the given generation was read. Use it
+	 * when event pooling is enabled and the event may have been processed.
+	 * 
+	 * @param e          the event returned by one of the schedule methods.
+	 * @param generation the generation of the event, read when it was scheduled.
+	 * @return true if the event has been cancelled, false if it has already been
+	 *         processed or cancelled.
+	 * @see PureEdgeSim#cancel(Event, int)
+	 */
+	protected boolean cancel(Event e, int generation) {
+		return simulation.cancel(e, generation);
+	}
+
+	/**
+	 * Tells the {@link ParallelPureEdgeSim} engine whether the given event only
+	 * reads and modifies the state of the entities of this entity's partition,
+	 * and only schedules events for them (or for other partitions, after at least
+	 * the lookahead delay). Such events can be processed in parallel with the
+	 * events of other partitions. Any other event is processed sequentially.
+	 * 
+	 * @param e the event.
+	 * @return false by default.
+	 * @see #getPartition()
+	 */
+	protected boolean isPartitionLocal(Event e) {
+		return false;
+	}
+
+	/**
+	 * Tells whether the given event is a housekeeping one, i.e. a periodic event
+	 * (e.g. a status update or a progress report) that would go on forever and
+	 * does not make the simulation progress by itself. The simulation can end
+	 * once only such events are left.
+	 * 
+	 * @param e the event.
+	 * @return false by default.
+	 * @see PureEdgeSim#hasOnlyHousekeepingEvents()
+	 */
+	protected boolean isHousekeeping(Event e) {
+		return false;
+	}
+
+	/**
+	 * Tells the engine whether the given event is delivered in bulk, i.e. together
+	 * with the other events of the same instant that are queued for this entity
+	 * and delivered in bulk, using a single call to {@link #processEvents(List)}.
+	 * They are delivered when the first of them would have been processed, which
+	 * moves the next ones before the events of other entities that were queued
+	 * between them. This lets an entity process a burst of events (e.g. many
+	 * tasks finishing at the same time) in one pass over its state.
+	 * <p>
+	 * The events processed in parallel by the {@link ParallelPureEdgeSim} engine
+	 * are still processed one by one.
+	 *
+	 * @param e the event.
+	 * @return false by default.
+	 * @see PureEdgeSim#deliver(Event)
+	 */
+	protected boolean isBulkDelivered(Event e) {
+		return false;
+	}
+
+	/**
+	 * Processes the events of the same instant that are delivered in bulk to this
+	 * entity. By default, each one is passed to the handler of its tag or to
+	 * {@link #processEvent(Event)}, in order. The events must not be kept once
+	 * processed, as they may be recycled.
+	 *
+	 * @param events the events, in the order they would have been processed one
+	 *               by one.
+	 * @see #isBulkDelivered(Event)
+	 */
+	protected void processEvents(List<Event> events) {
+		for (int i = 0; i < events.size(); i++)
+			dispatch(events.get(i));
+	}
+
+	/**
+	 * Registers the handler of the events with the given tag, replacing the
+	 * previous one if any. These events are then passed to the handler, with
+	 * their data, instead of to {@link #processEvent(Event)}. This avoids
+	 * dispatching them with a switch on their tag and casting their data.
+	 * <p>
+	 * A subclass changes how the events of a tag are processed by registering its
+	 * own handler for this tag, as overriding {@link #processEvent(Event)} has no
+	 * effect on them, unless the handler has been registered using
+	 * {@link #setHandler(int, EventHandler, Class)}.
+	 * 
+	 * @param <T>     the type of the data of the events with this tag.
+	 * @param tag     the tag, between 0 and 1023.
+	 * @param handler the handler, or null to process these events using
+	 *                {@link #processEvent(Event)} again.
+	 */
+	protected <T> void setHandler(int tag, EventHandler<T> handler) {
+		handlers = register(handlers, tag, handler);
+	}
+
+	/**
+	 * Registers the handler of the events with the given tag on behalf of a class
+	 * whose subclasses used to intercept these events by overriding
+	 * {@link #processEvent(Event)}. If this entity overrides it below the given
+	 * class, these events keep going through it, so that such subclasses still
+	 * work. The implementation of {@link #processEvent(Event)} in the given class
+	 * must then pass them to the handler using {@link #invokeHandler(Event)}.
+	 * 
+	 * @param <T>     the type of the data of the events with this tag.
+	 * @param tag     the tag, between 0 and 1023.
+	 * @param handler the handler.
+	 * @param owner   the class that registers the handler.
+	 */
+	protected <T> void setHandler(int tag, EventHandler<T> handler, Class<? extends SimEntity> owner) {
+		if (overridesProcessEvent(owner))
+			fallbackHandlers = register(fallbackHandlers, tag, handler);
+		else
+			setHandler(tag, handler);
+	}
+
+	private EventHandler<?>[] register(EventHandler<?>[] array, int tag, EventHandler<?> handler) {
+		if (tag < 0 || tag > MAX_HANDLER_TAG)
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ " - Error, the tags that have a handler must be between 0 and " + MAX_HANDLER_TAG + ".");
+		if (array == null)
+			array = new EventHandler<?>[tag + 1];
+		else if (tag >= array.length)
+			array = Arrays.copyOf(array, tag + 1);
+		array[tag] = handler;
+		return array;
+	}
+
+	/**
+	 * Checks whether {@link #processEvent(Event)} is overridden by the class of
+	 * this entity or by one of its superclasses below the given one.
+	 * 
+	 * @param owner the class.
+	 * @return true if it is overridden below the given class.
+	 */
+	protected boolean overridesProcessEvent(Class<? extends SimEntity> owner) {
+		Class<?> declaringClass = PROCESS_EVENT_DECLARING_CLASS.get(getClass());
+		return declaringClass != owner && owner.isAssignableFrom(declaringClass);
+	}
+
+	/**
+	 * The class that declares the implementation of {@link #processEvent(Event)}
+	 * used by each class of entities.
+	 */
+	private static final ClassValue<Class<?>> PROCESS_EVENT_DECLARING_CLASS = new ClassValue<Class<?>>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("processEvent", Event.class);
+					return c;
+				} catch (NoSuchMethodException e) {
+					// Not declared by this class, check its superclass
+				}
+			}
+			return SimEntity.class;
+		}
+	};
+
+	/**
+	 * Checks whether the events with the given tag go through
+	 * {@link #processEvent(Event)} before reaching their handler, because a
+	 * subclass overrides it.
+	 * 
+	 * @param tag the tag.
+	 * @return true if these events can be intercepted by
+	 *         {@link #processEvent(Event)}.
+	 * @see #setHandler(int, EventHandler, Class)
+	 */
+	protected boolean isIntercepted(int tag) {
+		return fallbackHandlers != null && tag >= 0 && tag < fallbackHandlers.length
+				&& fallbackHandlers[tag] != null;
+	}
+
+	/**
+	 * Passes an event that went through {@link #processEvent(Event)} to its
+	 * handler, if it has been registered using
+	 * {@link #setHandler(int, EventHandler, Class)}.
+	 * 
+	 * @param e the event.
+	 * @return false if the event has no such handler.
+	 */
+	@SuppressWarnings("unchecked")
+	protected boolean invokeHandler(Event e) {
+		if (!isIntercepted(e.getTag()))
+			return false;
+		((EventHandler<Object>) fallbackHandlers[e.getTag()]).handle(e.getData());
+		return true;
+	}
+
+	/**
+	 * Passes an event to the handler of its tag if there is one, or to
+	 * {@link #processEvent(Event)} otherwise. Called by the engine.
+	 * 
+	 * @param e the event.
+	 */
+	@SuppressWarnings("unchecked")
+	final void dispatch(Event e) {
+		final int tag = e.getTag();
+		final EventHandler<Object> handler;
+		if (handlers != null && tag >= 0 && tag < handlers.length
+				&& (handler = (EventHandler<Object>) handlers[tag]) != null)
+			handler.handle(e.getData());
+		else
+			processEvent(e);
+	}
+
 	protected abstract void processEvent(Event e);
 
 }
@@ -0,0 +1,169 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves the whole state of a simulation (the engine, its pending events, and
+ * all the entities reachable from it: computing nodes, network links, tasks,
+ * the simulation manager, the logger...) to a file, and restores it, possibly
+ * in another JVM. A long warm-up phase can then be simulated once, and each
+ * experiment can start from the checkpoint taken at its end, instead of
+ * simulating it again.
+ * <p>
+ * The configuration of the simulation is saved with it, as each simulation
+ * holds its own {@link com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration}.
+ * The static {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters}
+ * are neither saved nor changed when a checkpoint is restored, so restoring a
+ * simulation has no effect on the other simulations of the JVM.
+ * <p>
+ * A checkpoint can only be taken between two events, i.e. when no run is in
+ * progress, typically after {@link PureEdgeSim#runUntil(double)} returns or
+ * once the simulation has been paused. The simulation then continues from the
+ * restored state using {@link PureEdgeSim#runUntil(double)} or
+ * {@link PureEdgeSim#start()}, e.g. through the
+ * {@link com.mechalikh.pureedgesim.simulationmanager.SimulationManager#startSimulation()
+ * startSimulation()} method of the simulation manager, which can be found with
+ * {@link PureEdgeSim#getEntity(Class, int)}.
+ * <p>
+ * The state is written using Java serialization, compressed with GZIP. All the
+ * entities, and the data of their events, must therefore be serializable, and
+ * a checkpoint can only be restored by the same version of the classes that
+ * saved it. The fields that are not part of the simulation state (e.g. the
+ * real-time charts) must be declared transient.
+ *
+ * @see PureEdgeSim#isProcessingEvents()
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class SimulationCheckpoint {
+
+	/**
+	 * The first bytes of a checkpoint file, followed by the format version.
+	 */
+	protected static final int MAGIC = 0x50455343;
+	protected static final int VERSION = 2;
+
+	protected SimulationCheckpoint() {
+	}
+
+	/**
+	 * Saves the simulation to the given file.
+	 *
+	 * @param simulation the simulation to save.
+	 * @param fileName   the path of the checkpoint file.
+	 * @throws IOException if the file cannot be written, or an entity is not
+	 *                     serializable.
+	 *
+	 * @see #load(String)
+	 */
+	public static void save(PureEdgeSim simulation, String fileName) throws IOException {
+		try (OutputStream out = new FileOutputStream(fileName)) {
+			save(simulation, out);
+		}
+	}
+
+	/**
+	 * Writes the simulation to the given stream. The stream is not closed.
+	 *
+	 * @param simulation the simulation to save.
+	 * @param out        the stream.
+	 * @throws IOException if an entity is not serializable.
+	 *
+	 * @see #load(InputStream)
+	 */
+	public static void save(PureEdgeSim simulation, OutputStream out) throws IOException {
+		if (simulation.isProcessingEvents())
+			throw new IllegalStateException(SimulationCheckpoint.class.getSimpleName()
+					+ " - Error, a checkpoint cannot be saved while the events are being processed.");
+
+		DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.flush();
+
+		GZIPOutputStream compressed = new GZIPOutputStream(new BufferedOutputStream(out));
+		ObjectOutputStream objects = new ObjectOutputStream(compressed);
+		objects.writeObject(simulation);
+		objects.flush();
+		compressed.finish();
+		compressed.flush();
+	}
+
+	/**
+	 * Restores a simulation from the given file, with its configuration.
+	 *
+	 * @param fileName the path of the checkpoint file.
+	 * @return the restored simulation.
+	 * @throws IOException            if the file cannot be read, or is not a
+	 *                                checkpoint.
+	 * @throws ClassNotFoundException if a class of the saved simulation cannot be
+	 *                                found.
+	 *
+	 * @see #save(PureEdgeSim, String)
+	 */
+	public static PureEdgeSim load(String fileName) throws IOException, ClassNotFoundException {
+		try (InputStream in = new FileInputStream(fileName)) {
+			return load(in);
+		}
+	}
+
+	/**
+	 * Reads a simulation from the given stream, with its configuration. The
+	 * stream is not closed.
+	 *
+	 * @param in the stream.
+	 * @return the restored simulation.
+	 * @throws IOException            if the stream does not contain a
+	 *                                checkpoint.
+	 * @throws ClassNotFoundException if a class of the saved simulation cannot be
+	 *                                found.
+	 *
+	 * @see #save(PureEdgeSim, OutputStream)
+	 */
+	public static PureEdgeSim load(InputStream in) throws IOException, ClassNotFoundException {
+		DataInputStream header = new DataInputStream(in);
+		if (header.readInt() != MAGIC)
+			throw new IOException(
+					SimulationCheckpoint.class.getSimpleName() + " - Error, this is not a simulation checkpoint.");
+		int version = header.readInt();
+		if (version != VERSION)
+			throw new IOException(SimulationCheckpoint.class.getSimpleName()
+					+ " - Error, unsupported checkpoint version: " + version + ".");
+
+		ObjectInputStream objects = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(in)));
+		return (PureEdgeSim) objects.readObject();
+	}
+}
@@ -0,0 +1,249 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Forks a simulation into several independent copies, to compare what would
+ * happen from a given time with different choices (e.g. another orchestration
+ * algorithm), without simulating everything that happened before this time
+ * again for each choice.
+ * <p>
+ * The simulation is written once in memory, the same way the
+ * {@link SimulationCheckpoint} does, and each fork is read from this copy, in
+ * parallel. The forks share the objects that never change (see
+ * {@link ImmutableState}), such as the locations of the precomputed mobility
+ * paths, the configuration and its applications, the links of the routing
+ * graph and the delays of the shortest paths. They get their own copy of
+ * everything else: their entities, events, and random number streams, as well
+ * as the objects that reference the entities, such as the topology graph and
+ * the paths, which go through the nodes and links of each fork. Running a
+ * fork therefore has no effect on the others, and the forks of the same
+ * simulation that make the same choices get the same results. The entities
+ * that implement {@link OnForkListener} are notified of the index of their
+ * fork, e.g. the simulation manager, so that each fork saves its results in
+ * its own files.
+ * <p>
+ * The forks share the configuration of the simulation, which cannot be
+ * changed. To make a fork different, its entities (e.g. the orchestrator) must
+ * be changed instead, using {@link PureEdgeSim#getEntity(Class, int)}.
+ *
+ * <pre>
+ * simulation.runUntil(1800);
+ * List&lt;PureEdgeSim&gt; forks = simulation.fork(2);
+ * // ... change the orchestrator of each fork ...
+ * SimulationFork.runAll(forks, (index, fork) -&gt; fork.start());
+ * </pre>
+ *
+ * @see PureEdgeSim#fork(int)
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class SimulationFork {
+
+	protected SimulationFork() {
+	}
+
+	/**
+	 * Forks a simulation. It can only be forked between two events, i.e. when no
+	 * run is in progress.
+	 *
+	 * @param simulation the simulation to fork, which is not modified.
+	 * @param count      the number of forks.
+	 * @return the forks, which can be run independently from each other.
+	 * @throws UncheckedIOException if an entity is not serializable.
+	 */
+	public static List<PureEdgeSim> fork(PureEdgeSim simulation, int count) {
+		if (simulation.isProcessingEvents())
+			throw new IllegalStateException(SimulationFork.class.getSimpleName()
+					+ " - Error, a simulation cannot be forked while the events are being processed.");
+		if (count <= 0)
+			throw new IllegalArgumentException(
+					SimulationFork.class.getSimpleName() + " - Error, the number of forks must be > 0.");
+
+		List<Object> shared = new ArrayList<>();
+		byte[] copy;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new SharingOutputStream(bytes, shared)) {
+				out.writeObject(simulation);
+			}
+			copy = bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		List<PureEdgeSim> forks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			forks.add(null);
+		runAll(forks, (index, fork) -> forks.set(index, read(copy, shared)));
+		for (int i = 0; i < count; i++)
+			notifyFork(forks.get(i), i);
+		return forks;
+	}
+
+	/**
+	 * Notifies the entities of a fork that implement {@link OnForkListener}.
+	 *
+	 * @param fork  the fork.
+	 * @param index the index of the fork.
+	 */
+	protected static void notifyFork(PureEdgeSim fork, int index) {
+		for (SimEntity entity : fork.entitiesList)
+			if (entity instanceof OnForkListener)
+				((OnForkListener) entity).onFork(index);
+	}
+
+	/**
+	 * Reads a fork from the copy of the simulation.
+	 *
+	 * @param copy   the copy of the simulation.
+	 * @param shared the objects shared by the forks.
+	 * @return the fork.
+	 */
+	protected static PureEdgeSim read(byte[] copy, List<Object> shared) {
+		try (ObjectInputStream in = new SharingInputStream(new ByteArrayInputStream(copy), shared)) {
+			return (PureEdgeSim) in.readObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Runs an action on each simulation of a list, in parallel, e.g. to run the
+	 * forks of a simulation, and waits until all of them are done. Each simulation
+	 * is run by a single thread at a time.
+	 *
+	 * @param simulations the simulations.
+	 * @param action      the action, which gets the index of the simulation in the
+	 *                    list, and the simulation.
+	 * @throws IllegalStateException if the action fails for one of the
+	 *                               simulations, once all of them are done.
+	 */
+	public static void runAll(List<PureEdgeSim> simulations, BiConsumer<Integer, PureEdgeSim> action) {
+		int threads = Math.max(1, Math.min(simulations.size(), Runtime.getRuntime().availableProcessors()));
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>(simulations.size());
+			for (int i = 0; i < simulations.size(); i++) {
+				final int index = i;
+				futures.add(executor.submit(() -> action.accept(index, simulations.get(index))));
+			}
+
+			Throwable failure = null;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure = e.getCause();
+				}
+			}
+			if (failure != null)
+				throw new IllegalStateException(
+						SimulationFork.class.getSimpleName() + " - Error, a simulation has failed.", failure);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Writes the objects that implement {@link ImmutableState} as references to
+	 * the list of shared objects.
+	 */
+	protected static class SharingOutputStream extends ObjectOutputStream {
+		protected final List<Object> shared;
+		protected final Map<Object, SharedReference> references = new IdentityHashMap<>();
+
+		protected SharingOutputStream(OutputStream out, List<Object> shared) throws IOException {
+			super(out);
+			this.shared = shared;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) {
+			if (!(obj instanceof ImmutableState))
+				return obj;
+			return references.computeIfAbsent(obj, key -> {
+				shared.add(key);
+				return new SharedReference(shared.size() - 1);
+			});
+		}
+	}
+
+	/**
+	 * Replaces the references to the shared objects by these objects.
+	 */
+	protected static class SharingInputStream extends ObjectInputStream {
+		protected final List<Object> shared;
+
+		protected SharingInputStream(InputStream in, List<Object> shared) throws IOException {
+			super(in);
+			this.shared = shared;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) {
+			if (obj instanceof SharedReference)
+				return shared.get(((SharedReference) obj).index);
+			return obj;
+		}
+	}
+
+	/**
+	 * A reference to a shared object, in the copy of the simulation.
+	 */
+	protected static class SharedReference implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected final int index;
+
+		protected SharedReference(int index) {
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.mechalikh.pureedgesim.simulationengine;
+
+/**
+ * An interface implemented by the simulation entities whose state can be saved
+ * and restored, which allows the {@link OptimisticPureEdgeSim} engine to roll
+ * back the events they have processed.
+ * <p>
+ * The engine saves the state of an entity before each event it processes. The
+ * saved state must cover everything that the entity's partition-local events
+ * can modify.
+ */
+public interface StateSavingEntity {
+    /**
+     * Saves the current state of this entity.
+     * 
+     * @return a snapshot of the state, that must not be affected by future
+     *         changes of the entity.
+     */
+	Object saveState();
+
+    /**
+     * Restores a state previously returned by {@link #saveState()}.
+     * 
+     * @param state the snapshot to restore.
+     */
+	void restoreState(Object state);
+}
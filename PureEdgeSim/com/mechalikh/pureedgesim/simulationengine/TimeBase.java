@@ -0,0 +1,191 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+
+/**
+ * Converts the simulation times, in seconds, to the {@code long} ticks on which
+ * the events are ordered and grouped by instant.
+ * <p>
+ * By default ({@link #EXACT}), the times are not rounded: the ticks of a time
+ * are its bits, arranged so that they are ordered as the times are. The events
+ * are then compared as longs, which is cheaper than comparing doubles, but two
+ * events only happen at the same instant if their times are exactly equal,
+ * e.g. 0.1 + 0.2 and 0.3 are different instants.
+ * <p>
+ * With a fixed resolution (e.g. 1e-6 for microsecond ticks), every time is
+ * rounded to the nearest tick, and the time of each event is an exact number
+ * of ticks. The events whose times round to the same tick are processed as a
+ * single instant, and delays given in ticks (see
+ * {@link SimEntity#scheduleInTicks(SimEntity, long, int, Object)}) are added
+ * without any rounding error. A {@code long} holds about 292 years of
+ * nanosecond ticks.
+ *
+ * @see PureEdgeSim#getTimeBase()
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#timeResolution
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class TimeBase implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The time base that does not round the times.
+	 */
+	public static final TimeBase EXACT = new Exact();
+
+	/**
+	 * The duration of a tick and the number of ticks per second.
+	 */
+	protected final double resolution;
+	protected final double ticksPerSecond;
+
+	private TimeBase() {
+		this.resolution = 0;
+		this.ticksPerSecond = 0;
+	}
+
+	/**
+	 * Creates a time base with the given resolution.
+	 *
+	 * @param resolution the duration of a tick, in seconds, e.g. 1e-6 for
+	 *                   microseconds.
+	 */
+	public TimeBase(double resolution) {
+		if (!(resolution > 0))
+			throw new IllegalArgumentException(
+					getClass().getSimpleName() + " - Error, the resolution must be > 0.");
+		this.resolution = resolution;
+		this.ticksPerSecond = 1 / resolution;
+	}
+
+	/**
+	 * Gets the time base with the given resolution.
+	 *
+	 * @param resolution the duration of a tick in seconds, or 0 for
+	 *                   {@link #EXACT}.
+	 * @return the time base.
+	 */
+	public static TimeBase of(double resolution) {
+		return resolution == 0 ? EXACT : new TimeBase(resolution);
+	}
+
+	/**
+	 * Converts a time to ticks, rounding it to the nearest tick.
+	 *
+	 * @param seconds the time in seconds.
+	 * @return the time in ticks.
+	 */
+	public long toTicks(double seconds) {
+		return Math.round(seconds * ticksPerSecond);
+	}
+
+	/**
+	 * Converts ticks to a time.
+	 *
+	 * @param ticks the time in ticks.
+	 * @return the time in seconds.
+	 */
+	public double toSeconds(long ticks) {
+		return ticks / ticksPerSecond;
+	}
+
+	/**
+	 * Rounds a time to the nearest tick.
+	 *
+	 * @param seconds the time in seconds.
+	 * @return the rounded time, in seconds.
+	 */
+	public double round(double seconds) {
+		return toSeconds(toTicks(seconds));
+	}
+
+	/**
+	 * Rounds a time up to the next tick, e.g. for an event that must not happen
+	 * before the given time.
+	 *
+	 * @param seconds the time in seconds.
+	 * @return the rounded time, in seconds.
+	 */
+	public double ceil(double seconds) {
+		return toSeconds((long) Math.ceil(seconds * ticksPerSecond));
+	}
+
+	/**
+	 * Gets the duration of a tick.
+	 *
+	 * @return the duration in seconds, or 0 if the times are not rounded.
+	 */
+	public double getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Returns whether the times are kept as they are.
+	 *
+	 * @return true for {@link #EXACT}, whose ticks are not a duration and cannot
+	 *         be added to each other.
+	 */
+	public boolean isExact() {
+		return false;
+	}
+
+	/**
+	 * The time base that does not round the times.
+	 */
+	private static final class Exact extends TimeBase {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public long toTicks(double seconds) {
+			// Adding 0.0 turns -0.0 into 0.0, so that both give the same ticks
+			long bits = Double.doubleToLongBits(seconds + 0.0);
+			// Flip the bits of the negative times, which are ordered the other way
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		}
+
+		@Override
+		public double toSeconds(long ticks) {
+			return Double.longBitsToDouble(ticks ^ ((ticks >> 63) & Long.MAX_VALUE));
+		}
+
+		@Override
+		public double round(double seconds) {
+			return seconds;
+		}
+
+		@Override
+		public double ceil(double seconds) {
+			return seconds;
+		}
+
+		@Override
+		public boolean isExact() {
+			return true;
+		}
+
+		private Object readResolve() {
+			return EXACT;
+		}
+	}
+}
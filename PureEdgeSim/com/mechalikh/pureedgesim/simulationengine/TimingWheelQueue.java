@@ -0,0 +1,451 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Queue} that stores the elements due within a given horizon in a
+ * hierarchical timing wheel, and the farther ones in a sorted set.
+ * <p>
+ * Most delays in a simulation are short: network updates, status updates, and
+ * task executions of a few seconds or minutes. The time is divided into slots
+ * of a fixed width, and each level of the wheel has 64 slots, each one covering
+ * a whole turn of the level below. An element is put in the slot of the lowest
+ * level that covers its time, which takes constant time. When the wheel turns
+ * to a slot of a higher level, its elements are moved down (each element moves
+ * at most once per level), and the slot of the lowest level that comes next is
+ * sorted to be dequeued. The next occupied slot is found using a bit mask per
+ * level, without going through the empty ones.
+ * <p>
+ * The elements beyond the horizon of the wheel are kept in a sorted set, and
+ * moved to the wheel once it gets there. Elements are ordered exactly as in the
+ * {@link FutureQueue}, by time then by serial, so switching between the queues
+ * does not change the simulation results.
+ *
+ * @see FutureQueue
+ * @see CalendarQueue
+ * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventsQueue
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class TimingWheelQueue<T extends QueueElement> implements Queue<T> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of slots of each level, 64, so that the occupied slots of a
+	 * level fit in a long.
+	 */
+	protected static final int SLOT_BITS = 6;
+	protected static final int SLOTS = 1 << SLOT_BITS;
+	protected static final int SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * The maximum number of levels, so that the slots indexes stay positive.
+	 */
+	protected static final int MAX_LEVELS = 10;
+
+	/**
+	 * The time interval covered by a slot of the lowest level.
+	 */
+	protected final double slotWidth;
+
+	/**
+	 * The number of levels, which sets the horizon of the wheel.
+	 */
+	protected final int levels;
+
+	/**
+	 * The slots of each level, and the occupied slots of each level (bit i is set
+	 * when slot i holds at least one element).
+	 */
+	protected final Slot[][] slots;
+	protected final long[] occupied;
+
+	/**
+	 * The slot (i.e. time / slot width) whose elements are dequeued first. No
+	 * element of the wheel is located before it.
+	 */
+	protected long cursor;
+
+	/**
+	 * The sorted elements of the current slot.
+	 */
+	protected CalendarQueue.Bucket current = new CalendarQueue.Bucket();
+
+	/**
+	 * The elements beyond the horizon of the wheel.
+	 */
+	protected final TreeSet<T> overflow = new TreeSet<>(new ElementsComparator());
+
+	/**
+	 * The number of elements in the queue.
+	 */
+	protected int size;
+
+	protected long serial;
+
+	protected long lowestSerial;
+
+	protected long maxTsNumber;
+
+	/**
+	 * Creates a timing wheel with 10 ms slots and a ten minutes horizon.
+	 */
+	public TimingWheelQueue() {
+		this(0.01, 600);
+	}
+
+	/**
+	 * Creates a timing wheel.
+	 *
+	 * @param slotWidth the time interval covered by a slot of the lowest level,
+	 *                  e.g. the shortest delay between two events.
+	 * @param horizon   the delay beyond which the elements are kept in a sorted
+	 *                  set instead of the wheel.
+	 */
+	public TimingWheelQueue(double slotWidth, double horizon) {
+		if (!(slotWidth > 0) || !(horizon >= slotWidth))
+			throw new IllegalArgumentException(getClass().getSimpleName()
+					+ " - Error, the slot width must be > 0 and not greater than the horizon.");
+		this.slotWidth = slotWidth;
+
+		int levelsCount = 1;
+		for (double covered = slotWidth * SLOTS; covered < horizon && levelsCount < MAX_LEVELS; covered *= SLOTS)
+			levelsCount++;
+		this.levels = levelsCount;
+
+		slots = new Slot[levels][SLOTS];
+		for (Slot[] level : slots)
+			for (int i = 0; i < SLOTS; i++)
+				level[i] = new Slot();
+		occupied = new long[levels];
+	}
+
+	@Override
+	public void add(final T item) {
+		item.setSerial(serial++);
+		insert(item);
+	}
+
+	@Override
+	public void addFirst(final T item) {
+		item.setSerial(--lowestSerial);
+		insert(item);
+	}
+
+	/**
+	 * Puts the element in the current slot, in the wheel, or in the sorted set
+	 * depending on how far it is.
+	 *
+	 * @param item the element to insert.
+	 */
+	protected void insert(final T item) {
+		long slot = slotOf(item);
+		if (size == 0)
+			cursor = slot;
+		size++;
+		maxTsNumber = Math.max(maxTsNumber, size);
+
+		if (slot <= cursor)
+			current.insert(item);
+		else
+			place(item, slot);
+	}
+
+	/**
+	 * Puts an element that is after the current slot in the wheel, at the lowest
+	 * level that covers it, or in the sorted set if it is beyond the horizon.
+	 *
+	 * @param item the element.
+	 * @param slot its slot.
+	 */
+	protected void place(final T item, final long slot) {
+		int level = levelOf(slot);
+		if (level >= levels) {
+			overflow.add(item);
+			return;
+		}
+		int index = indexOf(slot, level);
+		slots[level][index].add(item);
+		occupied[level] |= 1L << index;
+	}
+
+	@Override
+	public T first() throws NoSuchElementException {
+		if (size == 0)
+			throw new NoSuchElementException();
+		advance();
+		return first(current);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T pollFirst() {
+		if (size == 0)
+			return null;
+		advance();
+		size--;
+		return (T) current.pollFirst();
+	}
+
+	@Override
+	public boolean remove(final T item) {
+		if (size == 0)
+			return false;
+
+		long slot = slotOf(item);
+		boolean removed;
+		if (slot <= cursor)
+			removed = current.remove(item);
+		else {
+			int level = levelOf(slot);
+			if (level >= levels)
+				removed = overflow.remove(item);
+			else {
+				int index = indexOf(slot, level);
+				removed = slots[level][index].remove(item);
+				if (slots[level][index].size == 0)
+					occupied[level] &= ~(1L << index);
+			}
+		}
+		if (removed)
+			size--;
+		return removed;
+	}
+
+	/**
+	 * Turns the wheel until the current slot holds an element: finds the next
+	 * occupied slot, starting from the lowest level, and moves down the elements
+	 * of the higher levels slots on the way. Once the wheel is empty, it jumps to
+	 * the first element beyond its horizon.
+	 */
+	protected void advance() {
+		while (current.size == 0) {
+			int level = 0;
+			long next = 0;
+			while (level < levels && (next = nextOccupied(level)) == 0)
+				level++;
+
+			if (level == levels) {
+				moveOverflowToWheel();
+				continue;
+			}
+
+			int index = Long.numberOfTrailingZeros(next);
+			// The first slot covered by the higher level slot
+			int shift = SLOT_BITS * level;
+			cursor = (cursor >> (shift + SLOT_BITS) << (shift + SLOT_BITS)) | ((long) index << shift);
+
+			Slot slot = slots[level][index];
+			occupied[level] &= ~(1L << index);
+			for (int i = 0; i < slot.size; i++) {
+				@SuppressWarnings("unchecked")
+				T item = (T) slot.items[i];
+				long itemSlot = slotOf(item);
+				if (itemSlot <= cursor)
+					current.insert(item);
+				else
+					place(item, itemSlot);
+			}
+			slot.clear();
+		}
+	}
+
+	/**
+	 * Gets the occupied slots of a level that are after the current one.
+	 *
+	 * @param level the level.
+	 * @return the bit mask of the occupied slots, 0 if there is none.
+	 */
+	protected long nextOccupied(int level) {
+		int index = indexOf(cursor, level);
+		return index == SLOT_MASK ? 0 : occupied[level] & (-1L << (index + 1));
+	}
+
+	/**
+	 * Moves the wheel to the slot of the first element beyond its horizon, then
+	 * moves into the wheel all the elements that are now within its horizon.
+	 */
+	protected void moveOverflowToWheel() {
+		cursor = slotOf(overflow.first());
+		while (!overflow.isEmpty()) {
+			long slot = slotOf(overflow.first());
+			if (slot > cursor && levelOf(slot) >= levels)
+				break;
+			T item = overflow.pollFirst();
+			if (slot <= cursor)
+				current.insert(item);
+			else
+				place(item, slot);
+		}
+	}
+
+	protected long slotOf(QueueElement item) {
+		return (long) Math.floor(item.getTime() / slotWidth);
+	}
+
+	/**
+	 * Gets the level of the wheel where an element of the given slot is stored:
+	 * the lowest level at which it is in the same turn as the current slot.
+	 *
+	 * @param slot the slot, after the current one.
+	 * @return the level, which is {@link #levels} or more if it is beyond the
+	 *         horizon.
+	 */
+	protected int levelOf(long slot) {
+		return (63 - Long.numberOfLeadingZeros(slot ^ cursor)) / SLOT_BITS;
+	}
+
+	protected static int indexOf(long slot, int level) {
+		return (int) (slot >> (SLOT_BITS * level)) & SLOT_MASK;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T first(CalendarQueue.Bucket bucket) {
+		return (T) bucket.items[bucket.head];
+	}
+
+	/**
+	 * Returns the elements sorted as they will be dequeued. As the elements are
+	 * not stored in a single sorted collection, the result is a sorted copy of the
+	 * queue.
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<T> toSortedList() {
+		List<T> elements = new ArrayList<>(size);
+		for (int i = current.head; i < current.head + current.size; i++)
+			elements.add((T) current.items[i]);
+		for (Slot[] level : slots)
+			for (Slot slot : level)
+				for (int i = 0; i < slot.size; i++)
+					elements.add((T) slot.items[i]);
+		elements.addAll(overflow);
+		elements.sort(CalendarQueue::compare);
+		return Collections.unmodifiableList(elements);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return toSortedList().iterator();
+	}
+
+	@Override
+	public Stream<T> stream() {
+		return toSortedList().stream();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean anyMatch(Predicate<? super T> predicate) {
+		for (int i = current.head; i < current.head + current.size; i++)
+			if (predicate.test((T) current.items[i]))
+				return true;
+		for (Slot[] level : slots)
+			for (Slot slot : level)
+				for (int i = 0; i < slot.size; i++)
+					if (predicate.test((T) slot.items[i]))
+						return true;
+		for (T element : overflow)
+			if (predicate.test(element))
+				return true;
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the maximum number of elements that have been stored at the same
+	 * time in this queue.
+	 *
+	 * @return the maximum size reached by the queue.
+	 */
+	public long getMaxTsNumber() {
+		return maxTsNumber;
+	}
+
+	/**
+	 * A slot of the wheel: the elements, in no particular order.
+	 */
+	protected static class Slot implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		protected Object[] items = new Object[4];
+		protected int size;
+
+		protected void add(QueueElement item) {
+			if (size == items.length) {
+				Object[] newItems = new Object[items.length * 2];
+				System.arraycopy(items, 0, newItems, 0, size);
+				items = newItems;
+			}
+			items[size++] = item;
+		}
+
+		protected boolean remove(QueueElement item) {
+			for (int i = 0; i < size; i++) {
+				if (CalendarQueue.compare((QueueElement) items[i], item) == 0) {
+					items[i] = items[--size];
+					items[size] = null;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		protected void clear() {
+			for (int i = 0; i < size; i++)
+				items[i] = null;
+			size = 0;
+		}
+	}
+
+	/**
+	 * Orders the elements beyond the horizon as the other queues do.
+	 */
+	protected static class ElementsComparator implements Comparator<QueueElement>, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compare(QueueElement a, QueueElement b) {
+			return CalendarQueue.compare(a, b);
+		}
+	}
+
+}
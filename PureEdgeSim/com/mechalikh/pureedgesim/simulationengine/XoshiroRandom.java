@@ -0,0 +1,125 @@
+/**
+ *     PureEdgeSim:  A Simulation Framework for Performance Evaluation of Cloud, Edge and Mist Computing Environments
+ *
+ *     This file is part of PureEdgeSim Project.
+ *
+ *     PureEdgeSim is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     PureEdgeSim is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with PureEdgeSim. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *     @author Charafeddine Mechalikh
+ **/
+package com.mechalikh.pureedgesim.simulationengine;
+
+import java.util.Random;
+
+/**
+ * A fast pseudo-random number generator, based on the xoshiro256** algorithm
+ * of Blackman and Vigna. It extends {@link Random}, so it can be used wherever
+ * a {@code Random} is expected, but unlike it, it does not synchronize the
+ * draws: an instance must not be shared by several threads. Each entity should
+ * get its own stream from the {@link RandomStreams} of the simulation instead.
+ * <p>
+ * The same seed always gives the same sequence, and the state of the generator
+ * is saved with the simulation checkpoints.
+ *
+ * @see RandomStreams
+ *
+ * @author Charafeddine Mechalikh
+ * @since PureEdgeSim 5.4
+ */
+public class XoshiroRandom extends Random {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The increment of the SplitMix64 generator.
+	 */
+	protected static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The state of the generator.
+	 */
+	protected long s0;
+	protected long s1;
+	protected long s2;
+	protected long s3;
+
+	/**
+	 * Creates a generator with the given seed.
+	 *
+	 * @param seed the seed.
+	 */
+	public XoshiroRandom(long seed) {
+		// Calls setSeed(seed)
+		super(seed);
+	}
+
+	/**
+	 * Sets the seed of this generator. The four words of the state are generated
+	 * from it using SplitMix64, so that similar seeds give unrelated sequences.
+	 *
+	 * @param seed the seed.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		long x = seed;
+		s0 = mix(x += GOLDEN_GAMMA);
+		s1 = mix(x += GOLDEN_GAMMA);
+		s2 = mix(x += GOLDEN_GAMMA);
+		s3 = mix(x + GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Creates a new generator, seeded by this one. The sequences of both
+	 * generators are independent in practice.
+	 *
+	 * @return the new generator.
+	 */
+	public XoshiroRandom split() {
+		return new XoshiroRandom(nextLong());
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		final long result = Long.rotateLeft(s1 * 5, 7) * 9;
+		final long t = s1 << 17;
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft(s3, 45);
+		return result;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * The output function of the SplitMix64 generator.
+	 *
+	 * @param z the value to mix.
+	 * @return the mixed value.
+	 */
+	protected static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
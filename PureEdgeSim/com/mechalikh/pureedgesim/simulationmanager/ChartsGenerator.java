@@ -36,13 +36,14 @@ import org.knowm.xchart.XYSeries;
 import org.knowm.xchart.style.Styler.ChartTheme;
 import org.knowm.xchart.style.markers.SeriesMarkers;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 
 public class ChartsGenerator {
 
 	protected List<String[]> records = new ArrayList<>(50);
 	protected String fileName;
 	protected String folder;
+	protected SimulationConfiguration configuration;
 	protected List<String> energyChartsList = List.of("Energy consumption of computing nodes (Wh)",
 			"Average energy consumption (Wh/Computing node)", "Cloud energy consumption (Wh)",
 			"Average Cloud energy consumption (Wh/Data center)", "Edge energy consumption (Wh)",
@@ -64,7 +65,12 @@ public class ChartsGenerator {
 			"Containers lan usage (s)");
 
 	public ChartsGenerator(String fileName) {
+		this(fileName, SimulationConfiguration.fromParameters());
+	}
+
+	public ChartsGenerator(String fileName, SimulationConfiguration configuration) {
 		this.fileName = fileName;
+		this.configuration = configuration;
 		loadFile();
 	}
 
@@ -100,31 +106,31 @@ public class ChartsGenerator {
 
 	public void generateChart(String x_series, String y_series, String y_series_label, boolean byAlgorithms) {
 		XYChart chart;
-		for (int i = 0; i < (byAlgorithms ? SimulationParameters.orchestrationAlgorithms.length
-				: SimulationParameters.orchestrationArchitectures.length); i++) {
-			chart = initChart(x_series, y_series, y_series_label, getArray(byAlgorithms)[i]);
-			for (int j = 0; j < (byAlgorithms ? SimulationParameters.orchestrationArchitectures.length
-					: SimulationParameters.orchestrationAlgorithms.length); j++) {
+		for (int i = 0; i < (byAlgorithms ? configuration.orchestrationAlgorithms.size()
+				: configuration.orchestrationArchitectures.size()); i++) {
+			chart = initChart(x_series, y_series, y_series_label, getArray(byAlgorithms).get(i));
+			for (int j = 0; j < (byAlgorithms ? configuration.orchestrationArchitectures.size()
+					: configuration.orchestrationAlgorithms.size()); j++) {
 				double[] xData = toArray(
-						getColumn(x_series, SimulationParameters.orchestrationArchitectures[(byAlgorithms ? j : i)],
-								SimulationParameters.orchestrationAlgorithms[(byAlgorithms ? i : j)]));
+						getColumn(x_series, configuration.orchestrationArchitectures.get(byAlgorithms ? j : i),
+								configuration.orchestrationAlgorithms.get(byAlgorithms ? i : j)));
 				double[] yData = toArray(
-						getColumn(y_series, SimulationParameters.orchestrationArchitectures[(byAlgorithms ? j : i)],
-								SimulationParameters.orchestrationAlgorithms[(byAlgorithms ? i : j)]));
+						getColumn(y_series, configuration.orchestrationArchitectures.get(byAlgorithms ? j : i),
+								configuration.orchestrationAlgorithms.get(byAlgorithms ? i : j)));
 
-				XYSeries series = chart.addSeries(getArray(!byAlgorithms)[j], xData, yData);
+				XYSeries series = chart.addSeries(getArray(!byAlgorithms).get(j), xData, yData);
 				series.setMarker(SeriesMarkers.CIRCLE); // Marker type: circle,rectangle, diamond..
 				series.setLineStyle(new BasicStroke());
 			}
 			// Save the chart
 			saveBitmap(chart, (byAlgorithms ? "Architectures" : "Algorithms") + folder + "/",
-					y_series + "__" + getArray(byAlgorithms)[i]);
+					y_series + "__" + getArray(byAlgorithms).get(i));
 		}
 	}
 
-	protected String[] getArray(boolean byAlgorithms) {
-		return (byAlgorithms ? SimulationParameters.orchestrationAlgorithms
-				: SimulationParameters.orchestrationArchitectures);
+	protected List<String> getArray(boolean byAlgorithms) {
+		return (byAlgorithms ? configuration.orchestrationAlgorithms
+				: configuration.orchestrationArchitectures);
 	}
 
 	protected XYChart initChart(String x_series, String y_series, String y_series_label, String title) {
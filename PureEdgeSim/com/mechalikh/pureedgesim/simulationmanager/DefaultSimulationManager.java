@@ -29,7 +29,9 @@ import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationengine.OnSimulationStartListener;
+import com.mechalikh.pureedgesim.simulationengine.OnTickListener;
 import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.StateSavingEntity;
 import com.mechalikh.pureedgesim.simulationvisualizer.SimulationVisualizer;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
@@ -51,7 +53,9 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 4.2
  */
-public class DefaultSimulationManager extends SimulationManager implements OnSimulationStartListener {
+public class DefaultSimulationManager extends SimulationManager
+		implements OnSimulationStartListener, OnTickListener, StateSavingEntity {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Simulation progress parameters.
@@ -74,6 +78,15 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 	 **/
 	protected int sentTasks = 0;
 
+	/**
+	 * Whether the simulation duration is over and the simulation is waiting for
+	 * the remaining tasks, and whether its end has been scheduled.
+	 * 
+	 * @see SimulationParameters#waitForAllTasksToFinish
+	 */
+	protected boolean waitingForTasks = false;
+	protected boolean endScheduled = false;
+
 	/**
 	 * Initializes the simulation manager.
 	 * 
@@ -90,6 +103,13 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 	public DefaultSimulationManager(SimLog simLog, PureEdgeSim pureEdgeSim, int simulationId, int iteration,
 			Scenario scenario) {
 		super(simLog, pureEdgeSim, simulationId, iteration, scenario);
+
+		// The events of the tasks lifecycle are passed directly to their handlers
+		setHandler(SEND_TO_ORCH, this::offloadTask, DefaultSimulationManager.class);
+		setHandler(SEND_TASK_FROM_ORCH_TO_DESTINATION, this::sendFromOrchToDestination, DefaultSimulationManager.class);
+		setHandler(EXECUTE_TASK, this::executeTask, DefaultSimulationManager.class);
+		setHandler(TRANSFER_RESULTS_TO_ORCH, this::taskExecuted, DefaultSimulationManager.class);
+		setHandler(RESULT_RETURN_FINISHED, this::resultsReturned, DefaultSimulationManager.class);
 	}
 
 	/**
@@ -100,7 +120,7 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 	@Override
 	public void startSimulation() {
 		// Show real-time results during the simulation.
-		if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
+		if (getConfiguration().displayRealTimeCharts && !getConfiguration().parallelism_enabled)
 			simulationVisualizer = new SimulationVisualizer(this);
 
 		simLog.print("%s -  %s", getClass().getSimpleName(), scenario.toString());
@@ -121,7 +141,7 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 				getIteration());
 
 		// Schedule the tasks offloading (first batch).
-		for (int i = 0; i < Math.min(taskList.size(), SimulationParameters.batchSize); i++) {
+		for (int i = 0; i < Math.min(taskList.size(), getConfiguration().batchSize); i++) {
 			schedule(this, taskList.first().getTime() - simulation.clock(), SEND_TO_ORCH, taskList.first());
 			taskList.remove(taskList.first());
 		}
@@ -131,10 +151,10 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 			schedule(this, taskList.first().getTime() - simulation.clock(), NEXT_BATCH);
 
 		// Scheduling the end of the simulation.
-		schedule(this, SimulationParameters.simulationDuration, PRINT_LOG);
+		schedule(this, getConfiguration().simulationDuration, PRINT_LOG);
 
 		// Schedule the update of real-time charts.
-		if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled)
+		if (getConfiguration().displayRealTimeCharts && !getConfiguration().parallelism_enabled)
 			scheduleNow(this, UPDATE_REAL_TIME_CHARTS);
 
 		// Show simulation progress.
@@ -155,11 +175,10 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 	 */
 	@Override
 	public void processEvent(Event ev) {
-		Task task = (Task) ev.getData();
 		switch (ev.getTag()) {
 		case NEXT_BATCH:
 			// Schedule this batch.
-			for (int i = 0; i < Math.min(taskList.size(), SimulationParameters.batchSize); i++) {
+			for (int i = 0; i < Math.min(taskList.size(), getConfiguration().batchSize); i++) {
 				schedule(this, taskList.first().getTime() - simulation.clock(), SEND_TO_ORCH, taskList.first());
 				taskList.remove(taskList.first());
 			}
@@ -167,40 +186,6 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 			if (taskList.size() > 0)
 				schedule(this, taskList.first().getTime() - simulation.clock(), NEXT_BATCH);
 			break;
-		case SEND_TO_ORCH:
-			// Send the offloading request to the closest orchestrator.
-			sendTaskToOrchestrator(task);
-			sentTasks++;
-			break;
-
-		case SEND_TASK_FROM_ORCH_TO_DESTINATION:
-			// The offlaoding decision was made, send the request from the orchestrator to
-			// the offloading destination.
-			sendFromOrchToDestination(task);
-			break;
-
-		case EXECUTE_TASK:
-			// Offlaoding request received by the destination, execute the task.
-			if (taskFailed(task, 2))
-				return;
-			task.getOffloadingDestination().submitTask(task);
-			break;
-
-		case TRANSFER_RESULTS_TO_ORCH:
-			// Task execution finished, transfer the results to the orchestrator.
-			finishedTasks.add(task);
-			sendResultsToOchestrator(task);
-			break;
-
-		case RESULT_RETURN_FINISHED:
-			// Results returned to edge device.
-			if (taskFailed(task, 3))
-				return;
-
-			edgeOrchestrator.resultsReturned(task);
-			tasksCount++;
-			break;
-
 		case SHOW_PROGRESS:
 			// Calculate the simulation progress.
 			int progress = 100 * tasksCount / simLog.getGeneratedTasks();
@@ -213,42 +198,46 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 				} else
 					simLog.printSameLine("#", "red");
 			}
-			schedule(this, SimulationParameters.simulationDuration / 100, SHOW_PROGRESS);
+			schedule(this, getConfiguration().simulationDuration / 100, SHOW_PROGRESS);
 			break;
 
 		case UPDATE_REAL_TIME_CHARTS:
 			// Update simulation Map, network utilization, and the other real-time charts.
+			// The charts are not saved in checkpoints, so they are created again once the
+			// simulation has been restored or forked.
+			if (simulationVisualizer == null)
+				simulationVisualizer = new SimulationVisualizer(this);
 			simulationVisualizer.updateCharts();
 
 			// Schedule the next update.
-			schedule(this, SimulationParameters.chartsUpdateInterval, UPDATE_REAL_TIME_CHARTS);
+			schedule(this, getConfiguration().chartsUpdateInterval, UPDATE_REAL_TIME_CHARTS);
 			break;
 
 		case PRINT_LOG:
 
 			// Whether to wait or not, if some tasks have not been executed yet.
-			if (SimulationParameters.waitForAllTasksToFinish && (tasksCount / simLog.getGeneratedTasks()) < 1) {
-				// 1 = 100% , 0,9= 90%
-				// Some tasks may take hours to be executed that's why we don't wait until
-				// all of them get executed, but we only wait for 99% of tasks to be executed at
-				// least, to end the simulation. that's why we set it to " < 0.99"
-				// especially when 1% doesn't affect the simulation results that much, change
-				// this value to lower ( 95% or 90%) in order to make simulation faster. however
-				// this may affect the results.
-				schedule(this, 10, PRINT_LOG);
+			if (getConfiguration().waitForAllTasksToFinish && !allTasksResolved() && !endScheduled) {
+				// Instead of checking again periodically, the end of the simulation is
+				// scheduled as soon as the last task is resolved (see taskResolved()), or
+				// once only housekeeping events are left (see onTick()).
+				waitingForTasks = true;
+				simulation.addTickListener(this, getConfiguration().updateInterval, -1);
 				break;
 			}
 
 			simLog.printSameLine(" 100% ]", "red");
 
-			if (SimulationParameters.displayRealTimeCharts && !SimulationParameters.parallelism_enabled) {
+			// The charts may not have been displayed yet if the simulation has been restored
+			// or forked.
+			if (getConfiguration().displayRealTimeCharts && !getConfiguration().parallelism_enabled
+					&& simulationVisualizer != null) {
 
 				// Close real time charts after the end of the simulation.
-				if (SimulationParameters.autoCloseRealTimeCharts)
+				if (getConfiguration().autoCloseRealTimeCharts)
 					simulationVisualizer.close();
 				try {
 					// Save those charts in bitmap and vector formats.
-					if (SimulationParameters.saveCharts)
+					if (getConfiguration().saveCharts)
 						simulationVisualizer.saveCharts();
 				} catch (IOException e) {
 					e.printStackTrace();
@@ -261,12 +250,61 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 			simulation.terminate();
 			break;
 		default:
-			simLog.print("%s - Unknown event type", this.getClass().getSimpleName());
+			// The events of the tasks lifecycle come here when a subclass overrides this
+			// method
+			if (!invokeHandler(ev))
+				simLog.print("%s - Unknown event type", this.getClass().getSimpleName());
 			break;
 		}
 
 	}
 
+	/**
+	 * Sends the offloading request to the closest orchestrator.
+	 *
+	 * @param task The task to offload.
+	 */
+	protected void offloadTask(Task task) {
+		sendTaskToOrchestrator(task);
+		sentTasks++;
+	}
+
+	/**
+	 * Executes the task, once the offloading request has been received by the
+	 * destination.
+	 *
+	 * @param task The task to execute.
+	 */
+	protected void executeTask(Task task) {
+		if (taskFailed(task, 2))
+			return;
+		task.getOffloadingDestination().submitTask(task);
+	}
+
+	/**
+	 * Transfers the results to the orchestrator, once the task has been executed.
+	 *
+	 * @param task The task that has been executed.
+	 */
+	protected void taskExecuted(Task task) {
+		finishedTasks.add(task);
+		sendResultsToOchestrator(task);
+	}
+
+	/**
+	 * Notifies the orchestrator once the results have been returned to the edge
+	 * device.
+	 *
+	 * @param task The task whose results have been returned.
+	 */
+	protected void resultsReturned(Task task) {
+		if (taskFailed(task, 3))
+			return;
+
+		edgeOrchestrator.resultsReturned(task);
+		taskResolved();
+	}
+
 	/**
 	 * Returns the task execution results to the orchestrator.
 	 *
@@ -304,7 +342,7 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 
 				task.setFailureReason(Task.FailureReason.NO_OFFLOADING_DESTINATIONS);
 				simLog.incrementTasksFailedLackOfRessources(task);
-				tasksCount++;
+				taskResolved();
 				return;
 			}
 
@@ -329,13 +367,68 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 		if (taskFailed(task, 0))
 			return;
 
-		if (SimulationParameters.enableOrchestrators)
+		if (getConfiguration().enableOrchestrators)
 			task.setOrchestrator(task.getEdgeDevice().getOrchestrator());
 		simLog.incrementTasksSent();
 
 		scheduleNow(networkModel, NetworkModel.SEND_REQUEST_FROM_DEVICE_TO_ORCH, task);
 	}
 
+	/**
+	 * Counts a task that has been resolved, i.e. whose results have been returned
+	 * or that has failed. Once the simulation duration is over, the simulation
+	 * ends as soon as the last task is resolved.
+	 */
+	protected void taskResolved() {
+		tasksCount++;
+		if (waitingForTasks && allTasksResolved())
+			scheduleEnd();
+	}
+
+	/**
+	 * Returns whether all the generated tasks have been resolved.
+	 * 
+	 * @return true if there is no outstanding task.
+	 */
+	protected boolean allTasksResolved() {
+		return tasksCount >= simLog.getGeneratedTasks();
+	}
+
+	/**
+	 * Ends the simulation when the remaining tasks will never be resolved, i.e.
+	 * when only housekeeping events are left. Called periodically once the
+	 * simulation duration is over.
+	 * 
+	 * @see #isHousekeeping(Event)
+	 */
+	@Override
+	public void onTick() {
+		if (waitingForTasks && simulation.hasOnlyHousekeepingEvents()) {
+			simLog.print("%s - No more events for the %d remaining tasks, ending the simulation.",
+					getClass().getSimpleName(), simLog.getGeneratedTasks() - tasksCount);
+			scheduleEnd();
+		}
+	}
+
+	/**
+	 * Schedules the end of the simulation now, once.
+	 */
+	protected void scheduleEnd() {
+		if (endScheduled)
+			return;
+		endScheduled = true;
+		waitingForTasks = false;
+		scheduleNow(this, PRINT_LOG);
+	}
+
+	/**
+	 * The progress reports and the charts updates are periodic.
+	 */
+	@Override
+	protected boolean isHousekeeping(Event e) {
+		return e.getTag() == SHOW_PROGRESS || e.getTag() == UPDATE_REAL_TIME_CHARTS;
+	}
+
 	/**
 	 * Used to get the task failure rate.
 	 * 
@@ -419,7 +512,7 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 
 		// Keep record of the failed and returned tasks
 		failedTasksCount++;
-		tasksCount++;
+		taskResolved();
 
 		// Since the task has been failed, its application should be placed on another
 		// location next time, to avoid the failure of future tasks
@@ -443,12 +536,34 @@ public class DefaultSimulationManager extends SimulationManager implements OnSim
 		if (Dev1.getType() == TYPES.CLOUD || Dev2.getType() == TYPES.CLOUD)
 			return true;
 		double distance = Dev1.getMobilityModel().distanceTo(Dev2);
-		int RANGE = SimulationParameters.edgeDevicesRange;
+		int RANGE = getConfiguration().edgeDevicesRange;
 		if (Dev1.getType() != Dev2.getType()) // One of them is an edge data center and the other is an edge device
-			RANGE = SimulationParameters.edgeDataCentersRange;
+			RANGE = getConfiguration().edgeDataCentersRange;
 		return (distance < RANGE);
 	}
 
-	
+	/**
+	 * Saves the counters of the simulation manager, so they can be rolled back by
+	 * the optimistic simulation engine. The tasks list, the simulation logger and
+	 * the other modules are not saved: the simulation manager is shared by all
+	 * partitions, and its events are never processed optimistically. Subclasses
+	 * that put it in a partition must save the rest of their state too.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim
+	 */
+	@Override
+	public Object saveState() {
+		return new int[] { lastWrittenNumber, oldProgress, failedTasksCount, tasksCount, sentTasks };
+	}
+
+	@Override
+	public void restoreState(Object state) {
+		int[] counters = (int[]) state;
+		lastWrittenNumber = counters[0];
+		oldProgress = counters[1];
+		failedTasksCount = counters[2];
+		tasksCount = counters[3];
+		sentTasks = counters[4];
+	}
 
-}
\ No newline at end of file
+}
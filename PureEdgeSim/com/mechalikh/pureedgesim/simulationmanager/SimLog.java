@@ -24,6 +24,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -41,10 +42,14 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.energy.EnergyModelNetworkLink;
 import com.mechalikh.pureedgesim.network.NetworkLink;
 import com.mechalikh.pureedgesim.network.TransferProgress;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.simulationengine.EngineMetrics;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
-public class SimLog {
+public class SimLog implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	public static final int NO_TIME = 0;
 	public static final int SAME_LINE = 1;
 	public static final int DEFAULT = 2;
@@ -55,8 +60,17 @@ public class SimLog {
 	protected String currentOrchAlgorithm;
 	protected int currentEdgeDevicesCount;
 	protected String simStartTime;
+
+	/**
+	 * Added to the names of the output files of a forked simulation, so that each
+	 * fork saves its results in its own files.
+	 * 
+	 * @see #setForkIndex(int)
+	 */
+	protected String forkSuffix = "";
 	protected SimulationManager simulationManager;
 	protected boolean isFirstIteration;
+	protected SimulationConfiguration configuration;
 
 	// Tasks execution results
 	protected int generatedTasksCount = 0;
@@ -89,8 +103,13 @@ public class SimLog {
 	protected Double totalTraffic = 0.0;
 
 	public SimLog(String startTime, boolean isFirstIteration) {
+		this(startTime, isFirstIteration, SimulationConfiguration.fromParameters());
+	}
+
+	public SimLog(String startTime, boolean isFirstIteration, SimulationConfiguration configuration) {
 		this.setSimStartTime(startTime);
 		this.isFirstIteration = isFirstIteration;
+		this.configuration = configuration;
 
 		// Use this format for all numbers
 		DecimalFormatSymbols otherSymbols = new DecimalFormatSymbols(Locale.GERMAN);
@@ -140,15 +159,15 @@ public class SimLog {
 		double averageMistCpuUtilization = getCpuUtilizationForNodeType(SimulationParameters.TYPES.EDGE_DEVICE);
 
 		int totalNodes = simulationManager.getDataCentersManager()
-				.getComputingNodesGenerator().getMistOnlyListSensorsExcluded().size() + SimulationParameters.numberOfEdgeDataCenters
-				+ SimulationParameters.numberOfCloudDataCenters;
+				.getComputingNodesGenerator().getMistOnlyListSensorsExcluded().size() + configuration.numberOfEdgeDataCenters
+				+ configuration.numberOfCloudDataCenters;
 		if (totalNodes > 0) {
 			averageCpuUtilization = (averageCloudCpuUtilization + averageMistCpuUtilization + averageEdgeCpuUtilization)
 					/ totalNodes;
 		}
 
-		averageCloudCpuUtilization /= SimulationParameters.numberOfCloudDataCenters;
-		averageEdgeCpuUtilization /= SimulationParameters.numberOfEdgeDataCenters;
+		averageCloudCpuUtilization /= configuration.numberOfCloudDataCenters;
+		averageEdgeCpuUtilization /= configuration.numberOfEdgeDataCenters;
 		averageMistCpuUtilization /= simulationManager.getDataCentersManager().getComputingNodesGenerator().getMistOnlyListSensorsExcluded().size();
 
 		print("Average CPU utilization                                                 :"
@@ -357,14 +376,14 @@ public class SimLog {
 		energyConsumption = cloudEnConsumption + edgeEnConsumption + mistEnConsumption;
 		averageRemainingPower = averageRemainingPower / (double) aliveBatteryPoweredDevicesCount;
 		averageRemainingPowerWh = averageRemainingPowerWh / (double) aliveBatteryPoweredDevicesCount;
-		double averageCloudEnConsumption = cloudEnConsumption / SimulationParameters.numberOfCloudDataCenters;
-		double averageEdgeEnConsumption = edgeEnConsumption / SimulationParameters.numberOfEdgeDataCenters;
+		double averageCloudEnConsumption = cloudEnConsumption / configuration.numberOfCloudDataCenters;
+		double averageEdgeEnConsumption = edgeEnConsumption / configuration.numberOfEdgeDataCenters;
 		double averageMistEnConsumption = mistEnConsumption / simulationManager.getScenario().getDevicesCount();
 
 		print("Energy consumption                                                      :"
 				+ padLeftSpaces(decimalFormat.format(energyConsumption), 20) + " Wh (Average: "
 				+ decimalFormat.format(energyConsumption
-						/ (SimulationParameters.numberOfEdgeDataCenters + SimulationParameters.numberOfCloudDataCenters
+						/ (configuration.numberOfEdgeDataCenters + configuration.numberOfCloudDataCenters
 								+ simulationManager.getScenario().getDevicesCount()))
 				+ " Wh/data center(or device))");
 		print("                                                                        :" + padLeftSpaces("", 19)
@@ -372,11 +391,11 @@ public class SimLog {
 				+ " Wh/task)");
 		print("Energy Consumption per level                                            :Cloud= "
 				+ padLeftSpaces(decimalFormat.format(cloudEnConsumption), 13) + " Wh (Average: "
-				+ decimalFormat.format(cloudEnConsumption / SimulationParameters.numberOfCloudDataCenters)
+				+ decimalFormat.format(cloudEnConsumption / configuration.numberOfCloudDataCenters)
 				+ " Wh/data center)");
 		print("                                                                          Edge="
 				+ padLeftSpaces(decimalFormat.format(edgeEnConsumption), 14) + " Wh (Average: "
-				+ decimalFormat.format(edgeEnConsumption / SimulationParameters.numberOfEdgeDataCenters)
+				+ decimalFormat.format(edgeEnConsumption / configuration.numberOfEdgeDataCenters)
 				+ " Wh/data center)");
 		print("                                                                          Mist="
 				+ padLeftSpaces(decimalFormat.format(mistEnConsumption), 14) + " Wh (Average: "
@@ -412,7 +431,7 @@ public class SimLog {
 		resultsList.set(resultsList.size() - 1, resultsList.get(resultsList.size() - 1)
 				+ decimalFormat.format(energyConsumption) + ","
 				+ decimalFormat.format(energyConsumption
-						/ (SimulationParameters.numberOfEdgeDataCenters + SimulationParameters.numberOfCloudDataCenters
+						/ (configuration.numberOfEdgeDataCenters + configuration.numberOfCloudDataCenters
 								+ simulationManager.getScenario().getDevicesCount()))
 				+ "," + decimalFormat.format(cloudEnConsumption) + "," + decimalFormat.format(averageCloudEnConsumption)
 				+ "," + decimalFormat.format(edgeEnConsumption) + "," + decimalFormat.format(averageEdgeEnConsumption)
@@ -433,7 +452,7 @@ public class SimLog {
 		if (isFirstIteration) {
 			print(getClass().getSimpleName() + " - Cleaning the outputfolder...");
 			isFirstIteration = false;
-			Path dir = new File(SimulationParameters.outputFolder).toPath();
+			Path dir = new File(configuration.outputFolder).toPath();
 			deleteDirectory(dir);
 		}
 	}
@@ -457,7 +476,7 @@ public class SimLog {
 		// writing results in csv file
 		writeFile(getFileName(".csv"), getResultsList());
 
-		if (!SimulationParameters.saveLog) {
+		if (!configuration.saveLog) {
 			println("%s - No log saving", getClass().getSimpleName());
 			return;
 		}
@@ -466,6 +485,40 @@ public class SimLog {
 
 	}
 
+	/**
+	 * Saves the metrics of the simulation engine in a CSV file, next to the
+	 * simulation results. The metrics of all iterations are saved in the same
+	 * file.
+	 * 
+	 * @param metrics the metrics of the current iteration.
+	 * 
+	 * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#engineMetrics
+	 */
+	public void saveEngineMetrics(EngineMetrics metrics) {
+		String fileName = getFileName("_engine_metrics.csv");
+		List<String> lines = new ArrayList<>();
+		if (!new File(fileName).exists())
+			lines.add("Scenario,Metric,Entity class,Tag,Key,Value");
+
+		String scenario = currentOrchArchitecture + "_" + currentOrchAlgorithm + "_" + currentEdgeDevicesCount;
+		for (String line : metrics.toCsv())
+			lines.add(scenario + "," + line);
+		writeFile(fileName, lines);
+	}
+
+	/**
+	 * Gets the path of the event trace of the current iteration, next to the
+	 * simulation results.
+	 * 
+	 * @return the path of the trace file.
+	 * 
+	 * @see com.mechalikh.pureedgesim.scenariomanager.SimulationParameters#eventTrace
+	 */
+	public String getEventTraceFileName() {
+		return getFileName("_" + currentOrchArchitecture + "_" + currentOrchAlgorithm + "_" + currentEdgeDevicesCount
+				+ "_events_trace.bin");
+	}
+
 	protected List<String> getResultsList() {
 		return this.resultsList;
 	}
@@ -483,14 +536,35 @@ public class SimLog {
 	}
 
 	public String getFileName(String extension) {
-		String outputFilesName = SimulationParameters.outputFolder + "/" + simStartTime;
+		String outputFilesName = configuration.outputFolder + "/" + simStartTime;
 		new File(outputFilesName).mkdirs();
-		if (SimulationParameters.parallelism_enabled)
+		if (configuration.parallelism_enabled)
 			outputFilesName += "/Parallel_simulation_" + simulationManager.getSimulationId();
 		else
 			outputFilesName += "/Sequential_simulation";
 
-		return outputFilesName + extension;
+		return outputFilesName + forkSuffix + extension;
+	}
+
+	/**
+	 * Makes this log save the results in the files of a fork of the simulation.
+	 * The forks of a fork get the suffixes of both.
+	 * 
+	 * @param index the index of the fork.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.SimulationFork
+	 */
+	public void setForkIndex(int index) {
+		forkSuffix += "_fork_" + index;
+	}
+
+	/**
+	 * Gets the suffix of the output files of this fork of the simulation.
+	 * 
+	 * @return the suffix, empty if the simulation has not been forked.
+	 */
+	public String getForkSuffix() {
+		return forkSuffix;
 	}
 
 	public void print(int flag, String newLine, Object... args) {
@@ -529,14 +603,14 @@ public class SimLog {
 	}
 
 	public void deepLog(String line, Object... args) {
-		if (SimulationParameters.deepLoggingEnabled) {
+		if (configuration.deepLoggingEnabled) {
 			print(DEFAULT, line, args);
 			System.out.format(line, args);
 		}
 	}
 
 	public void deepLog(int flag, String line, Object... args) {
-		if (SimulationParameters.deepLoggingEnabled) {
+		if (configuration.deepLoggingEnabled) {
 			print(flag, line, args);
 		}
 	}
@@ -570,8 +644,8 @@ public class SimLog {
 
 	public void initialize(SimulationManager simulationManager, int dev, int alg, int arch) {
 		this.currentEdgeDevicesCount = dev;
-		this.currentOrchAlgorithm = SimulationParameters.orchestrationAlgorithms[alg];
-		this.currentOrchArchitecture = SimulationParameters.orchestrationArchitectures[arch];
+		this.currentOrchAlgorithm = configuration.orchestrationAlgorithms.get(alg);
+		this.currentOrchArchitecture = configuration.orchestrationArchitectures.get(arch);
 		this.simulationManager = simulationManager;
 	}
 
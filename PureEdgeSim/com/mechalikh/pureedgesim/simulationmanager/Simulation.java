@@ -20,13 +20,17 @@
  **/
 package com.mechalikh.pureedgesim.simulationmanager;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.mechalikh.pureedgesim.scenariomanager.ParametersParser;
 import com.mechalikh.pureedgesim.scenariomanager.Scenario;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 
@@ -94,6 +98,7 @@ import com.mechalikh.pureedgesim.scenariomanager.EdgeDevicesParser;
  * 
  * @see #loadScenarios()
  * @see #launchSimulation()
+ * @see #launchSimulations(List)
  * 
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 4.2
@@ -213,14 +218,90 @@ public class Simulation extends SimulationAbstract {
 	 * @see #setCustomSettingsFolder(String)
 	 */
 	protected void loadScenarios() {
-		// Save the different simulation runs (i.e., scenarios) in the scenarios List
-		for (int algorithmID = 0; algorithmID < SimulationParameters.orchestrationAlgorithms.length; algorithmID++) {
-			for (int architectureID = 0; architectureID < SimulationParameters.orchestrationArchitectures.length; architectureID++) {
-				for (int devicesCount = SimulationParameters.minNumberOfEdgeDevices; devicesCount <= SimulationParameters.maxNumberOfEdgeDevices; devicesCount += SimulationParameters.edgeDevicesIncrementationStepSize) {
-					iterations.add(new Scenario(devicesCount, algorithmID, architectureID));
+		iterations.addAll(loadScenarios(SimulationConfiguration.fromParameters()));
+	}
+
+	/**
+	 * Gets the different simulation runs (i.e., scenarios) of the given
+	 * configuration.
+	 * 
+	 * @param configuration the simulation parameters.
+	 * @return the scenarios.
+	 */
+	protected List<Scenario> loadScenarios(SimulationConfiguration configuration) {
+		List<Scenario> scenarios = new ArrayList<>(20);
+		for (int algorithmID = 0; algorithmID < configuration.orchestrationAlgorithms.size(); algorithmID++) {
+			for (int architectureID = 0; architectureID < configuration.orchestrationArchitectures.size(); architectureID++) {
+				for (int devicesCount = configuration.minNumberOfEdgeDevices; devicesCount <= configuration.maxNumberOfEdgeDevices; devicesCount += configuration.edgeDevicesIncrementationStepSize) {
+					scenarios.add(new Scenario(devicesCount, algorithmID, architectureID));
 				}
 			}
 		}
+		return scenarios;
+	}
+
+	/**
+	 * Checks the input files and returns the simulation parameters they contain.
+	 * This configuration can then be used to create modified ones, in order to
+	 * run them at the same time using {@link #launchSimulations(List)}.
+	 * 
+	 * @return the parameters read from the input files.
+	 * @throws IllegalStateException if any of the input files is not correct.
+	 * @see SimulationConfiguration#toBuilder()
+	 */
+	public SimulationConfiguration loadConfiguration() {
+		SimLog.println("%s - Loading simulation files...", getClass().getSimpleName());
+		if (!checkFiles())
+			throw new IllegalStateException(
+					getClass().getSimpleName() + " - Error, the simulation files are not valid.");
+		return SimulationConfiguration.fromParameters();
+	}
+
+	/**
+	 * Runs the simulations of several configurations at the same time, in this
+	 * JVM, e.g. to compare the results of different parameters. The scenarios of
+	 * all the configurations are distributed among the available CPU cores as when
+	 * parallelism is enabled, whether it is enabled in the configurations or not.
+	 * As the results of each run are saved in a separate file, each configuration
+	 * must have its own output folder.
+	 * 
+	 * @param configurations the parameters of each set of simulations.
+	 * @see #loadConfiguration()
+	 * @see com.mechalikh.pureedgesim.simulationmanager.SimulationThread#startSimulation()
+	 */
+	public void launchSimulations(List<SimulationConfiguration> configurations) {
+		Set<String> outputFolders = new HashSet<>();
+		for (SimulationConfiguration configuration : configurations)
+			if (!outputFolders.add(new File(configuration.outputFolder).getAbsolutePath()))
+				throw new IllegalArgumentException(getClass().getSimpleName()
+						+ " - Error, each configuration must have its own output folder.");
+
+		// Save the simulation starting time.
+		Date startTime = Calendar.getInstance().getTime();
+
+		cpuCores = Runtime.getRuntime().availableProcessors();
+		List<SimulationThread> threads = new ArrayList<>();
+		for (SimulationConfiguration configuration : configurations) {
+			// Run the simulations as parallel ones, so that each one saves its own results.
+			SimulationConfiguration.Builder builder = configuration.toBuilder();
+			builder.parallelism_enabled = true;
+			SimulationConfiguration parallelConfiguration = builder.build();
+
+			List<Scenario> scenarios = loadScenarios(parallelConfiguration);
+			for (int fromIteration = 0; fromIteration < Math.min(cpuCores, scenarios.size()); fromIteration++)
+				threads.add(new SimulationThread(this, parallelConfiguration, scenarios, fromIteration, cpuCores));
+		}
+
+		// Run them all, the common pool limits them to the number of CPU cores.
+		threads.parallelStream().forEach(SimulationThread::startSimulation);
+
+		// At this point, the simulations have finished. So, save the finish time.
+		Date finishTime = Calendar.getInstance().getTime();
+		SimLog.println("%s - Simulations took : %s", getClass().getSimpleName(),
+				simulatioDuration(startTime, finishTime));
+		for (SimulationConfiguration configuration : configurations)
+			SimLog.println("%s - results were saved to the folder: %s", getClass().getSimpleName(),
+					configuration.outputFolder);
 	}
 
 	/**
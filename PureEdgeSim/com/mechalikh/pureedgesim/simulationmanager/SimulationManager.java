@@ -26,7 +26,9 @@ import java.util.List;
 import com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager;
 import com.mechalikh.pureedgesim.network.NetworkModel;
 import com.mechalikh.pureedgesim.scenariomanager.Scenario;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
+import com.mechalikh.pureedgesim.simulationengine.OnForkListener;
 import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
 import com.mechalikh.pureedgesim.simulationengine.SimEntity;
 import com.mechalikh.pureedgesim.simulationvisualizer.SimulationVisualizer;
@@ -41,7 +43,8 @@ import com.mechalikh.pureedgesim.taskorchestrator.Orchestrator;
  * @author Charafeddine Mechalikh
  * @since PureEdgeSim 1.0
  */
-public abstract class SimulationManager extends SimEntity {
+public abstract class SimulationManager extends SimEntity implements OnForkListener {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Simulation manager tags.
@@ -61,7 +64,11 @@ public abstract class SimulationManager extends SimEntity {
 
 	protected Orchestrator edgeOrchestrator;
 	protected DataCentersManager dataCentersManager;
-	protected SimulationVisualizer simulationVisualizer;
+	/**
+	 * The real-time charts. They are not saved in checkpoints, and are created
+	 * again at the next update once the simulation has been restored or forked.
+	 */
+	protected transient SimulationVisualizer simulationVisualizer;
 	protected PureEdgeSim simulation;
 	protected int simulationId;
 	protected int iteration;
@@ -208,6 +215,18 @@ public abstract class SimulationManager extends SimEntity {
 		return simLog;
 	}
 
+	/**
+	 * Makes a fork of the simulation save its results in its own files.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.SimulationFork
+	 * 
+	 * @param index the index of the fork.
+	 */
+	@Override
+	public void onFork(int index) {
+		simLog.setForkIndex(index);
+	}
+
 	/**
 	 * Returns the data centers manager that is used in this simulation.
 	 * 
@@ -229,6 +248,18 @@ public abstract class SimulationManager extends SimEntity {
 	public Scenario getScenario() {
 		return scenario;
 	}
+
+	/**
+	 * Returns the parameters of this simulation, which the simulation entities
+	 * read instead of the static fields of
+	 * {@link com.mechalikh.pureedgesim.scenariomanager.SimulationParameters}.
+	 * 
+	 * @return The simulation configuration.
+	 * @see PureEdgeSim#getConfiguration()
+	 */
+	public SimulationConfiguration getConfiguration() {
+		return simulation.getConfiguration();
+	}
 	
 	/**
 	 * Used to get the task failure rate.
@@ -23,11 +23,15 @@ package com.mechalikh.pureedgesim.simulationmanager;
 import java.lang.reflect.Constructor;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 
 import com.mechalikh.pureedgesim.datacentersmanager.DataCentersManager;
+import com.mechalikh.pureedgesim.network.TransferProgress;
 import com.mechalikh.pureedgesim.scenariomanager.Scenario;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
+import com.mechalikh.pureedgesim.scenariomanager.SimulationConfiguration;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
+import com.mechalikh.pureedgesim.simulationengine.OptimisticPureEdgeSim;
+import com.mechalikh.pureedgesim.simulationengine.ParallelPureEdgeSim;
 import com.mechalikh.pureedgesim.simulationengine.PureEdgeSim;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 import com.mechalikh.pureedgesim.taskgenerator.TaskGenerator;
@@ -73,6 +77,16 @@ public class SimulationThread {
 	 */
 	protected Simulation simulation;
 
+	/**
+	 * The parameters of the simulations run by this thread.
+	 */
+	protected SimulationConfiguration configuration;
+
+	/**
+	 * The scenarios from which this thread runs one every {@link #step}.
+	 */
+	protected List<Scenario> scenarios;
+
 	/**
 	 * Used to run parallel simulations. When parallelism is enabled in the
 	 * simulation settings, the simulation runs are divided between the CPU cores.
@@ -85,7 +99,28 @@ public class SimulationThread {
 	 * @param step          The iteration step.
 	 */
 	public SimulationThread(Simulation simulation, int fromIteration, int step) {
+		this(simulation, SimulationConfiguration.fromParameters(), simulation.getScenarios(), fromIteration, step);
+	}
+
+	/**
+	 * Used to run simulations using the given parameters instead of those read
+	 * from the settings files, e.g. to run simulations with different parameters
+	 * at the same time.
+	 * 
+	 * @see com.mechalikh.pureedgesim.simulationmanager.Simulation#launchSimulations(List)
+	 * @see #startSimulation()
+	 * 
+	 * @param simulation    PureEdgeSim simulation object.
+	 * @param configuration The parameters of the simulations.
+	 * @param scenarios     The scenarios to run.
+	 * @param fromIteration The iteration/scenario from which loop will start.
+	 * @param step          The iteration step.
+	 */
+	public SimulationThread(Simulation simulation, SimulationConfiguration configuration, List<Scenario> scenarios,
+			int fromIteration, int step) {
 		this.simulation = simulation;
+		this.configuration = configuration;
+		this.scenarios = scenarios;
 		this.fromIteration = fromIteration;
 		this.step = step;
 	}
@@ -107,37 +142,60 @@ public class SimulationThread {
 
 		try {
 			// Repeat the operation for different numbers of devices.
-			for (int it = fromIteration; it < simulation.getScenarios().size(); it += step) {
+			for (int it = fromIteration; it < scenarios.size(); it += step) {
 
 				// New SimLog for each simulation (when parallelism is enabled).
-				simLog = new SimLog(startTime, isFirstIteration);
+				simLog = new SimLog(startTime, isFirstIteration, configuration);
 
 				// Clean output folder if it is the first iteration.
-				if (SimulationParameters.cleanOutputFolder && isFirstIteration && fromIteration == 0) {
+				if (configuration.cleanOutputFolder && isFirstIteration && fromIteration == 0) {
 					simLog.cleanOutputFolder();
 				}
 				isFirstIteration = false;
 
 				// New instance of the PureEdgeSim simulation engine.
-				PureEdgeSim pureEdgeSim = new PureEdgeSim();
+				PureEdgeSim pureEdgeSim;
+				if (configuration.parallelEngineThreads <= 1)
+					pureEdgeSim = new PureEdgeSim(configuration);
+				else if ("OPTIMISTIC".equals(configuration.parallelEngineMode))
+					pureEdgeSim = new OptimisticPureEdgeSim(configuration, configuration.parallelEngineThreads,
+							configuration.optimisticWindow);
+				else
+					pureEdgeSim = new ParallelPureEdgeSim(configuration, configuration.parallelEngineThreads);
+				if (configuration.engineMetrics)
+					pureEdgeSim.enableMetrics(configuration.updateInterval);
 
 				// Initialize the simulation manager.
 				Constructor<?> simulationManagerConstructor = simulation.simulationManager.getConstructor(SimLog.class,
 						PureEdgeSim.class, int.class, int.class, Scenario.class);
 				simulationManager = (SimulationManager) simulationManagerConstructor.newInstance(simLog, pureEdgeSim,
-						simulationId, iteration, simulation.getScenarios().get(it));
-				simLog.initialize(simulationManager, simulation.getScenarios().get(it).getDevicesCount(),
-						simulation.getScenarios().get(it).getOrchAlgorithm(),
-						simulation.getScenarios().get(it).getOrchArchitecture());
+						simulationId, iteration, scenarios.get(it));
+				simLog.initialize(simulationManager, scenarios.get(it).getDevicesCount(),
+						scenarios.get(it).getOrchAlgorithm(),
+						scenarios.get(it).getOrchArchitecture());
 
 				// Load custom classes and models.
 				loadModels(simulationManager);
 
+				// Record the processed events, if enabled.
+				if (configuration.eventTrace)
+					pureEdgeSim.enableEventTrace(simLog.getEventTraceFileName(), configuration.eventTraceCapacity)
+							.setPayloadIds(SimulationThread::getPayloadId);
+
 				// Finally, launch the simulation.
-				simulationManager.startSimulation();
+				try {
+					simulationManager.startSimulation();
+				} finally {
+					if (pureEdgeSim.getEventTrace() != null)
+						pureEdgeSim.getEventTrace().close();
+				}
+
+				// Save the metrics of the simulation engine, if enabled.
+				if (pureEdgeSim.getMetrics() != null)
+					simLog.saveEngineMetrics(pureEdgeSim.getMetrics());
 
 				// Take a few seconds pause to display results, if parallelism is disabled.
-				if (!SimulationParameters.parallelism_enabled) {
+				if (!configuration.parallelism_enabled) {
 					pause(simLog);
 				}
 				iteration++;
@@ -168,8 +226,8 @@ public class SimulationThread {
 	 */
 	protected void pause(SimLog simLog) throws InterruptedException {
 		// Take a few seconds pause to show the results.
-		simLog.print(SimulationParameters.pauseLength + " seconds peause...");
-		for (int k = 1; k <= SimulationParameters.pauseLength; k++) {
+		simLog.print(configuration.pauseLength + " seconds peause...");
+		for (int k = 1; k <= configuration.pauseLength; k++) {
 			simLog.printSameLine(".");
 			Thread.sleep(1000);
 		}
@@ -223,11 +281,25 @@ public class SimulationThread {
 	 * @param simLog the simulation logger.
 	 */
 	protected void generateCharts(SimLog simLog) {
-		if (SimulationParameters.saveCharts && !SimulationParameters.parallelism_enabled && simLog != null) {
+		if (configuration.saveCharts && !configuration.parallelism_enabled && simLog != null) {
 			SimLog.println(getClass().getSimpleName() + " - Saving charts...");
-			ChartsGenerator chartsGenerator = new ChartsGenerator(simLog.getFileName(".csv"));
+			ChartsGenerator chartsGenerator = new ChartsGenerator(simLog.getFileName(".csv"), configuration);
 			chartsGenerator.generate();
 		}
 	}
 
+
+	/**
+	 * Gets the id of the data of an event, to record it in the event trace.
+	 * 
+	 * @param data the data of the event.
+	 * @return the id of the task the event is about, or -1.
+	 */
+	protected static long getPayloadId(Object data) {
+		if (data instanceof Task)
+			return ((Task) data).getId();
+		if (data instanceof TransferProgress)
+			return ((TransferProgress) data).getTask().getId();
+		return -1;
+	}
 }
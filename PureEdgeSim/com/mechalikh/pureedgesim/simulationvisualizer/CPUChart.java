@@ -29,7 +29,6 @@ import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
 import org.knowm.xchart.style.markers.SeriesMarkers;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
@@ -38,14 +37,10 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  */
 public class CPUChart extends Chart {
 	// Lists to store CPU usage and time
-	protected List<Double> cloudUsage = new ArrayList<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
-	protected List<Double> mistUsage = new ArrayList<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
-	protected List<Double> edgeUsage = new ArrayList<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
-	protected List<Double> currentTime = new ArrayList<>(
-			(int) (SimulationParameters.simulationDuration / SimulationParameters.updateInterval));
+	protected List<Double> cloudUsage;
+	protected List<Double> mistUsage;
+	protected List<Double> edgeUsage;
+	protected List<Double> currentTime;
 
 	/**
 	 * Constructs a CPUChart object.
@@ -57,6 +52,12 @@ public class CPUChart extends Chart {
 	 */
 	public CPUChart(String title, String xAxisTitle, String yAxisTitle, SimulationManager simulationManager) {
 		super(title, xAxisTitle, yAxisTitle, simulationManager);
+		int size = (int) (simulationManager.getConfiguration().simulationDuration
+				/ simulationManager.getConfiguration().updateInterval);
+		cloudUsage = new ArrayList<>(size);
+		mistUsage = new ArrayList<>(size);
+		edgeUsage = new ArrayList<>(size);
+		currentTime = new ArrayList<>(size);
 		getChart().getStyler().setDefaultSeriesRenderStyle(XYSeriesRenderStyle.Line);
 		updateSize(0.0, null, 0.0, null);
 	}
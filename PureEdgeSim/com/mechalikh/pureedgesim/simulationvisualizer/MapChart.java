@@ -28,7 +28,6 @@ import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
 import org.knowm.xchart.style.markers.SeriesMarkers;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
@@ -59,8 +58,8 @@ public class MapChart extends Chart {
 		super(title, xAxisTitle, yAxisTitle, simulationManager);
 		getChart().getStyler().setDefaultSeriesRenderStyle(XYSeriesRenderStyle.Scatter);
 		getChart().getStyler().setMarkerSize(4);
-		updateSize(0.0, (double) SimulationParameters.simulationMapWidth, 0.0,
-				(double) SimulationParameters.simulationMapLength);
+		updateSize(0.0, (double) simulationManager.getConfiguration().simulationMapWidth, 0.0,
+				(double) simulationManager.getConfiguration().simulationMapLength);
 	}
 
 	/**
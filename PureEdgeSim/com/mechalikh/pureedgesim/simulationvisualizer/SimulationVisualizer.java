@@ -34,7 +34,6 @@ import org.knowm.xchart.BitmapEncoder.BitmapFormat;
 import org.knowm.xchart.SwingWrapper;
 import org.knowm.xchart.XYChart;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager; 
 /**
  * The {@code SimulationVisualizer} class provides a GUI to visualize the
@@ -72,7 +71,7 @@ public class SimulationVisualizer {
         charts.addAll(List.of(mapChart, cpuUtilizationChart, tasksSuccessChart));
 
         // Add network utilization chart if the useOneSharedWanLink parameter is true
-        if (SimulationParameters.useOneSharedWanLink) {
+        if (simulationManager.getConfiguration().useOneSharedWanLink) {
             Chart networkUtilizationChart = new WanChart("Network utilization", "Time (s)", "Utilization (Mbps)",
                     simulationManager);
             charts.add(networkUtilizationChart);
@@ -131,10 +130,10 @@ public class SimulationVisualizer {
      */
     public void saveCharts() throws IOException {
         // Create the directory path for saving the images
-        String folderName = SimulationParameters.outputFolder + "/"
+        String folderName = simulationManager.getConfiguration().outputFolder + "/"
                 + simulationManager.getSimulationLogger().getSimStartTime() + "/simulation_"
                 + simulationManager.getSimulationId() + "/iteration_" + simulationManager.getIteration() + "__"
-                + simulationManager.getScenario().toString();
+                + simulationManager.getScenario().toString() + simulationManager.getSimulationLogger().getForkSuffix();
         // Create the directory if it does not exist
         new File(folderName).mkdirs();
         
@@ -142,7 +141,7 @@ public class SimulationVisualizer {
         BitmapEncoder.saveBitmapWithDPI(charts.get(0).getChart(), folderName + "/map_chart", BitmapFormat.PNG, 300);
         BitmapEncoder.saveBitmapWithDPI(charts.get(1).getChart(), folderName + "/cpu_usage", BitmapFormat.PNG, 300);
         BitmapEncoder.saveBitmapWithDPI(charts.get(2).getChart(), folderName + "/tasks_success_rate", BitmapFormat.PNG, 300);
-        if (SimulationParameters.useOneSharedWanLink) {
+        if (simulationManager.getConfiguration().useOneSharedWanLink) {
             BitmapEncoder.saveBitmapWithDPI(charts.get(3).getChart(), folderName + "/network_usage", BitmapFormat.PNG, 300);
         }
     }
@@ -26,7 +26,6 @@ import java.util.ArrayList;
 import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
 import org.knowm.xchart.style.markers.SeriesMarkers;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
@@ -50,7 +49,7 @@ public class WanChart extends Chart {
         super(title, xAxisTitle, yAxisTitle, simulationManager);
         getChart().getStyler().setDefaultSeriesRenderStyle(XYSeriesRenderStyle.Line);
         // We can use the constant directly instead of computing it every time.
-        updateSize(0.0, 0.0, 0.0, SimulationParameters.wanBandwidthBitsPerSecond / 1000000.0);
+        updateSize(0.0, 0.0, 0.0, simulationManager.getConfiguration().wanBandwidthBitsPerSecond / 1000000.0);
     }
 
     /**
@@ -65,7 +64,7 @@ public class WanChart extends Chart {
         wanDownUsage.add(wanDown);
 
         // Remove old data points.
-        int maxDataPoints = (int) (300 / SimulationParameters.chartsUpdateInterval);
+        int maxDataPoints = (int) (300 / simulationManager.getConfiguration().chartsUpdateInterval);
         while (wanUpUsage.size() > maxDataPoints) {
             wanUpUsage.remove(0);
             wanDownUsage.remove(0);
@@ -75,11 +74,11 @@ public class WanChart extends Chart {
         double[] time = new double[wanUpUsage.size()];
         double currentTime = simulationManager.getSimulation().clock();
         for (int i = wanUpUsage.size() - 1; i >= 0; i--) {
-            time[i] = currentTime - ((wanUpUsage.size() - i) * SimulationParameters.chartsUpdateInterval);
+            time[i] = currentTime - ((wanUpUsage.size() - i) * simulationManager.getConfiguration().chartsUpdateInterval);
         }
 
         // Update the chart with the new data.
-        updateSize(currentTime - 200, currentTime, 0.0, SimulationParameters.wanBandwidthBitsPerSecond / 1000000.0);
+        updateSize(currentTime - 200, currentTime, 0.0, simulationManager.getConfiguration().wanBandwidthBitsPerSecond / 1000000.0);
         updateSeries(getChart(), "WanUp", time, toArray(wanUpUsage), SeriesMarkers.NONE, Color.BLACK);
         updateSeries(getChart(), "WanDown", time, toArray(wanDownUsage), SeriesMarkers.NONE, Color.BLACK);
     }
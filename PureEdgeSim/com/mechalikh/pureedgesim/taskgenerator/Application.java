@@ -21,6 +21,8 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
+import java.io.Serializable;
+
 /**
  * This class represents an application that can be executed on a computing
  * node.
@@ -28,7 +30,8 @@ package com.mechalikh.pureedgesim.taskgenerator;
  * @author Charafeddine Mechalikh
  **/
 
-public class Application {
+public class Application implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The rate at which requests are generated for this application
@@ -20,20 +20,20 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.util.Random;
 import java.util.stream.IntStream;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 public class DefaultTaskGenerator extends TaskGenerator {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Used to generate random values.
 	 * 
+	 * @see com.mechalikh.pureedgesim.simulationengine.RandomStreams
 	 * @see #generate()
 	 * @see #generateTasksForDevice(ComputingNode, int)
 	 */
@@ -43,11 +43,7 @@ public class DefaultTaskGenerator extends TaskGenerator {
 
 	public DefaultTaskGenerator(SimulationManager simulationManager) {
 		super(simulationManager);
-		try {
-			random = SecureRandom.getInstanceStrong();
-		} catch (NoSuchAlgorithmException e) {
-			e.printStackTrace();
-		}
+		random = simulationManager.getSimulation().getRandomStreams().getStream("tasks");
 	}
 
 	/**
@@ -57,7 +53,7 @@ public class DefaultTaskGenerator extends TaskGenerator {
 	 */
 	public FutureQueue<Task> generate() {
 		// Get simulation time in minutes (excluding the initialization time)
-		simulationTime = SimulationParameters.simulationDuration / 60;
+		simulationTime = simulationManager.getConfiguration().simulationDuration / 60;
 
 		// Remove devices that do not generate
 		devicesList.removeIf(dev -> !dev.isGeneratingTasks());
@@ -65,14 +61,14 @@ public class DefaultTaskGenerator extends TaskGenerator {
 		int devicesCount = devicesList.size();
 
 		// Browse all applications
-		IntStream.range(0, SimulationParameters.applicationList.size() - 1).forEach(app -> {
-			int numberOfDevices = (int) (SimulationParameters.applicationList.get(app).getUsagePercentage()
+		IntStream.range(0, simulationManager.getConfiguration().applicationList.size() - 1).forEach(app -> {
+			int numberOfDevices = (int) (simulationManager.getConfiguration().applicationList.get(app).getUsagePercentage()
 					* devicesCount / 100);
 			IntStream.range(0, numberOfDevices).mapToObj(i -> devicesList.remove(random.nextInt(devicesList.size())))
 					.peek(dev -> dev.setApplicationType(app)).forEach(dev -> generateTasksForDevice(dev, app));
 		});
 
-		devicesList.forEach(dev -> generateTasksForDevice(dev, SimulationParameters.applicationList.size() - 1));
+		devicesList.forEach(dev -> generateTasksForDevice(dev, simulationManager.getConfiguration().applicationList.size() - 1));
 		return this.getTaskList();
 	}
 
@@ -100,7 +96,7 @@ public class DefaultTaskGenerator extends TaskGenerator {
 	 * @param device the device that generates the task
 	 */
 	protected void insert(int time, int app, ComputingNode dev) {
-		Application appParams = SimulationParameters.applicationList.get(app);
+		Application appParams = simulationManager.getConfiguration().applicationList.get(app);
 		long requestSize = appParams.getRequestSize();
 		long outputSize = appParams.getResultsSize();
 		long containerSize = appParams.getContainerSizeInBits();
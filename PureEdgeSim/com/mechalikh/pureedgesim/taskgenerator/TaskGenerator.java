@@ -20,6 +20,7 @@
  **/
 package com.mechalikh.pureedgesim.taskgenerator;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,7 +28,9 @@ import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.simulationengine.FutureQueue;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
-public abstract class TaskGenerator {
+public abstract class TaskGenerator implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The Task class that is used in the simulation.
 	 * 
@@ -29,6 +29,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
 public abstract class Orchestrator extends SimEntity {
+	private static final long serialVersionUID = 1L;
+
 	protected List<ComputingNode> nodeList;
 	protected SimulationManager simulationManager;
 	protected SimLog simLog;
@@ -187,10 +189,10 @@ public abstract class Orchestrator extends SimEntity {
 																												// computing
 				// compare destination (edge device) location and origin (edge device) location,
 				// if they are in same area offload to this device
-						&& (sameLocation(node, task.getEdgeDevice(), SimulationParameters.edgeDevicesRange)
+						&& (sameLocation(node, task.getEdgeDevice(), simulationManager.getConfiguration().edgeDevicesRange)
 								// or compare the location of their orchestrators
-								|| (SimulationParameters.enableOrchestrators && sameLocation(node,
-										task.getOrchestrator(), SimulationParameters.edgeDevicesRange)))
+								|| (simulationManager.getConfiguration().enableOrchestrators && sameLocation(node,
+										task.getOrchestrator(), simulationManager.getConfiguration().edgeDevicesRange)))
 						&& !node.isDead() && !node.isSensor()));
 	}
 
@@ -22,7 +22,6 @@ package examples;
 
 import com.mechalikh.pureedgesim.locationmanager.Location;
 import com.mechalikh.pureedgesim.locationmanager.MobilityModel;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters; 
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 
 /**
@@ -38,6 +37,7 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  */
 
 public class Example2CustomMobilityModel extends MobilityModel {
+	private static final long serialVersionUID = 1L;
 
 	public Example2CustomMobilityModel(SimulationManager simulationManager, Location currentLocation) {
 		super(simulationManager, currentLocation);
@@ -53,12 +53,12 @@ public class Example2CustomMobilityModel extends MobilityModel {
 		Double y_position = location.getYPos() + 1;
 
 		// If x position is bigger then the simulation area length, start from 0.
-		if (x_position > SimulationParameters.simulationMapLength)
-			x_position = x_position % SimulationParameters.simulationMapLength;
+		if (x_position > simulationManager.getConfiguration().simulationMapLength)
+			x_position = x_position % simulationManager.getConfiguration().simulationMapLength;
 
 		// If y position is bigger then the simulation area length, start from 0.
-		if (y_position > SimulationParameters.simulationMapWidth)
-			y_position = y_position % SimulationParameters.simulationMapWidth;
+		if (y_position > simulationManager.getConfiguration().simulationMapWidth)
+			y_position = y_position % simulationManager.getConfiguration().simulationMapWidth;
 
 		// Return the new Location.
 		return new Location(x_position, y_position);
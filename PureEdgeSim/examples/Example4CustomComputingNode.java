@@ -37,6 +37,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 2.2
  */
 public class Example4CustomComputingNode extends DefaultComputingNode implements OnSimulationStartListener{
+	private static final long serialVersionUID = 1L;
+
 	private static final int DO_SOMETHING = 12000; // Avoid conflicting with super classes tags
 
 	public Example4CustomComputingNode(SimulationManager simulationManager, double mipsCapacity, int numberOfPes,
@@ -48,8 +50,9 @@ public class Example4CustomComputingNode extends DefaultComputingNode implements
 	 * This is a discrete event simulator, the devices or the simulation entities
 	 * will communicate through events here is an example of how to launch an event
 	 * after creating a device. where in this case, the event is sent to the device
-	 * itself,in order to update its energy consumption and resources utilization
-	 * history.
+	 * itself. The call to super.onSimulationStart() registers the device for the
+	 * periodic updates of its energy consumption, location and resources
+	 * utilization history.
 	 */
 	@Override
 	public void onSimulationStart() {
@@ -60,9 +63,9 @@ public class Example4CustomComputingNode extends DefaultComputingNode implements
 
 	/*
 	 * The events sent, are handled via the following method. in this example, the
-	 * event was sent from this device to itself. after receiving this event, the
-	 * device will update its energy consumption, its location, and its resources
-	 * utilization history. after that, it will schedule the next update
+	 * event was sent from this device to itself. The periodic updates of the
+	 * device are not events: they are done by the updateStatus() method, which
+	 * can be overridden to update something else every update interval.
 	 */
 	@Override
 	public void processEvent(final Event ev) {
@@ -71,10 +74,8 @@ public class Example4CustomComputingNode extends DefaultComputingNode implements
 			System.out.println("Event received, you can do any action here");
 			break;
 		default:
-			// process other events using the DefaultDataCenter class that we have extended
-			// (the super class)
-			// if you remove this line, it will not update the energy consumption and the
-			// cpu utilization
+			// process other events using the DefaultComputingNode class that we have
+			// extended (the super class)
 			super.processEvent(ev);
 			break;
 		}
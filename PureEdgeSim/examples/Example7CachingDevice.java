@@ -25,7 +25,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
 import com.mechalikh.pureedgesim.taskgenerator.Task;
 
@@ -66,6 +65,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 2.3
  */
 public class Example7CachingDevice extends Example7ClusteringDevice {
+	private static final long serialVersionUID = 1L;
 
 	public List<Task> cache = new ArrayList<Task>();
 	public List<int[]> Remotecache = new ArrayList<int[]>();
@@ -76,7 +76,7 @@ public class Example7CachingDevice extends Example7ClusteringDevice {
 		super(simulationManager, mipsCapacity, numberOfPes, storage, ram);
 
 		// Initialize probability map
-		for (int i = 0; i < SimulationParameters.applicationList.size(); i++)
+		for (int i = 0; i < simulationManager.getConfiguration().applicationList.size(); i++)
 			probability.put(i, 0);
 	}
 
@@ -25,7 +25,6 @@ import java.util.List;
 
 import com.mechalikh.pureedgesim.datacentersmanager.ComputingNode;
 import com.mechalikh.pureedgesim.datacentersmanager.DefaultComputingNode;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.simulationengine.Event;
 import com.mechalikh.pureedgesim.simulationengine.OnSimulationStartListener;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
@@ -67,6 +66,8 @@ import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
  * @since PureEdgeSim 2.3
  */
 public class Example7ClusteringDevice extends DefaultComputingNode implements OnSimulationStartListener{
+	private static final long serialVersionUID = 1L;
+
 	private double weight = 0;
 	private Example7ClusteringDevice parent;
 	protected Example7ClusteringDevice Orchestrator;
@@ -107,7 +108,7 @@ public class Example7ClusteringDevice extends DefaultComputingNode implements On
 	public void processEvent(Event ev) {
 		switch (ev.getTag()) {
 		case UPDATE_CLUSTERS:
-			if ("CLUSTER".equals(SimulationParameters.deployOrchestrators) && (getSimulation().clock() - time > 30)) {
+			if ("CLUSTER".equals(simulationManager.getConfiguration().deployOrchestrators) && (getSimulation().clock() - time > 30)) {
 				time = (int) getSimulation().clock();
 
 				// Update clusters.
@@ -125,10 +126,19 @@ public class Example7ClusteringDevice extends DefaultComputingNode implements On
 		}
 	}
 
+	/**
+	 * The clusters updates are periodic, so they should not keep the simulation
+	 * running once all the tasks have been executed:
+	 */
+	@Override
+	protected boolean isHousekeeping(Event ev) {
+		return ev.getTag() == UPDATE_CLUSTERS;
+	}
+
 	public void updateCluster() {
 		originalWeight = getOriginalWeight();
 		if ((getOrchestratorWeight() < originalWeight) || ((parent != null)
-				&& (this.getMobilityModel().distanceTo(parent) > SimulationParameters.edgeDevicesRange))) {
+				&& (this.getMobilityModel().distanceTo(parent) > simulationManager.getConfiguration().edgeDevicesRange))) {
 			setOrchestrator(this);
 			weight = getOrchestratorWeight();
 		}
@@ -141,7 +151,7 @@ public class Example7ClusteringDevice extends DefaultComputingNode implements On
 		int neighbors = 1; // to avoid devision by zero
 		double distance = 0;
 		for (int i = 0; i < edgeDevices.size(); i++) {
-			if (distance <= SimulationParameters.edgeDevicesRange) {
+			if (distance <= simulationManager.getConfiguration().edgeDevicesRange) {
 				// neighbor
 				neighbors++;
 			}
@@ -210,7 +220,7 @@ public class Example7ClusteringDevice extends DefaultComputingNode implements On
 
 	private void compareWeightWithNeighbors() {
 		for (int i = 2; i < edgeDevices.size(); i++) {
-			if (this.getMobilityModel().distanceTo(edgeDevices.get(i)) <= SimulationParameters.edgeDevicesRange
+			if (this.getMobilityModel().distanceTo(edgeDevices.get(i)) <= simulationManager.getConfiguration().edgeDevicesRange
 					// neighbors
 					&& (weight < ((Example7ClusteringDevice) edgeDevices.get(i)).weight)) {
 
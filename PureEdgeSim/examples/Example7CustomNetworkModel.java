@@ -23,7 +23,6 @@ package examples;
 import com.mechalikh.pureedgesim.network.TransferProgress;
 import com.mechalikh.pureedgesim.network.DefaultNetworkModel;
 import com.mechalikh.pureedgesim.network.NetworkModel;
-import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters;
 import com.mechalikh.pureedgesim.scenariomanager.SimulationParameters.TYPES;
 import com.mechalikh.pureedgesim.simulationmanager.DefaultSimulationManager;
 import com.mechalikh.pureedgesim.simulationmanager.SimulationManager;
@@ -66,6 +65,7 @@ import com.mechalikh.pureedgesim.taskgenerator.Task;
  * @since PureEdgeSim 2.3
  */
 public class Example7CustomNetworkModel extends DefaultNetworkModel {
+	private static final long serialVersionUID = 1L;
 
 	private static final int MAX_NUMBER_OF_REPLICAS = 8;
 
@@ -75,8 +75,8 @@ public class Example7CustomNetworkModel extends DefaultNetworkModel {
 
 	@Override
 	protected void transferFinished(TransferProgress transfer) {
-		if (transfer.getTransferType() == TransferProgress.Type.TASK && SimulationParameters.enableRegistry
-				&& "CACHE".equals(SimulationParameters.registryMode)) {
+		if (transfer.getTransferType() == TransferProgress.Type.TASK && simulationManager.getConfiguration().enableRegistry
+				&& "CACHE".equals(simulationManager.getConfiguration().registryMode)) {
 			// the offloading request has been received, now pull the container in order to
 			// execute the task
 			pullContainer(transfer.getTask());
@@ -119,7 +119,7 @@ public class Example7CustomNetworkModel extends DefaultNetworkModel {
 	}
 
 	private boolean canKeepReplica(Example7CachingDevice edgeDevice, Task task) {
-		return ("CACHE".equals(SimulationParameters.registryMode)
+		return ("CACHE".equals(simulationManager.getConfiguration().registryMode)
 				&& ((Example7CachingDevice) edgeDevice.getOrchestrator())
 						.countContainer(task.getApplicationID()) < MAX_NUMBER_OF_REPLICAS);
 	}
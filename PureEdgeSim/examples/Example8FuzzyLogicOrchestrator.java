@@ -46,6 +46,7 @@ import net.sourceforge.jFuzzyLogic.FIS;
  * @since PureEdgeSim 3.0
  */
 public class Example8FuzzyLogicOrchestrator extends DefaultOrchestrator {
+	private static final long serialVersionUID = 1L;
 
 	public Example8FuzzyLogicOrchestrator(SimulationManager simulationManager) {
 		super(simulationManager);
@@ -82,9 +83,9 @@ public class Example8FuzzyLogicOrchestrator extends DefaultOrchestrator {
 
 		// Set fuzzy inputs
 		fis.setVariable("wan",
-				(SimulationParameters.wanBandwidthBitsPerSecond
+				(simulationManager.getConfiguration().wanBandwidthBitsPerSecond
 						- simulationManager.getNetworkModel().getWanUpUtilization())
-						/ SimulationParameters.wanBandwidthBitsPerSecond);
+						/ simulationManager.getConfiguration().wanBandwidthBitsPerSecond);
 		fis.setVariable("taskLength", task.getLength());
 		fis.setVariable("delay", task.getMaxLatency());
 		fis.setVariable("cpuUsage", count > 0 ? cpuUsage / count : 1);